@@ -0,0 +1,205 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of every Graph operation, for every implementation in this
+ * package, over several graph sizes and degree distributions.
+ * 
+ * <p>The benchmarks need jmh-core and jmh-generator-annprocess (1.37 or
+ * later) on the classpath, with the annotation processor enabled, next to
+ * the compiled src folder. Run them with
+ *      java -cp &lt;classpath&gt; org.openjdk.jmh.Main graph.GraphBenchmark
+ * and pick parameters with -p, e.g. -p implementation=ConcreteEdgesGraph.
+ * 
+ * <p>Benchmarks that change the graph undo their change in the same
+ * invocation, so the graph keeps its size and shape across iterations; their
+ * scores include the undo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+    
+    private static final int AVERAGE_DEGREE = 8;
+    private static final int OPERANDS = 1 << 12;
+    
+    /** Implementation to measure; every name is accepted by newGraph() */
+    @Param({ "ConcreteEdgesGraph", "ConcreteVerticesGraph", "IntIndexedGraph",
+             "ConcurrentGraph", "OffHeapGraph" })
+    public String implementation;
+    
+    /** Number of vertices in the graph */
+    @Param({ "1000", "100000" })
+    public int vertices;
+    
+    /**
+     * How edge targets are chosen: "uniform" picks every vertex with the same
+     * probability, "skewed" favours low-numbered vertices so that a few hubs
+     * have very high in-degree, as in word graphs
+     */
+    @Param({ "uniform", "skewed" })
+    public String degrees;
+    
+    private Graph<String> graph;
+    private String[] labels;
+    private String[] existingSources;
+    private String[] existingTargets;
+    private String[] absentTargets;
+    private String[] removedVertices;
+    private List<Map<String, Integer>> removedTargets;
+    private List<Map<String, Integer>> removedSources;
+    private int next = 0;
+    
+    /** Returns a new empty graph of the named implementation */
+    static Graph<String> newGraph(String implementation) {
+        switch ( implementation ) {
+        case "ConcreteEdgesGraph":    return new ConcreteEdgesGraph<>();
+        case "ConcreteVerticesGraph": return new ConcreteVerticesGraph<>();
+        case "IntIndexedGraph":       return Graphs.intIndexed();
+        case "ConcurrentGraph":       return Graphs.concurrent();
+        case "OffHeapGraph":          return Graphs.offHeap();
+        default: throw new IllegalArgumentException("unknown implementation: " + implementation);
+        }
+    }
+    
+    private int pickTarget(Random random) {
+        if ( degrees.equals("skewed") ) {
+            return (int) (vertices * Math.pow(random.nextDouble(), 3));
+        }
+        return random.nextInt(vertices);
+    }
+    
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        graph = newGraph(implementation);
+        labels = new String[vertices];
+        for ( int i = 0; i < vertices; i++ ) {
+            labels[i] = "v" + i;
+            graph.add(labels[i]);
+        }
+        for ( int i = 0; i < vertices * AVERAGE_DEGREE; i++ ) {
+            final int source = random.nextInt(vertices);
+            final int target = pickTarget(random);
+            if ( source != target ) { //not every implementation allows loops
+                graph.set(labels[source], labels[target], 1 + random.nextInt(100));
+            }
+        }
+        
+        existingSources = new String[OPERANDS];
+        existingTargets = new String[OPERANDS];
+        absentTargets = new String[OPERANDS];
+        removedVertices = new String[OPERANDS];
+        removedTargets = new ArrayList<>();
+        removedSources = new ArrayList<>();
+        for ( int i = 0; i < OPERANDS; i++ ) {
+            String source = labels[random.nextInt(vertices)];
+            while ( graph.targets(source).isEmpty() ) {
+                source = labels[random.nextInt(vertices)];
+            }
+            existingSources[i] = source;
+            existingTargets[i] = graph.targets(source).keySet().iterator().next();
+            absentTargets[i] = "absent" + i;
+            
+            final String removed = labels[random.nextInt(vertices)];
+            removedVertices[i] = removed;
+            removedTargets.add(new HashMap<>(graph.targets(removed)));
+            removedSources.add(new HashMap<>(graph.sources(removed)));
+        }
+    }
+    
+    private int nextOperand() {
+        next = (next + 1) & (OPERANDS - 1);
+        return next;
+    }
+    
+    @Benchmark
+    public boolean addExisting() {
+        return graph.add(existingSources[nextOperand()]);
+    }
+    
+    @Benchmark
+    public boolean addNewThenRemove() {
+        final String vertex = absentTargets[nextOperand()];
+        graph.add(vertex);
+        return graph.remove(vertex);
+    }
+    
+    @Benchmark
+    public int setUpdate() {
+        final int i = nextOperand();
+        return graph.set(existingSources[i], existingTargets[i], 1 + (i & 63));
+    }
+    
+    @Benchmark
+    public int setInsertThenDelete() {
+        final int i = nextOperand();
+        graph.set(existingSources[i], absentTargets[i], 1);
+        return graph.set(existingSources[i], absentTargets[i], 0);
+    }
+    
+    @Benchmark
+    public boolean removeThenRestore() {
+        final int i = nextOperand();
+        final String vertex = removedVertices[i];
+        final boolean removed = graph.remove(vertex);
+        graph.add(vertex);
+        for ( Map.Entry<String, Integer> target : removedTargets.get(i).entrySet() ) {
+            graph.set(vertex, target.getKey(), target.getValue());
+        }
+        for ( Map.Entry<String, Integer> source : removedSources.get(i).entrySet() ) {
+            graph.set(source.getKey(), vertex, source.getValue());
+        }
+        return removed;
+    }
+    
+    @Benchmark
+    public int vertices() {
+        return graph.vertices().size();
+    }
+    
+    @Benchmark
+    public long sources(Blackhole blackhole) {
+        return sumWeights(graph.sources(existingTargets[nextOperand()]), blackhole);
+    }
+    
+    @Benchmark
+    public long targets(Blackhole blackhole) {
+        return sumWeights(graph.targets(existingSources[nextOperand()]), blackhole);
+    }
+    
+    /** Iterates over a whole adjacency map, as a client would */
+    private static long sumWeights(Map<String, Integer> weights, Blackhole blackhole) {
+        long sum = 0;
+        for ( Map.Entry<String, Integer> entry : weights.entrySet() ) {
+            blackhole.consume(entry.getKey());
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+}
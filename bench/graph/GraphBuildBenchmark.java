@@ -0,0 +1,88 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of building a word graph, as GraphPoet does, for every
+ * implementation in this package.
+ *
+ * <p>The corpus is a stream of words whose frequencies follow Zipf's law,
+ * and every pair of adjacent words increments the weight of an edge, so a
+ * few very common words get very high degrees. See GraphBenchmark for how
+ * to build and run the benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphBuildBenchmark {
+
+    private static final int VOCABULARY = 50000;
+
+    /** Implementation to measure; every name is accepted by GraphBenchmark.newGraph() */
+    @Param({ "ConcreteEdgesGraph", "ConcreteVerticesGraph", "IntIndexedGraph",
+             "ConcurrentGraph", "OffHeapGraph" })
+    public String implementation;
+
+    /** Number of words in the corpus */
+    @Param({ "100000", "2000000" })
+    public int corpusWords;
+
+    private String[] corpus;
+    private Graph<String> graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        final double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for ( int rank = 0; rank < VOCABULARY; rank++ ) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        corpus = new String[corpusWords];
+        for ( int i = 0; i < corpusWords; i++ ) {
+            final int found = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            final int rank = Math.min(found < 0 ? -found - 1 : found, VOCABULARY - 1);
+            corpus[i] = "w" + rank;
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        if ( graph instanceof OffHeapGraph ) {
+            ((OffHeapGraph) graph).close();
+        }
+        graph = null;
+    }
+
+    @Benchmark
+    public int build() {
+        graph = GraphBenchmark.newGraph(implementation);
+        for ( int i = 0; i + 1 < corpus.length; i++ ) {
+            Graphs.increment(graph, corpus[i], corpus[i + 1], 1);
+        }
+        return graph.vertices().size();
+    }
+}
@@ -0,0 +1,89 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package poet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of GraphPoet construction and createPoem(), over generated
+ * corpora of several sizes.
+ * 
+ * <p>See graph.GraphBenchmark for how to build and run the benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphPoetBenchmark {
+    
+    private static final int VOCABULARY = 2000;
+    private static final int INPUT_WORDS = 50;
+    
+    /** Number of words in the corpus */
+    @Param({ "1000", "100000" })
+    public int corpusWords;
+    
+    private File corpus;
+    private GraphPoet poet;
+    private String input;
+    
+    /** Returns words drawn from a skewed vocabulary, separated by spaces */
+    private static String words(Random random, int count) {
+        final StringBuilder words = new StringBuilder();
+        for ( int i = 0; i < count; i++ ) {
+            if ( i > 0 ) {
+                words.append(i % 12 == 0 ? '\n' : ' ');
+            }
+            words.append("w").append((int) (VOCABULARY * Math.pow(random.nextDouble(), 2)));
+        }
+        return words.toString();
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Random random = new Random(42);
+        corpus = File.createTempFile("corpus", ".txt");
+        Files.write(corpus.toPath(),
+                Collections.singletonList(words(random, corpusWords)), StandardCharsets.UTF_8);
+        poet = new GraphPoet(corpus);
+        input = words(random, INPUT_WORDS).replace('\n', ' ');
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(corpus.toPath());
+    }
+    
+    @Benchmark
+    public GraphPoet construct() throws IOException {
+        return new GraphPoet(corpus);
+    }
+    
+    @Benchmark
+    public String createPoem() {
+        return poet.createPoem(input);
+    }
+}
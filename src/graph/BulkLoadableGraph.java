@@ -0,0 +1,42 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Iterator;
+
+/**
+ * A Graph that can be filled with many edges in one call, for loading large
+ * graphs. Implementations check their rep invariant once per call instead
+ * of once per edge, and may size their internal structures up front.
+ * 
+ * <p>{@link Graphs#load} fills any graph from a stream of edges, using this
+ * interface when the graph implements it.
+ * 
+ * @param <L> type of vertex labels in this graph, must be immutable
+ */
+public interface BulkLoadableGraph<L> extends Graph<L> {
+    
+    /**
+     * Add or change many weighted directed edges, with the same effect as
+     * calling {@link #set(Object, Object, int) set(e.getSource(),
+     * e.getTarget(), e.getWeight())} for each edge e in order.
+     * 
+     * @param edges edges to set; consumed by this call
+     */
+    public void setAll(Iterator<? extends Edge<L>> edges);
+    
+    /**
+     * Add, change, or remove many weighted directed edges, with the same
+     * effect as calling {@link #set(Object, Object, int)
+     * set(sources[i], targets[i], weights[i])} for each i in increasing order.
+     * 
+     * @param sources labels of the source vertices
+     * @param targets labels of the target vertices, requires
+     *                targets.length == sources.length
+     * @param weights nonnegative weights of the edges, requires
+     *                weights.length == sources.length
+     */
+    public void setAll(L[] sources, L[] targets, int[] weights);
+    
+}
@@ -3,148 +3,413 @@
  */
 package graph;
 
-import java.util.ArrayList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 /**
  * An implementation of Graph.
  * 
- * <p>PS2 instructions: you MUST use the provided rep.
+ * <p>Edges are kept in an edge table of three int columns, the source id,
+ * target id and weight of each edge, over a table of interned vertex labels.
+ * Slots of removed edges go on a free list and are reused by later edges.
+ * Each vertex also indexes the slots of its edges by the label at the other
+ * end, so looking up, setting or removing a single edge takes constant time,
+ * {@link #sources(Object)} and {@link #targets(Object)} take time
+ * proportional to the degree of the vertex, and {@link #remove(Object)} only
+ * touches the edges of the removed vertex. Scans over all edges, such as
+ * {@link #toString()}, walk the columns in order. Degrees and weight sums
+ * of every vertex, and of the whole graph, are kept up to date as edges
+ * change, so the queries of {@link DegreeGraph} take constant time.
+ * Changes are reported to the listeners of {@link ObservableGraph}; with
+ * no listener registered, no events are built.
+ * 
+ * <p>An edge costs 12 bytes in the columns, plus one entry in the index of
+ * each of its two vertices, about 38 bytes in all on a 64-bit JVM with
+ * compressed references. The indexes are what make single-edge operations
+ * constant-time; without them every lookup would scan the edge table.
  */
-public class ConcreteEdgesGraph<L> implements Graph<L> {
+public class ConcreteEdgesGraph<L>
+        implements CountingGraph<L>, BulkLoadableGraph<L>, DegreeGraph<L>, ObservableGraph<L> {
+    
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int NO_SLOT = -1;
     
-    private final Set<L> vertices = new HashSet<>();
-    private final List<Edge<L>> edges = new ArrayList<>();
+    private final Map<L, VertexEdges<L>> vertices = new HashMap<>();
+    private final Set<L> vertexLabels = Collections.unmodifiableSet(vertices.keySet());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private VertexEdges<L>[] vertexById = new VertexEdges[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int numberOfFreeIds = 0;
+    private int nextId = 0;
+    
+    private int[] sourceColumn = new int[INITIAL_CAPACITY];
+    private int[] targetColumn = new int[INITIAL_CAPACITY];
+    private int[] weightColumn = new int[INITIAL_CAPACITY];
+    private int numberOfSlots = 0;
+    private int firstFreeSlot = NO_SLOT;
+    private int numberOfEdges = 0;
+    private long totalWeight = 0;
+    private GraphMetrics metrics = null;
+    private GraphEvents<L> events = null;
     
     // Abstraction function:
-    //   represents all edges in a graph as a pair of connected vertices
-    //   with a source to target direction that carries weight 
+    //   represents the graph whose vertices are the keys of vertices, with
+    //   an edge vertexById[sourceColumn[i]].label ->
+    //   vertexById[targetColumn[i]].label of weight weightColumn[i] for
+    //   every slot i < numberOfSlots with weightColumn[i] > 0
     // Representation invariant:
-    //   vertices is a set of objects of type L
-    //   edges is a list of distinct weighted Edges made by 
-    //      distinct pairs of vertices(no pair of vertices exists more than once).   
-    //   An edge must be connected to at least v number of vertices, for example,
-    //     2 edges require at least 3 vertices, 5 edges require at least 4 vertices
-    //     vertices.size() >= Math.ceil(Math.sqrt(2*edges.size) + 0.5)
-    //     (source) https://math.stackexchange.com/a/1954272
+    //   vertices.get(v).label == v, vertices.get(v).id is the id of v,
+    //     vertexById[id] == vertices.get(v), and ids are distinct; ids below
+    //     nextId that are not in use are the first numberOfFreeIds entries
+    //     of freeIds, and their entries of vertexById are null
+    //   slot i holds an edge s -> t iff weightColumn[i] > 0, and then
+    //     vertices.get(s).targets.get(t) == i + 1 and
+    //     vertices.get(t).sources.get(s) == i + 1; every value in those
+    //     maps is such a slot plus one
+    //   slots below numberOfSlots with weightColumn[i] == 0 are free, and are
+    //     chained from firstFreeSlot through targetColumn, ending in NO_SLOT
+    //   numberOfEdges is the number of slots holding an edge, and since each
+    //     ordered pair of vertices carries at most one edge,
+    //     numberOfEdges <= vertices.size() * vertices.size()
+    //   the three columns have the same length, at least numberOfSlots
+    //   vertices.get(v).targetWeight and .sourceWeight are the sums of the
+    //     weights of the edges out of and into v, and totalWeight is the
+    //     sum of all weights
     //
     // Safety from rep exposure:
-    //   All fields are private and final
-    //   vertices and edges are mutable types, so operations use defensive copies and
-    //   immutable wrappers to avoid sharing the rep's objects to clients
+    //   All fields are private; arrays and VertexEdges are never returned
+    //   vertices(), sources() and targets() return unmodifiable views
+    //   metrics is only ever written to, and is shared on purpose
+    //   events is never returned; listeners get immutable GraphEvents
     
     public ConcreteEdgesGraph(){
     }
     private void checkRep(){
-        final int sizeOfEdges = edges.size();
-        final int sizeOfVertices = vertices.size();
-        int minNumberOfVertices = 
-                sizeOfEdges == 0 ? 0 : (int)Math.ceil(Math.sqrt(2 * sizeOfEdges) + 0.5);
+        final long sizeOfEdges = numberOfEdges;
+        final long sizeOfVertices = vertices.size();
         
-        assert sizeOfVertices >= minNumberOfVertices;  
+        assert sizeOfEdges >= 0;
+        assert sizeOfEdges <= sizeOfVertices * sizeOfVertices;
+        assert totalWeight >= sizeOfEdges;
+        assert sizeOfEdges <= numberOfSlots;
+        assert sizeOfVertices + numberOfFreeIds == nextId;
+        assert sourceColumn.length == weightColumn.length && targetColumn.length == weightColumn.length;
     }
     /** Returns true if vertex label is added*/
     @Override public boolean add(L vertex) {
-        return vertices.add(vertex);
+        if ( vertices.containsKey(vertex) ) {
+            return false;
+        }
+        vertexFor(vertex);
+        checkRep();
+        flushEvents();
+        return true;
     }    
     @Override public int set(L source, L target, int weight) {
         assert weight >= 0;
         
-        int indexOfEdge = indexOfEdgeInEdges(source, target);
-        int previousWeight = 0;
-        final Edge<L> previousEdge;
+        final int previousWeight = weight > 0
+                ? putEdge(source, target, weight)
+                : removeEdge(source, target);
+        checkRep();
+        flushEvents();
+        return previousWeight;
+    }
+    /** Sets all edges, checking the rep once at the end */
+    @Override public void setAll(Iterator<? extends Edge<L>> edges) {
+        while ( edges.hasNext() ) {
+            final Edge<L> edge = edges.next();
+            putEdge(edge.getSource(), edge.getTarget(), edge.getWeight());
+        }
+        checkRep();
+        flushEvents();
+    }
+    /** Sets all edges, checking the rep once at the end */
+    @Override public void setAll(L[] sources, L[] targets, int[] weights) {
+        assert sources.length == targets.length && sources.length == weights.length;
         
-        if (weight > 0) {
-            Edge<L> newEdge = new Edge<>(source, target, weight);
-            if ( indexOfEdge < 0 ) {
-                add(source);
-                add(target);
-                edges.add(newEdge);
+        //every new edge takes a free slot or a fresh one, so the edges
+        //already in the table plus the new ones bound the slots needed
+        ensureSlots((long) numberOfEdges + sources.length);
+        for ( int i = 0; i < sources.length; i++ ) {
+            assert weights[i] >= 0;
+            if ( weights[i] > 0 ) {
+                putEdge(sources[i], targets[i], weights[i]);
             } else {
-                previousEdge = edges.set(indexOfEdge, newEdge);
-                previousWeight = previousEdge.getWeight();
+                removeEdge(sources[i], targets[i]);
             }
-        } else if ( weight == 0 && indexOfEdge >= 0) {
-            previousEdge = edges.remove(indexOfEdge);
-            previousWeight = previousEdge.getWeight();
         }
         checkRep();
-        return previousWeight;
+        flushEvents();
+    }
+    @Override public int increment(L source, L target, int delta) {
+        assert delta > 0;
+        
+        final VertexEdges<L> sourceEdges = vertices.get(source);
+        final int slot = sourceEdges == null ? NO_SLOT : sourceEdges.targets.get(target) - 1;
+        final int newWeight;
+        if ( slot == NO_SLOT ) {
+            putEdge(source, target, delta);
+            newWeight = delta;
+        } else {
+            newWeight = Math.addExact(weightColumn[slot], delta);
+            if ( events != null ) {
+                events.fire(GraphEvent.edgeChanged(source, target, weightColumn[slot], newWeight));
+            }
+            setWeight(slot, newWeight);
+        }
+        checkRep();
+        flushEvents();
+        return newWeight;
+    }
+    /**
+     * Record the internal costs of later operations on this graph
+     * 
+     * @param metrics recorder to add costs to, null to stop recording
+     */
+    void recordCostsTo(GraphMetrics metrics){
+        this.metrics = metrics;
+    }
+    /** Stop recording internal costs, if they are recorded to metrics */
+    void stopRecordingCostsTo(GraphMetrics metrics){
+        if ( this.metrics == metrics ) {
+            this.metrics = null;
+        }
+    }
+    @Override public void addListener(GraphListener<L> listener) {
+        if ( events == null ) {
+            events = new GraphEvents<>();
+        }
+        events.addListener(listener);
+    }
+    @Override public boolean removeListener(GraphListener<L> listener) {
+        if ( events == null ) {
+            return false;
+        }
+        final boolean removed = events.removeListener(listener);
+        if ( events.isIdle() ) {
+            events = null;
+        }
+        return removed;
+    }
+    @Override public void batch(Runnable changes) {
+        if ( events == null ) {
+            changes.run();
+            return;
+        }
+        try {
+            events.batch(changes);
+        } finally {
+            //the last listener may have been removed inside the batch
+            if ( events.isIdle() ) {
+                events = null;
+            }
+        }
+    }
+    /** Returns true if this graph builds events, for a listener or a running batch */
+    boolean isObserved(){
+        return events != null;
     }
     //helper code
+    /** Returns the edges of vertex, interning it if it does not exist */
+    private VertexEdges<L> vertexFor(L vertex){
+        final VertexEdges<L> existing = vertices.get(vertex);
+        if ( existing != null ) {
+            return existing;
+        }
+        final int id = numberOfFreeIds > 0 ? freeIds[--numberOfFreeIds] : nextId++;
+        if ( id == vertexById.length ) {
+            vertexById = Arrays.copyOf(vertexById, vertexById.length * 2);
+        }
+        final VertexEdges<L> created = new VertexEdges<>(vertex, id);
+        vertexById[id] = created;
+        vertices.put(vertex, created);
+        if ( events != null ) {
+            events.fire(GraphEvent.vertexAdded(vertex));
+        }
+        return created;
+    }
+    /** Returns a free slot of the edge table, growing the columns if none is left */
+    private int allocateSlot(){
+        if ( firstFreeSlot != NO_SLOT ) {
+            final int slot = firstFreeSlot;
+            firstFreeSlot = targetColumn[slot];
+            return slot;
+        }
+        if ( numberOfSlots == weightColumn.length ) {
+            ensureSlots(weightColumn.length * 2L);
+        }
+        return numberOfSlots++;
+    }
+    /** Grows the columns to hold at least slots edges, if they are smaller */
+    private void ensureSlots(long slots){
+        if ( slots <= weightColumn.length ) {
+            return;
+        }
+        final int capacity = (int) Math.min(slots, Integer.MAX_VALUE - 8);
+        sourceColumn = Arrays.copyOf(sourceColumn, capacity);
+        targetColumn = Arrays.copyOf(targetColumn, capacity);
+        weightColumn = Arrays.copyOf(weightColumn, capacity);
+    }
+    /** Changes the weight of the edge in slot, keeping the weight sums up to date */
+    private void setWeight(int slot, int weight){
+        final long delta = (long) weight - weightColumn[slot];
+        vertexById[sourceColumn[slot]].targetWeight += delta;
+        vertexById[targetColumn[slot]].sourceWeight += delta;
+        totalWeight += delta;
+        weightColumn[slot] = weight;
+    }
+    /** Puts slot on the free list and forgets its edge */
+    private void freeSlot(int slot){
+        setWeight(slot, 0);
+        targetColumn[slot] = firstFreeSlot;
+        firstFreeSlot = slot;
+        numberOfEdges--;
+    }
     /**
-     * Checks if an edge exists in this graph
+     * Adds an edge, or replaces the weight of the edge with the same source
+     * and target, adding its vertices if they do not exist; does not check
+     * the rep
      * 
-     * An edge exists in the graph if the source and target
-     * specified match with an edge's source and target in this graph
-     * The check is case-insensitive, for example
-     * "vertex" will match an edge with labels "Vertex" or "vertex".
-     *   
-     * @param source string to compare an edge's source with
-     * @param target string to compare an edge's target with
-     * @return the index i for all 0 <= i, < edges.size()
-     *             of the edge whose source and target
-     *             match source and target, 
-     *             -1 if no edge match was found
+     * @param weight requires weight > 0
+     * @return the weight of the replaced edge, zero if there was none
      */
-    private int indexOfEdgeInEdges(L source, L target){        
-        for(int i = 0;  i < edges.size(); i++){
-            Edge<L> edge = edges.get(i);
-            if (edge.getSource().equals(source) &&
-                    edge.getTarget().equals(target)){
-                return i;
+    private int putEdge(L source, L target, int weight){
+        final VertexEdges<L> sourceEdges = vertexFor(source);
+        final int slot = sourceEdges.targets.get(target) - 1;
+        if ( slot != NO_SLOT ) {
+            final int previousWeight = weightColumn[slot];
+            if ( events != null && previousWeight != weight ) {
+                events.fire(GraphEvent.edgeChanged(source, target, previousWeight, weight));
             }
+            setWeight(slot, weight);
+            return previousWeight;
         }
-        return -1;
+        final VertexEdges<L> targetEdges = vertexFor(target);
+        final int newSlot = allocateSlot();
+        sourceColumn[newSlot] = sourceEdges.id;
+        targetColumn[newSlot] = targetEdges.id;
+        weightColumn[newSlot] = 0;
+        setWeight(newSlot, weight);
+        sourceEdges.targets.put(target, newSlot + 1);
+        targetEdges.sources.put(source, newSlot + 1);
+        numberOfEdges++;
+        if ( events != null ) {
+            events.fire(GraphEvent.edgeChanged(source, target, 0, weight));
+        }
+        return 0;
     }
-    
+    /**
+     * Removes the edge from source to target if it exists; does not
+     * check the rep
+     * 
+     * @return the weight of the removed edge, zero if there was none
+     */
+    private int removeEdge(L source, L target){
+        final VertexEdges<L> sourceEdges = vertices.get(source);
+        if ( sourceEdges == null ) {
+            return 0;
+        }
+        final int slot = sourceEdges.targets.remove(target) - 1;
+        if ( slot == NO_SLOT ) {
+            return 0;
+        }
+        vertexById[targetColumn[slot]].sources.remove(source);
+        final int previousWeight = weightColumn[slot];
+        freeSlot(slot);
+        if ( events != null ) {
+            events.fire(GraphEvent.edgeChanged(source, target, previousWeight, 0));
+        }
+        return previousWeight;
+    }
+    /** Delivers the events of the mutator that is returning, if anyone listens */
+    private void flushEvents(){
+        if ( events != null ) {
+            events.flush();
+        }
+    }
+    //end of helper code
     
     @Override public boolean remove(L vertex) {
-        final int initialSizeEdges = edges.size();
-        final int initialSizeVertices = vertices.size();
-        
-        Predicate<Edge<L>> vertexInEdge = (Edge<L> edge) -> 
-              ( ( edge.getSource().equals(vertex) ) ||
-                ( edge.getTarget().equals(vertex) ) ) ;
-        Predicate<L> vertexInVertices = v -> v.equals(vertex);
-        
-        boolean removedEdge = edges.removeIf(vertexInEdge);
-        boolean removedVertice = vertices.removeIf(vertexInVertices);
-        
+        final VertexEdges<L> removed = vertices.remove(vertex);
+        if ( removed == null ) {
+            return false;
+        }
         //NB a vertex can exist without being in an edge
-        //if removedEdge, then removedVertice
-        if(removedVertice){
-            assert initialSizeVertices != vertices.size();
-            assert initialSizeVertices - 1 == vertices.size();
+        removed.targets.forEach((target, slot) -> {
+            if ( !target.equals(vertex) ) {
+                vertices.get(target).sources.remove(vertex);
+            }
+            if ( events != null ) {
+                events.fire(GraphEvent.edgeChanged(vertex, target, weightColumn[slot - 1], 0));
+            }
+            freeSlot(slot - 1);
+        });
+        removed.sources.forEach((source, slot) -> {
+            if ( source.equals(vertex) ) {
+                return; //self loop, already freed with the targets
+            }
+            vertices.get(source).targets.remove(vertex);
+            if ( events != null ) {
+                events.fire(GraphEvent.edgeChanged(source, vertex, weightColumn[slot - 1], 0));
+            }
+            freeSlot(slot - 1);
+        });
+        if ( metrics != null ) {
+            metrics.recordCost(GraphMetrics.Cost.ELEMENTS_SCANNED,
+                    removed.targets.size() + removed.sources.size());
         }
-        if(removedEdge){
-            assert initialSizeEdges != edges.size();
-            assert removedVertice;
+        vertexById[removed.id] = null;
+        if ( numberOfFreeIds == freeIds.length ) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[numberOfFreeIds++] = removed.id;
+        if ( events != null ) {
+            events.fire(GraphEvent.vertexRemoved(vertex));
         }
         checkRep();
-        return initialSizeVertices - 1 == vertices.size();
+        flushEvents();
+        return true;
+    }
+    @Override public int inDegree(L vertex) {
+        final VertexEdges<L> edges = vertices.get(vertex);
+        return edges == null ? 0 : edges.sources.size();
+    }
+    @Override public int outDegree(L vertex) {
+        final VertexEdges<L> edges = vertices.get(vertex);
+        return edges == null ? 0 : edges.targets.size();
     }
-    /** Returns an read-only view of this ConcreteEdgesGraph's vertices */
+    @Override public long inWeight(L vertex) {
+        final VertexEdges<L> edges = vertices.get(vertex);
+        return edges == null ? 0 : edges.sourceWeight;
+    }
+    @Override public long outWeight(L vertex) {
+        final VertexEdges<L> edges = vertices.get(vertex);
+        return edges == null ? 0 : edges.targetWeight;
+    }
+    @Override public int edgeCount() {
+        return numberOfEdges;
+    }
+    @Override public long totalWeight() {
+        return totalWeight;
+    }
+    /** Returns a live read-only view of this ConcreteEdgesGraph's vertices */
     @Override public Set<L> vertices() {
-        return Collections.unmodifiableSet(vertices);
+        return vertexLabels;
     }
 
-    /** Returns a map of a target's sources */
+    /** Returns a live read-only view of a target's sources */
     @Override public Map<L, Integer> sources(L target) {
-        return edges.stream()
-                .filter(edge -> edge.getTarget().equals(target))
-                .collect(Collectors.toMap(Edge::getSource, Edge::getWeight));
+        return new WeightsView(target, false);
     }
-    /** Returns a map of a source's targets */
+    /** Returns a live read-only view of a source's targets */
     @Override public Map<L, Integer> targets(L source) {
-        return edges.stream()
-                .filter(edge -> edge.getSource().equals(source))
-                .collect(Collectors.toMap(Edge::getTarget, Edge::getWeight));
+        return new WeightsView(source, true);
     }
 
     /**
@@ -155,123 +420,113 @@ public class ConcreteEdgesGraph<L> implements Graph<L> {
      * The string returned looks like: 
      *      edge1.getSource() -> edge1.getTarget(): edge1.getWeight
      *      edge2.getSource() -> edge2.getTarget(): edge2.getWeight
-     * for all edges in this graph
+     * for all edges in this graph, in edge table order
      *  
      * @return string rep of this graph containing all the edges
      *         making up the graph, "Empty Graph" if graph has no edges
      */
     @Override public String toString(){
-        if ( edges.isEmpty() ) {
+        if ( numberOfEdges == 0 ) {
             return "Empty Graph";
         }
-        return edges.stream()
-                .map(edge -> edge.toString())
-                .collect(Collectors.joining("\n"));
+        if ( metrics != null ) {
+            metrics.recordCost(GraphMetrics.Cost.ELEMENTS_SCANNED, numberOfSlots);
+        }
+        final StringBuilder rep = new StringBuilder();
+        for ( int slot = 0; slot < numberOfSlots; slot++ ) {
+            if ( weightColumn[slot] == 0 ) {
+                continue;
+            }
+            if ( rep.length() > 0 ) {
+                rep.append('\n');
+            }
+            rep.append(vertexById[sourceColumn[slot]].label).append(" -> ")
+               .append(vertexById[targetColumn[slot]].label).append(": ")
+               .append(weightColumn[slot]);
+        }
+        return rep.toString();
     }
-}
 
-/**
- * Immutable type that represents an edge in a graph.
- * 
- * This class is internal to the rep of ConcreteEdgesGraph.
- * 
- * <p>PS2 instructions: the specificatverticesion and implementation of this class is
- * up to you.
- */
-class Edge<L>{
-    private final L source;
-    private final L target;
-    private final int weight;
-    // Abstraction function:
-    //   represents an edge connecting from source to target with weight
-    // Representation invariant:
-    //   source is a non-null L
-    //   target is a non-null L
-    //   L must be immutable
-    //   weight > 0
-    // Safety from rep exposure:
-    //   All fields are private and final
-    //   source and target are of type L, required to be immutable
-    //   int is a primitive type so guaranteed immutable
-    //   setWeight() creates a new Edge object
-    
-    public Edge(final L source, final L target, final int weight){
-        assert weight > 0;
-        
-        this.source = source;
-        this.target = target;
-        this.weight = weight;
-        checkRep();
-    }
-    private void checkRep(){
-        assert source != null;
-        assert target != null;
-        assert weight > 0;
-    }
-    //observers
-    /** Returns this Edge's source*/   
-    public L getSource(){
-        return source;
-    }
-    /**Returns this Edge's target*/
-    public L getTarget(){
-        return target;
-    }
-    /**Returns this Edge's weight*/
-    public int getWeight(){
-        return weight;
-    }
-    
-    //producers
     /**
-     * Changes the weight of this Edge
+     * The label and id of a vertex, the edge table slots of its edges,
+     * indexed by the vertex at the other end, and the weight sums of those
+     * edges; slots are stored plus one, since ObjectIntMap reserves zero for
+     * "no mapping".
      * 
-     * @param newWeight an int, requires newWeight > 0
-     * @return a new Edge with newWeight 
+     * This class is internal to the rep of ConcreteEdgesGraph.
      */
-    public Edge<L> setWeight(int newWeight){
-        checkRep();
-        return new Edge<>(source, target, newWeight);
+    private static final class VertexEdges<L> {
+        final L label;
+        final int id;
+        final ObjectIntMap<L> targets = new ObjectIntMap<>();
+        final ObjectIntMap<L> sources = new ObjectIntMap<>();
+        long targetWeight = 0;
+        long sourceWeight = 0;
+        
+        VertexEdges(L label, int id){
+            this.label = label;
+            this.id = id;
+        }
     }
-    /** Returns th string representation of a weighted edge
-     * 
-     * An edge is made up of two vertices, so the rep
-     * should contain the source vertex and the target vertex
-     * that make the edge, including its weight
+
+    /**
+     * Read-only map view of the edges of one vertex in one direction, from
+     * the vertex at the other end to the edge weight.
      * 
-     * @return String containing source, target and weight of this edge
-     *         with the following structure:
-     *              getSource() -> getTarget(): getWeight()
-     */    
-    @Override public String toString(){
-        return getSource().toString() + 
-                " -> " + 
-                getTarget().toString() + 
-                ": " + 
-                getWeight();
-    }
-    /** Checks if two Edge objects are equal
-     * @param that object to compare
-     * @return true if this.source = that.source and
-     *                 this.target = that.target and
-     *                 this.weight = that.weight
-     *         comparison is case-insensitive
+     * The view looks the vertex up on every access, so it stays live even
+     * when the vertex is added or removed after the view was made. Creating
+     * a view copies nothing.
      */
-    @Override public boolean equals(Object that){
-        if (! (that instanceof Edge)) {
-            return false;
+    private final class WeightsView extends AbstractMap<L, Integer> {
+        private final L vertex;
+        private final boolean outgoing;
+        
+        WeightsView(L vertex, boolean outgoing){
+            this.vertex = vertex;
+            this.outgoing = outgoing;
+        }
+        /** Returns the slots of the viewed edges, null if vertex does not exist */
+        private ObjectIntMap<L> slots(){
+            final VertexEdges<L> edges = vertices.get(vertex);
+            if ( edges == null ) {
+                return null;
+            }
+            return outgoing ? edges.targets : edges.sources;
+        }
+        @Override public int size(){
+            final ObjectIntMap<L> slots = slots();
+            return slots == null ? 0 : slots.size();
+        }
+        @Override public boolean containsKey(Object key){
+            final ObjectIntMap<L> slots = slots();
+            return slots != null && slots.containsKey(key);
+        }
+        @Override public Integer get(Object key){
+            final ObjectIntMap<L> slots = slots();
+            final int slot = slots == null ? 0 : slots.get(key);
+            return slot == 0 ? null : weightColumn[slot - 1];
+        }
+        @Override public Set<Map.Entry<L, Integer>> entrySet(){
+            return new AbstractSet<Map.Entry<L, Integer>>() {
+                @Override public int size(){
+                    return WeightsView.this.size();
+                }
+                @Override public Iterator<Map.Entry<L, Integer>> iterator(){
+                    final ObjectIntMap<L> slots = slots();
+                    final Iterator<Map.Entry<L, Integer>> edges = slots == null
+                            ? Collections.emptyIterator()
+                            : slots.asMap().entrySet().iterator();
+                    return new Iterator<Map.Entry<L, Integer>>() {
+                        @Override public boolean hasNext(){
+                            return edges.hasNext();
+                        }
+                        @Override public Map.Entry<L, Integer> next(){
+                            final Map.Entry<L, Integer> entry = edges.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), weightColumn[entry.getValue() - 1]);
+                        }
+                    };
+                }
+            };
         }
-        Edge<?> thatEdge = (Edge<?>)that;
-        return this.getSource().equals(thatEdge.getSource()) &&
-               this.getTarget().equals(thatEdge.getTarget()) &&
-               this.getWeight() == thatEdge.getWeight();
-    }
-    @Override public int hashCode(){
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + getSource().hashCode();
-        result = prime * result + getTarget().hashCode();
-        result = prime * result + (int) getWeight();
-        return result;
     }
 }
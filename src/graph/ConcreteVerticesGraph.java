@@ -3,41 +3,44 @@
  */
 package graph;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-//TODO: improve overall performance
 /**
  * An implementation of Graph.
  * 
+ * <p>Vertices are looked up by label in constant time, and
+ * {@link #vertices()} returns a live read-only view instead of a copy.
+ * Each vertex keeps the weight sums of its sources and targets, and the
+ * graph its number of edges and total weight, so the queries of
+ * {@link DegreeGraph} take constant time. Changes are reported to the
+ * listeners of {@link ObservableGraph}; with no listener registered, no
+ * events are built.
  * 
  * <p>PS2 instructions: you MUST use the provided rep.
  */
-public class ConcreteVerticesGraph<L> implements Graph<L> {
+public class ConcreteVerticesGraph<L>
+        implements CountingGraph<L>, BulkLoadableGraph<L>, DegreeGraph<L>, ObservableGraph<L> {
    /**
     * 
-    * <p>The implementation involves a lot of checking and defensive copies
-    * which is costly in terms of both performance and memory. This is 
-    * because we are storing a mutable type to a list, so methods such
-    * as contains() and get() can't be used to access the vertices. 
-    * It is a requirement that we not add new fields and we stick to the
-    * rep provided. 
-    * I tried using a lookup table without violating the conditions, which
-    * would store the vertices' labels in a list that matches the positions 
-    * of their relative vertices to have constant time access, found that
-    * challenging.
-    * If allowed to alter the rep, I'd use a map:
-    *       Map<String, Vertex>
-    *  this would be performance friendly, constant time access and mutating
-    *  any vertex would not affect the rep.
+    * <p>Vertices are kept in a map from label to vertex, which gives
+    * constant time access to a vertex by its label without scanning.
+    * Mutating a Vertex in the map does not change its key, since
+    * the label of a vertex is immutable.
+    * vertexLabels is a read-only view of the key set of vertices, so
+    * vertices() can hand it out without copying it on every call.
     *  
     */
-    private final List<Vertex<L>> vertices = new ArrayList<>();
+    private final Map<L, Vertex<L>> vertices = new LinkedHashMap<>();
+    private final Set<L> vertexLabels = Collections.unmodifiableSet(vertices.keySet());
+    private int numberOfEdges = 0;
+    private long totalWeight = 0;
+    private GraphMetrics metrics = null;
+    private GraphEvents<L> events = null;
     
     // Abstraction function:
     //   represents a directed weighted graph as multiple vertices 
@@ -46,115 +49,293 @@ public class ConcreteVerticesGraph<L> implements Graph<L> {
     //   
     // Representation invariant:
     //   only one instance of a vertex can exist in vertices
+    //   vertices.get(label).getLabel().equals(label) for every key label
+    //   vertexLabels is a read-only view of vertices.keySet()
+    //   numberOfEdges is the number of edges, which is the sum of the
+    //     numbers of targets of all vertices, and totalWeight is the sum of
+    //     their target weights
     // Safety from rep exposure:
-    //   vertices is a mutable list, so operation make defensive
-    //   copies and use immutable views to avoid sharing the rep
+    //   vertices is a mutable map that is never returned; vertexLabels is
+    //   an unmodifiable view, so clients can observe but not mutate it
     //   A Vertex is a mutable type, operations use defensive copies 
     //   to avoid sharing the rep
+    //   metrics is only ever written to, and is shared on purpose
+    //   events is never returned; listeners get immutable GraphEvents
     
   
     public ConcreteVerticesGraph(){
     }
     private void checkRep(){        
-        assert vertices().size() == vertices.size();
+        assert vertexLabels.size() == vertices.size();
+        assert numberOfEdges >= 0;
+        assert totalWeight >= numberOfEdges;
+    }
+    private void checkRep(final Vertex<L> vertex){
+        checkRep();
+        assert vertices.get(vertex.getLabel()) == vertex;
     }
-    //helper method
     /**
-     * Returns the index of a vertex in list of vertices
-     * @param label the label of the vertex being searched
-     * @return the index, i, of the vertex having label such that
-     *         vertices.get(i).getLabel() == label, or -1 if
-     *         no vertex was found
+     * Record the internal costs of later operations on this graph
+     * 
+     * @param metrics recorder to add costs to, null to stop recording
      */
-    private int indexInVertices(L label){
-        for(int i = 0; i < vertices.size(); i++){
-            if ( vertices.get(i).getLabel().equals(label) ) {
-                return i;
+    void recordCostsTo(GraphMetrics metrics){
+        this.metrics = metrics;
+    }
+    /** Stop recording internal costs, if they are recorded to metrics */
+    void stopRecordingCostsTo(GraphMetrics metrics){
+        if ( this.metrics == metrics ) {
+            this.metrics = null;
+        }
+    }
+    @Override public void addListener(GraphListener<L> listener) {
+        if ( events == null ) {
+            events = new GraphEvents<>();
+        }
+        events.addListener(listener);
+    }
+    @Override public boolean removeListener(GraphListener<L> listener) {
+        if ( events == null ) {
+            return false;
+        }
+        final boolean removed = events.removeListener(listener);
+        if ( events.isIdle() ) {
+            events = null;
+        }
+        return removed;
+    }
+    @Override public void batch(Runnable changes) {
+        if ( events == null ) {
+            changes.run();
+            return;
+        }
+        try {
+            events.batch(changes);
+        } finally {
+            //the last listener may have been removed inside the batch
+            if ( events.isIdle() ) {
+                events = null;
             }
         }
-        return -1;
+    }
+    /** Returns true if this graph builds events, for a listener or a running batch */
+    boolean isObserved(){
+        return events != null;
+    }
+    //helper method
+    /**
+     * Returns the vertex with a label, adding a new one if there is none
+     * @param label the label of the vertex
+     * @return the vertex v in vertices such that v.getLabel() equals label
+     */
+    private Vertex<L> vertexFor(final L label){
+        final Vertex<L> existing = vertices.get(label);
+        if ( existing != null ) {
+            return existing;
+        }
+        final Vertex<L> created = new Vertex<>(label);
+        vertices.put(label, created);
+        if ( events != null ) {
+            events.fire(GraphEvent.vertexAdded(label));
+        }
+        return created;
+    }
+    /**
+     * Adds, changes or removes an edge as set() does, without checking the rep
+     * @return the previous weight of the edge, zero if there was none
+     */
+    private int setEdge(final L source, final L target, final int weight){
+        assert source != target;
+        assert weight >= 0;
+        
+        if ( weight == 0 && !( vertices.containsKey(source) && vertices.containsKey(target) ) ) {
+            return 0;
+        }
+        final Vertex<L> sourceVertex = vertexFor(source);
+        final Vertex<L> targetVertex = vertexFor(target);
+        
+        final int degreeBefore = sourceVertex.getTargets().size();
+        final long weightBefore = sourceVertex.getTargetWeight();
+        int sourcePrevWeight = sourceVertex.setTarget(target, weight);
+        int targetPrevWeight = targetVertex.setSource(source, weight);
+        assert sourcePrevWeight == targetPrevWeight;
+        numberOfEdges += sourceVertex.getTargets().size() - degreeBefore;
+        totalWeight += sourceVertex.getTargetWeight() - weightBefore;
+        if ( events != null && sourcePrevWeight != weight ) {
+            events.fire(GraphEvent.edgeChanged(source, target, sourcePrevWeight, weight));
+        }
+        return sourcePrevWeight;
+    }
+    /**
+     * Grows the maps of the vertex with a label, if it exists, to fit the
+     * sources and targets it may still gain, and forgets those counts
+     */
+    private void reserveFor(final L label, final ObjectIntMap<L> addedSources,
+            final ObjectIntMap<L> addedTargets){
+        final Vertex<L> vertex = vertices.get(label);
+        if ( vertex != null ) {
+            vertex.reserve(addedSources.remove(label), addedTargets.remove(label));
+        }
+    }
+    /** Delivers the events of the mutator that is returning, if anyone listens */
+    private void flushEvents(){
+        if ( events != null ) {
+            events.flush();
+        }
     }
     //end of helper method
     @Override public boolean add(L vertex) {        
-        if ( vertices().contains(vertex) ) {
+        if ( vertices.containsKey(vertex) ) {
             return false;
         }
-        Vertex<L> vertexObj = new Vertex<>(vertex);    
-        final boolean vertexAdded = vertices.add(vertexObj);
-        checkRep();
-        return vertexAdded;
+        Vertex<L> vertexObj = vertexFor(vertex);
+        checkRep(vertexObj);
+        flushEvents();
+        return true;
     }
     
     @Override public int set(L source, L target, int weight) {
+        final int previousWeight = setEdge(source, target, weight);
+        checkRep();
+        flushEvents();
+        return previousWeight;
+    }
+    /** Sets all edges, checking the rep once at the end */
+    @Override public void setAll(Iterator<? extends Edge<L>> edges) {
+        while ( edges.hasNext() ) {
+            final Edge<L> edge = edges.next();
+            setEdge(edge.getSource(), edge.getTarget(), edge.getWeight());
+        }
+        checkRep();
+        flushEvents();
+    }
+    /** Sets all edges, checking the rep once at the end */
+    @Override public void setAll(L[] sources, L[] targets, int[] weights) {
+        assert sources.length == targets.length && sources.length == weights.length;
+        
+        //count how many sources and targets each vertex may gain, so that
+        //its maps grow at most once; vertices are still added in order, so
+        //the events are those of consecutive set() calls
+        final ObjectIntMap<L> addedSources = new ObjectIntMap<>();
+        final ObjectIntMap<L> addedTargets = new ObjectIntMap<>();
+        for ( int i = 0; i < sources.length; i++ ) {
+            if ( weights[i] > 0 ) {
+                addedTargets.add(sources[i], 1);
+                addedSources.add(targets[i], 1);
+            }
+        }
+        for ( int i = 0; i < sources.length; i++ ) {
+            if ( weights[i] > 0 ) {
+                reserveFor(sources[i], addedSources, addedTargets);
+                reserveFor(targets[i], addedSources, addedTargets);
+            }
+            setEdge(sources[i], targets[i], weights[i]);
+            if ( weights[i] > 0 ) {
+                //vertices that setEdge() just added
+                reserveFor(sources[i], addedSources, addedTargets);
+                reserveFor(targets[i], addedSources, addedTargets);
+            }
+        }
+        checkRep();
+        flushEvents();
+    }
+    
+    @Override public int increment(L source, L target, int delta) {
         assert source != target;
-        assert weight >= 0;
+        assert delta > 0;
         
-        final Vertex<L> sourceVertex;
-        final Vertex<L> targetVertex;
+        final Vertex<L> sourceVertex = vertexFor(source);
+        final Vertex<L> targetVertex = vertexFor(target);
         
-        Set<L> verticeLabels = vertices();
-        if ( verticeLabels.contains(source) ) {
-            int sourceIndex = indexInVertices(source);
-            sourceVertex = vertices.get(sourceIndex);
-        } else {
-            sourceVertex = new Vertex<>(source);
-            vertices.add(sourceVertex);
+        final int sourceNewWeight = sourceVertex.incrementTarget(target, delta);
+        final int targetNewWeight = targetVertex.incrementSource(source, delta);
+        assert sourceNewWeight == targetNewWeight;
+        if ( sourceNewWeight == delta ) {
+            numberOfEdges++;
         }
-        
-        if ( verticeLabels.contains(target) ) {
-            int targetIndex = indexInVertices(target);
-            targetVertex = vertices.get(targetIndex);
-        } else {
-            targetVertex = new Vertex<>(target);
-            vertices.add(targetVertex);
+        totalWeight += delta;
+        if ( events != null ) {
+            events.fire(GraphEvent.edgeChanged(source, target, sourceNewWeight - delta, sourceNewWeight));
         }
         
-        int sourcePrevWeight = sourceVertex.setTarget(target, weight);
-        int targetPrevWeight = targetVertex.setSource(source, weight);
-        assert sourcePrevWeight == targetPrevWeight;
-        
-        checkRep();
-        return sourcePrevWeight;
+        checkRep(sourceVertex);
+        checkRep(targetVertex);
+        flushEvents();
+        return sourceNewWeight;
     }
     
     @Override public boolean remove(L vertex) {
-        if ( !( vertices().contains(vertex)) ) {
+        final Vertex<L> removedVertex = vertices.remove(vertex);
+        if ( removedVertex == null ) {
             return false;
         }
-        int vertexIndex = indexInVertices(vertex);
-        assert vertexIndex != -1;
-        final Vertex<L> removedVertex = vertices.remove(vertexIndex);
-        assert removedVertex.getLabel() == vertex;
+        assert removedVertex.getLabel().equals(vertex);
         
-        for( Vertex<L> v: vertices ) {
-            v.remove(vertex);
+        //only the neighbours of the removed vertex refer to it
+        if ( metrics != null ) {
+            metrics.recordCost(GraphMetrics.Cost.ELEMENTS_SCANNED,
+                    removedVertex.getSources().size() + removedVertex.getTargets().size());
+        }
+        for( L source: removedVertex.getSources().keySet() ) {
+            vertices.get(source).removeTarget(vertex);
+        }
+        for( L target: removedVertex.getTargets().keySet() ) {
+            vertices.get(target).removeSource(vertex);
+        }
+        numberOfEdges -= removedVertex.getSources().size() + removedVertex.getTargets().size();
+        totalWeight -= removedVertex.getSourceWeight() + removedVertex.getTargetWeight();
+        if ( events != null ) {
+            removedVertex.getTargets().forEach((target, weight) ->
+                    events.fire(GraphEvent.edgeChanged(vertex, target, weight, 0)));
+            removedVertex.getSources().forEach((source, weight) ->
+                    events.fire(GraphEvent.edgeChanged(source, vertex, weight, 0)));
+            events.fire(GraphEvent.vertexRemoved(vertex));
         }
-        return removedVertex != null;
+        checkRep();
+        flushEvents();
+        return true;
+    }
+    @Override public int inDegree(L vertex) {
+        final Vertex<L> found = vertices.get(vertex);
+        return found == null ? 0 : found.getSources().size();
+    }
+    @Override public int outDegree(L vertex) {
+        final Vertex<L> found = vertices.get(vertex);
+        return found == null ? 0 : found.getTargets().size();
     }
+    @Override public long inWeight(L vertex) {
+        final Vertex<L> found = vertices.get(vertex);
+        return found == null ? 0 : found.getSourceWeight();
+    }
+    @Override public long outWeight(L vertex) {
+        final Vertex<L> found = vertices.get(vertex);
+        return found == null ? 0 : found.getTargetWeight();
+    }
+    @Override public int edgeCount() {
+        return numberOfEdges;
+    }
+    @Override public long totalWeight() {
+        return totalWeight;
+    }
+    /** Returns a live read-only view of the labels of this graph's vertices */
     @Override public Set<L> vertices() {
-        return vertices.stream()
-                .map(Vertex::getLabel)
-                .collect(Collectors.toSet());
+        return vertexLabels;
     }
     /** Returns an immutable view of source vertices to a target */
     @Override public Map<L, Integer> sources(L target) {
-        final int targetIndex = indexInVertices(target);
-        if ( targetIndex < 0 ) {
+        final Vertex<L> targetVertex = vertices.get(target);
+        if ( targetVertex == null ) {
             return Collections.emptyMap();
         }
-        Vertex<L> targetVertex = vertices.get(targetIndex);
-        
-        return Collections.unmodifiableMap(targetVertex.getSources());
+        return targetVertex.getSources();
     }
     /** Returns an immutable view of target vertices from a target */
     @Override public Map<L, Integer> targets(L source) {
-        final int sourceIndex = indexInVertices(source);
-        if ( sourceIndex < 0 ) {
+        final Vertex<L> sourceVertex = vertices.get(source);
+        if ( sourceVertex == null ) {
             return Collections.emptyMap();
         }
-        Vertex<L> sourceVertex = vertices.get(sourceIndex);
-        
-        return Collections.unmodifiableMap(sourceVertex.getTargets());
+        return sourceVertex.getTargets();
     }
     //TODO better toString() as below
     /**
@@ -169,7 +350,10 @@ public class ConcreteVerticesGraph<L> implements Graph<L> {
      * @return a string representation of this graph
      */
     @Override public String toString(){
-        return vertices.stream()
+        if ( metrics != null ) {
+            metrics.recordCost(GraphMetrics.Cost.ELEMENTS_SCANNED, vertices.size());
+        }
+        return vertices.values().stream()
                 .filter(vertex -> vertex.getTargets().size() > 0)
                 .map(vertex -> vertex.getLabel().toString() + " -> " + vertex.getTargets())
                 .collect(Collectors.joining("\n"));
@@ -191,8 +375,10 @@ public class ConcreteVerticesGraph<L> implements Graph<L> {
  */
 class Vertex<L> {
     private final L label;
-    private final Map<L, Integer> sources = new HashMap<>();
-    private final Map<L, Integer> targets = new HashMap<>();
+    private final ObjectIntMap<L> sources = new ObjectIntMap<>();
+    private final ObjectIntMap<L> targets = new ObjectIntMap<>();
+    private long sourceWeight = 0;
+    private long targetWeight = 0;
     
     // Abstraction Function:
     //   represents a vertex in a graph that connects to other vertices as a
@@ -206,22 +392,25 @@ class Vertex<L> {
     //   A vertex cannot be its own target
     //   All sources and targets must be distinct vertices
     //   A connection must have a weight > 0
+    //   sourceWeight and targetWeight are the sums of the weights of
+    //   sources and targets
     //
     // Safety from Exposure:
-    //   All fields are  private and final
+    //   All fields are private, and all but the weight sums are final
     //   label is of type L, required to be immutable by the spec
-    //   sources and targets are mutable, so operations use defensive copies
-    //   and immutable views to prevent sharing the rep objects with clients
+    //   sources and targets are mutable, so operations only hand out their
+    //   read-only Map views to prevent sharing the rep objects with clients
+    //
+    // Performance:
+    //   sources and targets are open-addressing maps storing weights as
+    //   primitive ints, so each add, update or removal probes them once
     
     public Vertex(final L label){
         this.label = label;        
     }
     private void checkRep(){
-        final Set<L> sourceLabels = sources.keySet();
-        final Set<L> targetLabels = targets.keySet();
-        
-        assert !sourceLabels.contains(this.label);
-        assert !targetLabels.contains(this.label);
+        assert !sources.containsKey(this.label);
+        assert !targets.containsKey(this.label);
     }
     //helper code
     private void checkInputLabel(final L inputLabel){
@@ -246,7 +435,8 @@ class Vertex<L> {
         checkInputLabel(source);
         assert weight > 0;
         
-        if ( sources.putIfAbsent(source, weight) == null ){
+        if ( sources.putIfAbsent(source, weight) == 0 ){
+            sourceWeight += weight;
             checkRep();
             return true;
         }
@@ -265,7 +455,8 @@ class Vertex<L> {
         checkInputLabel(target);
         assert weight > 0;
         
-        if ( targets.putIfAbsent(target, weight) == null ) {
+        if ( targets.putIfAbsent(target, weight) == 0 ) {
+            targetWeight += weight;
             checkRep();
             return true;
         }
@@ -299,10 +490,11 @@ class Vertex<L> {
     public int removeSource(final L source){
         checkInputLabel(source);
         
-        Integer previousWeight = sources.remove(source);
+        final int previousWeight = sources.remove(source);
+        sourceWeight -= previousWeight;
         
         checkRep();
-        return previousWeight == null ? 0 : previousWeight;
+        return previousWeight;
     }
     /**
      * Removes a target connection from this vertex
@@ -313,10 +505,11 @@ class Vertex<L> {
     public int removeTarget(final L target){
         checkInputLabel(target);
         
-        Integer previousWeight = targets.remove(target);
+        final int previousWeight = targets.remove(target);
+        targetWeight -= previousWeight;
         
         checkRep();
-        return previousWeight == null ? 0 : previousWeight;
+        return previousWeight;
     }
     /**
      * Adds, removes or updates a source connection to this vertex
@@ -343,10 +536,10 @@ class Vertex<L> {
         
         if ( weight == 0 ) {
             previousWeight = removeSource(source); 
-        } else if ( addSource(source, weight) || sources.get(source) == (Integer)weight) {
-            previousWeight = 0;
         } else {
-            previousWeight = sources.replace(source, weight);
+            final int replacedWeight = sources.put(source, weight);
+            sourceWeight += weight - replacedWeight;
+            previousWeight = replacedWeight;
         }
         checkRep();
         return previousWeight;
@@ -375,22 +568,78 @@ class Vertex<L> {
         
         if ( weight == 0 ) {
             previousWeight = removeTarget(target);
-        } else if ( addTarget(target, weight) || targets.get(target) == (Integer)weight ) {
-            previousWeight = 0;
         } else {
-            previousWeight = targets.replace(target, weight);
+            final int replacedWeight = targets.put(target, weight);
+            targetWeight += weight - replacedWeight;
+            previousWeight = replacedWeight;
         }
         checkRep();
         return previousWeight;
     }
 
-    /** Returns an immutable view of this vertex's sources*/
+    /**
+     * Adds to the weight of a source connection to this vertex, adding the
+     * source with weight delta if it didn't exist
+     * 
+     * @param source the label of the source vertex
+     * @param delta positive integer to add to the weight
+     * @return the new weight from source to this vertex
+     * @throws ArithmeticException if the new weight overflows an int
+     */
+    public int incrementSource(final L source, final int delta){
+        checkInputLabel(source);
+        assert delta > 0;
+        
+        final int newWeight = sources.add(source, delta);
+        sourceWeight += delta;
+        checkRep();
+        return newWeight;
+    }
+    /**
+     * Adds to the weight of a target connection from this vertex, adding the
+     * target with weight delta if it didn't exist
+     * 
+     * @param target the label of the target vertex
+     * @param delta positive integer to add to the weight
+     * @return the new weight from this vertex to target
+     * @throws ArithmeticException if the new weight overflows an int
+     */
+    public int incrementTarget(final L target, final int delta){
+        checkInputLabel(target);
+        assert delta > 0;
+        
+        final int newWeight = targets.add(target, delta);
+        targetWeight += delta;
+        checkRep();
+        return newWeight;
+    }
+
+    /** Returns the sum of the weights from this vertex's sources */
+    public long getSourceWeight(){
+        return sourceWeight;
+    }
+    /** Returns the sum of the weights to this vertex's targets */
+    public long getTargetWeight(){
+        return targetWeight;
+    }
+    /**
+     * Makes room for more sources and targets, so that adding them does not
+     * grow the maps of this vertex again
+     * 
+     * @param addedSources number of sources that may be added, >= 0
+     * @param addedTargets number of targets that may be added, >= 0
+     */
+    public void reserve(final int addedSources, final int addedTargets){
+        sources.ensureCapacity(sources.size() + addedSources);
+        targets.ensureCapacity(targets.size() + addedTargets);
+    }
+    /** Returns a live read-only view of this vertex's sources*/
     public Map<L, Integer> getSources(){
-        return Collections.unmodifiableMap(sources);
+        return sources.asMap();
     }
-    /** Returns an immutable view of this vertex's targets*/
+    /** Returns a live read-only view of this vertex's targets*/
     public Map<L, Integer> getTargets(){
-        return Collections.unmodifiableMap(targets);
+        return targets.asMap();
     }
     /**
      * Checks if a vertex is a target from this vertex
@@ -0,0 +1,228 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe implementation of Graph.
+ *
+ * <p>Adjacency is kept in concurrent hash maps, one map of targets and one
+ * of sources per vertex. Readers never lock: vertices(), sources() and
+ * targets() return live read-only views of those maps. Writers lock only
+ * the stripes of the vertices they touch, so set() calls on unrelated
+ * vertices proceed in parallel; only remove(), which has to visit every
+ * neighbour of the removed vertex, takes all the stripes.
+ *
+ * <p>A reader running concurrently with set(s, t, w) may briefly see the
+ * new weight in targets(s) before it appears in sources(t).
+ */
+public class ConcurrentGraph<L> implements CountingGraph<L> {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ConcurrentMap<L, Adjacency<L>> vertices = new ConcurrentHashMap<>();
+    private final Set<L> vertexLabels = Collections.unmodifiableSet(vertices.keySet());
+    private final ReentrantLock[] stripes;
+
+    // Abstraction function:
+    //   represents the graph whose vertices are the keys of vertices, with
+    //   an edge from s to t of weight w iff vertices.get(s).targets.get(t) == w
+    // Representation invariant:
+    //   while no writer holds a stripe, vertices.get(s).targets.get(t) == w
+    //     iff vertices.get(t).sources.get(s) == w
+    //   all weights are > 0
+    //   stripes.length is a power of two
+    // Safety from rep exposure:
+    //   All fields are private and final
+    //   vertices(), sources() and targets() return unmodifiable views
+    // Thread safety argument:
+    //   vertices and every adjacency map are ConcurrentHashMaps, so single
+    //   reads and writes are atomic and readers never see a torn map
+    //   set(s, t, w) holds the stripes of s and t while it updates both
+    //   s.targets and t.sources, so writers to the same edge are serialized
+    //   and the two maps of an edge are updated together
+    //   remove() holds every stripe, so no set() runs while it unlinks the
+    //   removed vertex from its neighbours
+    //   stripes are always acquired in increasing index order, so writers
+    //   cannot deadlock
+
+    /** Make an empty graph with the default number of lock stripes. */
+    public ConcurrentGraph(){
+        this(DEFAULT_STRIPES);
+    }
+    /**
+     * Make an empty graph.
+     *
+     * @param concurrencyLevel expected number of concurrent writers,
+     *                         requires concurrencyLevel > 0
+     */
+    public ConcurrentGraph(final int concurrencyLevel){
+        assert concurrencyLevel > 0;
+        final int numberOfStripes = Integer.highestOneBit(concurrencyLevel * 2 - 1);
+        stripes = new ReentrantLock[Math.max(1, numberOfStripes)];
+        for ( int i = 0; i < stripes.length; i++ ) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    private void checkRep(){
+        assert Integer.bitCount(stripes.length) == 1;
+    }
+
+    //helper code
+    private int stripeOf(final Object vertex){
+        final int hash = vertex.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+    /** Locks the stripes of two vertices in index order */
+    private void lock(final int first, final int second){
+        stripes[Math.min(first, second)].lock();
+        if ( first != second ) {
+            stripes[Math.max(first, second)].lock();
+        }
+    }
+    private void unlock(final int first, final int second){
+        if ( first != second ) {
+            stripes[Math.max(first, second)].unlock();
+        }
+        stripes[Math.min(first, second)].unlock();
+    }
+    private Adjacency<L> adjacencyFor(final L vertex){
+        return vertices.computeIfAbsent(vertex, v -> new Adjacency<>());
+    }
+    //end of helper code
+
+    @Override public boolean add(L vertex) {
+        return vertices.putIfAbsent(vertex, new Adjacency<>()) == null;
+    }
+
+    @Override public int set(L source, L target, int weight) {
+        assert weight >= 0;
+
+        final int sourceStripe = stripeOf(source);
+        final int targetStripe = stripeOf(target);
+        lock(sourceStripe, targetStripe);
+        try {
+            if ( weight == 0 ) {
+                final Adjacency<L> sourceAdjacency = vertices.get(source);
+                final Adjacency<L> targetAdjacency = vertices.get(target);
+                if ( sourceAdjacency == null || targetAdjacency == null ) {
+                    return 0;
+                }
+                final Integer previousWeight = sourceAdjacency.targets.remove(target);
+                if ( previousWeight == null ) {
+                    return 0;
+                }
+                targetAdjacency.sources.remove(source);
+                return previousWeight;
+            }
+            final Integer previousWeight = adjacencyFor(source).targets.put(target, weight);
+            adjacencyFor(target).sources.put(source, weight);
+            return previousWeight == null ? 0 : previousWeight;
+        } finally {
+            unlock(sourceStripe, targetStripe);
+        }
+    }
+
+    /** Increments the weight atomically with respect to other writers */
+    @Override public int increment(L source, L target, int delta) {
+        assert delta > 0;
+
+        final int sourceStripe = stripeOf(source);
+        final int targetStripe = stripeOf(target);
+        lock(sourceStripe, targetStripe);
+        try {
+            final int newWeight = adjacencyFor(source).targets.merge(target, delta, Math::addExact);
+            adjacencyFor(target).sources.put(source, newWeight);
+            return newWeight;
+        } finally {
+            unlock(sourceStripe, targetStripe);
+        }
+    }
+
+    @Override public boolean remove(L vertex) {
+        for ( ReentrantLock stripe : stripes ) {
+            stripe.lock();
+        }
+        try {
+            final Adjacency<L> removed = vertices.remove(vertex);
+            if ( removed == null ) {
+                return false;
+            }
+            for ( L target : removed.targets.keySet() ) {
+                final Adjacency<L> targetAdjacency = vertices.get(target);
+                if ( targetAdjacency != null ) {
+                    targetAdjacency.sources.remove(vertex);
+                }
+            }
+            for ( L source : removed.sources.keySet() ) {
+                final Adjacency<L> sourceAdjacency = vertices.get(source);
+                if ( sourceAdjacency != null ) {
+                    sourceAdjacency.targets.remove(vertex);
+                }
+            }
+            checkRep();
+            return true;
+        } finally {
+            for ( int i = stripes.length - 1; i >= 0; i-- ) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    /** Returns a live read-only view of the labels of this graph's vertices */
+    @Override public Set<L> vertices() {
+        return vertexLabels;
+    }
+
+    /** Returns a live read-only view of a target's sources */
+    @Override public Map<L, Integer> sources(L target) {
+        final Adjacency<L> adjacency = vertices.get(target);
+        return adjacency == null ? Collections.emptyMap() : adjacency.sourcesView;
+    }
+
+    /** Returns a live read-only view of a source's targets */
+    @Override public Map<L, Integer> targets(L source) {
+        final Adjacency<L> adjacency = vertices.get(source);
+        return adjacency == null ? Collections.emptyMap() : adjacency.targetsView;
+    }
+
+    /**
+     * Returns the string representation of this graph, in the format
+     * described in {@link Graphs}, in the iteration order of the concurrent
+     * maps. Edges set or removed while the string is built may or may not
+     * appear in it.
+     *
+     * @return string rep of this graph containing all its edges,
+     *         "Empty Graph" if graph has no edges
+     */
+    @Override public String toString(){
+        final StringBuilder rep = new StringBuilder();
+        vertices.forEach((source, adjacency) -> adjacency.targets.forEach((target, weight) -> {
+            if ( rep.length() > 0 ) {
+                rep.append('\n');
+            }
+            rep.append(source).append(" -> ").append(target).append(": ").append(weight);
+        }));
+        return rep.length() == 0 ? "Empty Graph" : rep.toString();
+    }
+
+    /**
+     * The concurrent sources and targets maps of one vertex, with their
+     * read-only views.
+     *
+     * This class is internal to the rep of ConcurrentGraph.
+     */
+    private static final class Adjacency<L> {
+        final ConcurrentMap<L, Integer> targets = new ConcurrentHashMap<>(4);
+        final ConcurrentMap<L, Integer> sources = new ConcurrentHashMap<>(4);
+        final Map<L, Integer> targetsView = Collections.unmodifiableMap(targets);
+        final Map<L, Integer> sourcesView = Collections.unmodifiableMap(sources);
+    }
+}
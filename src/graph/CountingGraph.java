@@ -0,0 +1,33 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+/**
+ * A Graph whose edge weights can be incremented in place, for graphs that
+ * count occurrences, such as bigram counts over a corpus.
+ * 
+ * <p>{@link Graphs#increment} increments the weight of an edge of any
+ * graph, using this interface when the graph implements it.
+ * 
+ * @param <L> type of vertex labels in this graph, must be immutable
+ */
+public interface CountingGraph<L> extends Graph<L> {
+    
+    /**
+     * Add to the weight of a directed edge, adding the edge with weight delta
+     * if it does not exist; vertices with the given labels are added to the
+     * graph if they do not already exist.
+     * The edge is looked up once, and never holds a weight other than its
+     * previous or its new weight. Thread-safe implementations perform the
+     * increment atomically.
+     * 
+     * @param source label of the source vertex
+     * @param target label of the target vertex
+     * @param delta amount to add to the weight, requires delta > 0
+     * @return the new weight of the edge
+     * @throws ArithmeticException if the new weight overflows an int
+     */
+    public int increment(L source, L target, int delta);
+    
+}
@@ -0,0 +1,50 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+/**
+ * A Graph that answers degree and weight queries in constant time, without
+ * building the maps of sources() and targets(). Implementations keep the
+ * answers up to date as edges are set and vertices removed.
+ * 
+ * <p>{@link Graphs#outWeight} sums the weights out of a vertex of any graph,
+ * using this interface when the graph implements it.
+ * 
+ * @param <L> type of vertex labels in this graph, must be immutable
+ */
+public interface DegreeGraph<L> extends Graph<L> {
+    
+    /**
+     * @param vertex label of a vertex
+     * @return number of edges into vertex, zero if it is not in this graph
+     */
+    public int inDegree(L vertex);
+    
+    /**
+     * @param vertex label of a vertex
+     * @return number of edges out of vertex, zero if it is not in this graph
+     */
+    public int outDegree(L vertex);
+    
+    /**
+     * @param vertex label of a vertex
+     * @return sum of the weights of the edges into vertex, zero if it is not
+     *         in this graph
+     */
+    public long inWeight(L vertex);
+    
+    /**
+     * @param vertex label of a vertex
+     * @return sum of the weights of the edges out of vertex, zero if it is
+     *         not in this graph
+     */
+    public long outWeight(L vertex);
+    
+    /** @return number of edges in this graph */
+    public int edgeCount();
+    
+    /** @return sum of the weights of all edges in this graph */
+    public long totalWeight();
+    
+}
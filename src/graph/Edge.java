@@ -0,0 +1,111 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+/**
+ * Immutable type that represents an edge in a graph.
+ * 
+ * Edges are the (source, target, weight) triples accepted by bulk loading,
+ * see {@link BulkLoadableGraph}.
+ * 
+ * <p>PS2 instructions: the specification and implementation of this class is
+ * up to you.
+ */
+public final class Edge<L>{
+    private final L source;
+    private final L target;
+    private final int weight;
+    // Abstraction function:
+    //   represents an edge connecting from source to target with weight
+    // Representation invariant:
+    //   source is a non-null L
+    //   target is a non-null L
+    //   L must be immutable
+    //   weight > 0
+    // Safety from rep exposure:
+    //   All fields are private and final
+    //   source and target are of type L, required to be immutable
+    //   int is a primitive type so guaranteed immutable
+    //   setWeight() creates a new Edge object
+    
+    public Edge(final L source, final L target, final int weight){
+        assert weight > 0;
+        
+        this.source = source;
+        this.target = target;
+        this.weight = weight;
+        checkRep();
+    }
+    private void checkRep(){
+        assert source != null;
+        assert target != null;
+        assert weight > 0;
+    }
+    //observers
+    /** Returns this Edge's source*/   
+    public L getSource(){
+        return source;
+    }
+    /**Returns this Edge's target*/
+    public L getTarget(){
+        return target;
+    }
+    /**Returns this Edge's weight*/
+    public int getWeight(){
+        return weight;
+    }
+    
+    //producers
+    /**
+     * Changes the weight of this Edge
+     * 
+     * @param newWeight an int, requires newWeight > 0
+     * @return a new Edge with newWeight 
+     */
+    public Edge<L> setWeight(int newWeight){
+        checkRep();
+        return new Edge<>(source, target, newWeight);
+    }
+    /** Returns th string representation of a weighted edge
+     * 
+     * An edge is made up of two vertices, so the rep
+     * should contain the source vertex and the target vertex
+     * that make the edge, including its weight
+     * 
+     * @return String containing source, target and weight of this edge
+     *         with the following structure:
+     *              getSource() -> getTarget(): getWeight()
+     */    
+    @Override public String toString(){
+        return getSource().toString() + 
+                " -> " + 
+                getTarget().toString() + 
+                ": " + 
+                getWeight();
+    }
+    /** Checks if two Edge objects are equal
+     * @param that object to compare
+     * @return true if this.source = that.source and
+     *                 this.target = that.target and
+     *                 this.weight = that.weight
+     *         comparison is case-insensitive
+     */
+    @Override public boolean equals(Object that){
+        if (! (that instanceof Edge)) {
+            return false;
+        }
+        Edge<?> thatEdge = (Edge<?>)that;
+        return this.getSource().equals(thatEdge.getSource()) &&
+               this.getTarget().equals(thatEdge.getTarget()) &&
+               this.getWeight() == thatEdge.getWeight();
+    }
+    @Override public int hashCode(){
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + getSource().hashCode();
+        result = prime * result + getTarget().hashCode();
+        result = prime * result + (int) getWeight();
+        return result;
+    }
+}
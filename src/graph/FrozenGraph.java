@@ -0,0 +1,349 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable Graph in compressed sparse row (CSR) layout.
+ *
+ * <p>Vertices are numbered 0..n-1. The targets of vertex v are
+ * targetIds[targetOffsets[v]..targetOffsets[v+1]), sorted by id, with
+ * their weights at the same positions of targetWeights; a second, reverse
+ * CSR holds the sources of each vertex the same way. sources() and targets()
+ * return read-only views over those slices, so reads copy nothing and many
+ * threads can share a FrozenGraph without locking. Degrees come from the
+ * offsets, and weight sums are computed once when the graph is frozen.
+ *
+ * <p>The mutators add(), set() and remove() throw
+ * UnsupportedOperationException. Obtain instances with
+ * {@link Graphs#freeze(Graph)}.
+ */
+public final class FrozenGraph<L> implements DegreeGraph<L> {
+
+    private final Object[] labels;
+    private final Map<L, Integer> ids;
+    private final Set<L> vertexLabels;
+    private final int[] targetOffsets;
+    private final int[] targetIds;
+    private final int[] targetWeights;
+    private final int[] sourceOffsets;
+    private final int[] sourceIds;
+    private final int[] sourceWeights;
+    private final long[] outWeights;
+    private final long[] inWeights;
+    private final long totalWeight;
+
+    // Abstraction function:
+    //   represents the graph with vertices labels[0..n), n = labels.length,
+    //   and an edge from labels[v] to labels[targetIds[i]] with weight
+    //   targetWeights[i] for every targetOffsets[v] <= i < targetOffsets[v+1]
+    // Representation invariant:
+    //   ids.get(labels[v]) == v for 0 <= v < n, and ids has n keys
+    //   targetOffsets and sourceOffsets have length n+1, start at 0,
+    //     are nondecreasing and end at the number of edges
+    //   each row of targetIds and sourceIds is strictly increasing
+    //   the reverse CSR holds exactly the edges of the forward CSR
+    //   all weights are > 0
+    //   outWeights[v] and inWeights[v] are the sums of the weights of row v
+    //     of the forward and reverse CSR, and totalWeight is the sum of all
+    //     weights
+    // Safety from rep exposure:
+    //   All fields are private and final and never mutated after
+    //   construction; arrays are never returned
+    //   vertices(), sources() and targets() return unmodifiable views
+    // Thread safety argument:
+    //   All fields are final and the objects they refer to are not mutated
+    //   after the constructor returns, so a FrozenGraph is safely published
+    //   and can be read by any number of threads
+
+    /**
+     * Make a frozen copy of a graph.
+     *
+     * @param graph graph to copy
+     */
+    FrozenGraph(final Graph<L> graph){
+        final Set<L> graphVertices = graph.vertices();
+        final int n = graphVertices.size();
+        labels = new Object[n];
+        ids = new HashMap<>(n * 4 / 3 + 1);
+        int nextId = 0;
+        for ( L vertex : graphVertices ) {
+            labels[nextId] = vertex;
+            ids.put(vertex, nextId++);
+        }
+        vertexLabels = Collections.unmodifiableSet(ids.keySet());
+
+        targetOffsets = new int[n + 1];
+        final Map<?, ?>[] rows = new Map<?, ?>[n];
+        for ( int v = 0; v < n; v++ ) {
+            rows[v] = graph.targets(label(v));
+            targetOffsets[v + 1] = targetOffsets[v] + rows[v].size();
+        }
+        final int numberOfEdges = targetOffsets[n];
+        targetIds = new int[numberOfEdges];
+        targetWeights = new int[numberOfEdges];
+        sourceOffsets = new int[n + 1];
+        for ( int v = 0; v < n; v++ ) {
+            fillRow(v, rows[v]);
+            rows[v] = null;
+        }
+
+        //reverse CSR: count, prefix sum, then scatter in source order so
+        //each row ends up sorted by source id
+        for ( int i = 0; i < numberOfEdges; i++ ) {
+            sourceOffsets[targetIds[i] + 1]++;
+        }
+        for ( int v = 0; v < n; v++ ) {
+            sourceOffsets[v + 1] += sourceOffsets[v];
+        }
+        sourceIds = new int[numberOfEdges];
+        sourceWeights = new int[numberOfEdges];
+        final int[] next = Arrays.copyOf(sourceOffsets, n);
+        for ( int source = 0; source < n; source++ ) {
+            for ( int i = targetOffsets[source]; i < targetOffsets[source + 1]; i++ ) {
+                final int position = next[targetIds[i]]++;
+                sourceIds[position] = source;
+                sourceWeights[position] = targetWeights[i];
+            }
+        }
+        
+        outWeights = new long[n];
+        inWeights = new long[n];
+        long sumOfWeights = 0;
+        for ( int source = 0; source < n; source++ ) {
+            for ( int i = targetOffsets[source]; i < targetOffsets[source + 1]; i++ ) {
+                outWeights[source] += targetWeights[i];
+                inWeights[targetIds[i]] += targetWeights[i];
+            }
+            sumOfWeights += outWeights[source];
+        }
+        totalWeight = sumOfWeights;
+        checkRep();
+    }
+    private void checkRep(){
+        assert labels.length == ids.size();
+        assert targetOffsets[labels.length] == targetIds.length;
+        assert sourceOffsets[labels.length] == sourceIds.length;
+        assert targetIds.length == sourceIds.length;
+    }
+    //helper code
+    /** Writes the targets of vertex v, sorted by id, into the forward CSR */
+    private void fillRow(final int v, final Map<?, ?> row){
+        final int start = targetOffsets[v];
+        final int end = targetOffsets[v + 1];
+        final long[] packed = new long[end - start];
+        int k = 0;
+        for ( Map.Entry<?, ?> entry : row.entrySet() ) {
+            final int target = ids.get(entry.getKey());
+            final int weight = (Integer) entry.getValue();
+            packed[k++] = ((long) target << 32) | weight;
+        }
+        Arrays.sort(packed);
+        for ( int i = 0; i < packed.length; i++ ) {
+            targetIds[start + i] = (int) (packed[i] >>> 32);
+            targetWeights[start + i] = (int) packed[i];
+        }
+    }
+    //end of helper code
+
+    //int-indexed access, for the algorithms in this package
+    /** Returns the number of vertices, which are numbered 0..vertexCount()-1 */
+    int vertexCount(){
+        return labels.length;
+    }
+    /** Returns the number of edges */
+    @Override public int edgeCount(){
+        return targetIds.length;
+    }
+    /** Returns the id of a vertex, or -1 if it is not in this graph */
+    int id(final Object label){
+        final Integer id = ids.get(label);
+        return id == null ? -1 : id;
+    }
+    /** Returns the label of the vertex with an id */
+    @SuppressWarnings("unchecked")
+    L label(final int id){
+        return (L) labels[id];
+    }
+    /** Returns the sum of the weights out of vertex v */
+    long outWeightOf(final int v){
+        return outWeights[v];
+    }
+    /** Returns the index in targetId() of the first target of vertex v */
+    int targetStart(final int v){
+        return targetOffsets[v];
+    }
+    /** Returns the index in targetId() just past the last target of vertex v */
+    int targetEnd(final int v){
+        return targetOffsets[v + 1];
+    }
+    /** Returns the target id at an index of the forward CSR */
+    int targetId(final int index){
+        return targetIds[index];
+    }
+    /** Returns the weight at an index of the forward CSR */
+    int targetWeight(final int index){
+        return targetWeights[index];
+    }
+    /** Returns the index in sourceId() of the first source of vertex v */
+    int sourceStart(final int v){
+        return sourceOffsets[v];
+    }
+    /** Returns the index in sourceId() just past the last source of vertex v */
+    int sourceEnd(final int v){
+        return sourceOffsets[v + 1];
+    }
+    /** Returns the source id at an index of the reverse CSR */
+    int sourceId(final int index){
+        return sourceIds[index];
+    }
+    /** Returns the weight at an index of the reverse CSR */
+    int sourceWeight(final int index){
+        return sourceWeights[index];
+    }
+
+    @Override public int inDegree(L vertex) {
+        final int v = id(vertex);
+        return v < 0 ? 0 : sourceOffsets[v + 1] - sourceOffsets[v];
+    }
+    @Override public int outDegree(L vertex) {
+        final int v = id(vertex);
+        return v < 0 ? 0 : targetOffsets[v + 1] - targetOffsets[v];
+    }
+    @Override public long inWeight(L vertex) {
+        final int v = id(vertex);
+        return v < 0 ? 0 : inWeights[v];
+    }
+    @Override public long outWeight(L vertex) {
+        final int v = id(vertex);
+        return v < 0 ? 0 : outWeights[v];
+    }
+    @Override public long totalWeight() {
+        return totalWeight;
+    }
+
+    /** Unsupported: a FrozenGraph cannot be modified */
+    @Override public boolean add(L vertex) {
+        throw new UnsupportedOperationException("frozen graph");
+    }
+    /** Unsupported: a FrozenGraph cannot be modified */
+    @Override public int set(L source, L target, int weight) {
+        throw new UnsupportedOperationException("frozen graph");
+    }
+    /** Unsupported: a FrozenGraph cannot be modified */
+    @Override public boolean remove(L vertex) {
+        throw new UnsupportedOperationException("frozen graph");
+    }
+    /** Returns a read-only view of the labels of this graph's vertices */
+    @Override public Set<L> vertices() {
+        return vertexLabels;
+    }
+    /** Returns a read-only view of a target's sources */
+    @Override public Map<L, Integer> sources(L target) {
+        final int v = id(target);
+        if ( v < 0 ) {
+            return Collections.emptyMap();
+        }
+        return new Row(sourceIds, sourceWeights, sourceOffsets[v], sourceOffsets[v + 1]);
+    }
+    /** Returns a read-only view of a source's targets */
+    @Override public Map<L, Integer> targets(L source) {
+        final int v = id(source);
+        if ( v < 0 ) {
+            return Collections.emptyMap();
+        }
+        return new Row(targetIds, targetWeights, targetOffsets[v], targetOffsets[v + 1]);
+    }
+
+    /**
+     * Returns the string representation of this graph, in the format
+     * described in {@link Graphs}. Edges are ordered by source id and then
+     * by target id.
+     *
+     * @return string rep of this graph containing all its edges,
+     *         "Empty Graph" if graph has no edges
+     */
+    @Override public String toString(){
+        if ( targetIds.length == 0 ) {
+            return "Empty Graph";
+        }
+        final StringBuilder rep = new StringBuilder();
+        for ( int v = 0; v < labels.length; v++ ) {
+            for ( int i = targetOffsets[v]; i < targetOffsets[v + 1]; i++ ) {
+                if ( rep.length() > 0 ) {
+                    rep.append('\n');
+                }
+                rep.append(labels[v]).append(" -> ")
+                   .append(labels[targetIds[i]]).append(": ")
+                   .append(targetWeights[i]);
+            }
+        }
+        return rep.toString();
+    }
+
+    /**
+     * Read-only map view of one CSR row, from neighbour label to weight.
+     * Lookups binary search the row, which is sorted by id.
+     */
+    private final class Row extends AbstractMap<L, Integer> {
+        private final int[] neighbours;
+        private final int[] weights;
+        private final int start;
+        private final int end;
+
+        Row(final int[] neighbours, final int[] weights, final int start, final int end){
+            this.neighbours = neighbours;
+            this.weights = weights;
+            this.start = start;
+            this.end = end;
+        }
+        private int indexOf(final Object key){
+            final int v = id(key);
+            return v < 0 ? -1 : Arrays.binarySearch(neighbours, start, end, v);
+        }
+        @Override public int size(){
+            return end - start;
+        }
+        @Override public boolean containsKey(final Object key){
+            return indexOf(key) >= 0;
+        }
+        @Override public Integer get(final Object key){
+            final int i = indexOf(key);
+            return i < 0 ? null : weights[i];
+        }
+        @Override public Set<Map.Entry<L, Integer>> entrySet(){
+            return new AbstractSet<Map.Entry<L, Integer>>() {
+                @Override public int size(){
+                    return end - start;
+                }
+                @Override public Iterator<Map.Entry<L, Integer>> iterator(){
+                    return new Iterator<Map.Entry<L, Integer>>() {
+                        private int i = start;
+                        @Override public boolean hasNext(){
+                            return i < end;
+                        }
+                        @Override public Map.Entry<L, Integer> next(){
+                            if ( i >= end ) {
+                                throw new NoSuchElementException();
+                            }
+                            final Map.Entry<L, Integer> entry =
+                                    new SimpleImmutableEntry<>(label(neighbours[i]), weights[i]);
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary encoding of graphs of strings, written to and read from
+ * streams.
+ * 
+ * <p>Unlike {@link MappedGraph}, which needs a file it can map, this
+ * encoding is written and read front to back, so it can be sent over a
+ * socket or piped between processes. Both directions hold the labels in
+ * memory, but only one vertex's edges at a time. The decoder sizes what it
+ * allocates by the bytes it has actually read, never by counts or lengths
+ * claimed in the stream, so a corrupt or hostile stream fails with an
+ * IOException instead of exhausting memory.
+ * 
+ * <p>Encoding, version 1, where varint is an unsigned LEB128 int of 1 to 5
+ * bytes, 7 bits per byte, least significant first:
+ * <pre>
+ *   header   byte[4] magic "WGRS", varint version, varint n (vertices),
+ *            varint m (edges)
+ *   labels   n times: varint length, byte[length] UTF-8 label
+ *   rows     n times, for vertex ids 0..n-1 in label order:
+ *              varint degree d, then d times: varint gap, varint weight
+ *   checksum int, big-endian CRC32 of every byte before it
+ * </pre>
+ * Each label is stored once and edges refer to it by id. The targets of a
+ * row are in increasing id order, and each is stored as its difference
+ * from the previous target, the first from zero, so the ids of dense rows
+ * take one byte each.
+ */
+public final class GraphCodec {
+    
+    /** First four bytes of an encoded graph, "WGRS". */
+    private static final byte[] MAGIC = { 'W', 'G', 'R', 'S' };
+    /** Current version of the encoding. */
+    static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+    /** Bytes of a label read before the stream shows the label is longer */
+    private static final int LABEL_CHUNK_BYTES = 1 << 10;
+    
+    private GraphCodec(){
+        throw new AssertionError("not instantiable");
+    }
+    
+    /**
+     * Encode a graph to a stream. The stream is flushed but not closed.
+     * 
+     * @param graph graph to encode; must not change during this call
+     * @param out stream to write to
+     * @throws IOException if out cannot be written
+     */
+    public static void write(Graph<String> graph, OutputStream out) throws IOException {
+        final Encoder encoder = new Encoder(new BufferedOutputStream(out, BUFFER_BYTES));
+        final String[] labels = graph.vertices().toArray(new String[0]);
+        final Map<String, Integer> ids = new HashMap<>(labels.length * 2);
+        long m = 0;
+        for ( int v = 0; v < labels.length; v++ ) {
+            ids.put(labels[v], v);
+            m += graph.targets(labels[v]).size();
+        }
+        encoder.writeBytes(MAGIC);
+        encoder.writeVarint(VERSION);
+        encoder.writeVarint(labels.length);
+        encoder.writeVarint(Math.toIntExact(m));
+        for ( String label : labels ) {
+            final byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+            encoder.writeVarint(bytes.length);
+            encoder.writeBytes(bytes);
+        }
+        for ( String label : labels ) {
+            final Map<String, Integer> targets = graph.targets(label);
+            //pack id and weight into one long so that one sort orders both
+            final long[] row = new long[targets.size()];
+            int i = 0;
+            for ( Map.Entry<String, Integer> target : targets.entrySet() ) {
+                row[i++] = (long) ids.get(target.getKey()) << 32 | target.getValue();
+            }
+            Arrays.sort(row);
+            encoder.writeVarint(row.length);
+            int previous = 0;
+            for ( long edge : row ) {
+                final int target = (int) (edge >>> 32);
+                encoder.writeVarint(target - previous);
+                encoder.writeVarint((int) edge);
+                previous = target;
+            }
+        }
+        encoder.writeChecksum();
+        encoder.out.flush();
+    }
+    
+    /**
+     * Decode a graph from a stream into a new graph, created with
+     * {@link Graphs#create(GraphHints)} for a graph built once.
+     * 
+     * @param in stream to read from, positioned at the start of an encoded
+     *           graph; exactly the bytes of that graph are consumed, so
+     *           pass a buffered stream for speed
+     * @return the decoded graph
+     * @throws IOException if in cannot be read, or does not hold a whole
+     *                     encoded graph of a supported version with a
+     *                     correct checksum
+     */
+    public static Graph<String> read(InputStream in) throws IOException {
+        final Decoder decoder = new Decoder(in);
+        final int[] header = decoder.readHeader();
+        final Graph<String> graph = Graphs.create(GraphHints.NONE.buildOnce()
+                .withExpectedVertices(header[0])
+                .withExpectedEdges(header[1]));
+        decoder.readGraph(header[0], header[1], graph);
+        return graph;
+    }
+    
+    /**
+     * Decode a graph from a stream, adding its vertices and setting its
+     * edges in an existing graph.
+     * 
+     * @param in stream to read from, as for {@link #read(InputStream)}
+     * @param graph graph to modify; if decoding fails, some of the
+     *              vertices and edges may already have been added
+     * @throws IOException as for {@link #read(InputStream)}
+     */
+    public static void readInto(InputStream in, Graph<String> graph) throws IOException {
+        final Decoder decoder = new Decoder(in);
+        final int[] header = decoder.readHeader();
+        decoder.readGraph(header[0], header[1], graph);
+    }
+    
+    /**
+     * Writes varints and bytes to a stream, keeping the CRC32 of what it
+     * wrote.
+     * 
+     * This class is internal to GraphCodec.
+     */
+    private static final class Encoder {
+        final OutputStream out;
+        private final CRC32 crc = new CRC32();
+        private final byte[] scratch = new byte[5];
+        
+        Encoder(OutputStream out){
+            this.out = out;
+        }
+        
+        void writeBytes(byte[] bytes) throws IOException {
+            out.write(bytes);
+            crc.update(bytes, 0, bytes.length);
+        }
+        void writeVarint(int value) throws IOException {
+            assert value >= 0;
+            int length = 0;
+            while ( (value & ~0x7F) != 0 ) {
+                scratch[length++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            scratch[length++] = (byte) value;
+            out.write(scratch, 0, length);
+            crc.update(scratch, 0, length);
+        }
+        void writeChecksum() throws IOException {
+            final int checksum = (int) crc.getValue();
+            for ( int shift = 24; shift >= 0; shift -= 8 ) {
+                out.write(checksum >>> shift);
+            }
+        }
+    }
+    
+    /**
+     * Reads varints and bytes from a stream, keeping the CRC32 of what it
+     * read, and checks what it reads against the encoding.
+     * 
+     * This class is internal to GraphCodec.
+     */
+    private static final class Decoder {
+        private final InputStream in;
+        private final CRC32 crc = new CRC32();
+        
+        Decoder(InputStream in){
+            this.in = in;
+        }
+        
+        /** Reads the header, returning { n, m } */
+        int[] readHeader() throws IOException {
+            final byte[] magic = readBytes(MAGIC.length);
+            if ( !Arrays.equals(magic, MAGIC) ) {
+                throw new IOException("not an encoded graph");
+            }
+            final int version = readVarint();
+            if ( version != VERSION ) {
+                throw new IOException("unsupported graph encoding version " + version);
+            }
+            return new int[] { readVarint(), readVarint() };
+        }
+        
+        void readGraph(int n, int m, Graph<String> graph) throws IOException {
+            //n and the label lengths are not trusted until their bytes are read
+            final List<String> labels = new ArrayList<>();
+            for ( int v = 0; v < n; v++ ) {
+                final String label = new String(readBytes(readVarint()), StandardCharsets.UTF_8);
+                labels.add(label);
+                graph.add(label);
+            }
+            long edges = 0;
+            for ( String source : labels ) {
+                final int degree = readVarint();
+                edges += degree;
+                if ( degree > n || edges > m ) {
+                    throw new IOException("encoded graph has too many edges");
+                }
+                final String[] sources = new String[degree];
+                final String[] targets = new String[degree];
+                final int[] weights = new int[degree];
+                int target = 0;
+                for ( int i = 0; i < degree; i++ ) {
+                    final int gap = readVarint();
+                    target += gap;
+                    if ( target >= n || target < 0 || i > 0 && gap == 0 ) {
+                        throw new IOException("encoded graph has a bad target id");
+                    }
+                    sources[i] = source;
+                    targets[i] = labels.get(target);
+                    weights[i] = readVarint();
+                    if ( weights[i] == 0 ) {
+                        throw new IOException("encoded graph has a zero weight");
+                    }
+                }
+                setAll(graph, sources, targets, weights);
+            }
+            if ( edges != m ) {
+                throw new IOException("encoded graph has too few edges");
+            }
+            final int expected = (int) crc.getValue();
+            int checksum = 0;
+            for ( int i = 0; i < 4; i++ ) {
+                checksum = checksum << 8 | readByte();
+            }
+            if ( checksum != expected ) {
+                throw new IOException("encoded graph has a bad checksum");
+            }
+        }
+        
+        private static void setAll(Graph<String> graph, String[] sources, String[] targets, int[] weights){
+            if ( graph instanceof BulkLoadableGraph ) {
+                ((BulkLoadableGraph<String>) graph).setAll(sources, targets, weights);
+                return;
+            }
+            for ( int i = 0; i < sources.length; i++ ) {
+                graph.set(sources[i], targets[i], weights[i]);
+            }
+        }
+        private int readByte() throws IOException {
+            final int b = in.read();
+            if ( b < 0 ) {
+                throw new EOFException("encoded graph is truncated");
+            }
+            crc.update(b);
+            return b;
+        }
+        /** Reads length bytes, growing the result only as the bytes arrive */
+        private byte[] readBytes(int length) throws IOException {
+            byte[] bytes = new byte[Math.min(length, LABEL_CHUNK_BYTES)];
+            int read = 0;
+            while ( read < length ) {
+                if ( read == bytes.length ) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+                final int count = in.read(bytes, read, bytes.length - read);
+                if ( count < 0 ) {
+                    throw new EOFException("encoded graph is truncated");
+                }
+                read += count;
+            }
+            crc.update(bytes, 0, length);
+            return bytes;
+        }
+        private int readVarint() throws IOException {
+            int value = 0;
+            for ( int shift = 0; shift < 35; shift += 7 ) {
+                final int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ( (b & 0x80) == 0 ) {
+                    if ( value < 0 || shift == 28 && b > 0x07 ) {
+                        throw new IOException("encoded graph has a bad number");
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("encoded graph has a bad number");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Objects;
+
+/**
+ * Immutable type that represents one change to a graph, as delivered to a
+ * {@link GraphListener}: a vertex added, a vertex removed, or the weight of
+ * an edge changed. An edge is added when its old weight is zero, and
+ * removed when its new weight is zero.
+ * 
+ * @param <L> type of vertex labels in the graph, must be immutable
+ */
+public final class GraphEvent<L> {
+    
+    /** The kinds of change. */
+    public enum Kind { VERTEX_ADDED, VERTEX_REMOVED, EDGE_CHANGED }
+    
+    private final Kind kind;
+    private final L source;
+    private final L target;
+    private final int oldWeight;
+    private final int newWeight;
+    
+    // Abstraction function:
+    //   represents the change of kind to vertex source if kind is not
+    //   EDGE_CHANGED, and otherwise the change of the weight of the edge
+    //   source -> target from oldWeight to newWeight
+    // Representation invariant:
+    //   source is not null
+    //   target is null and the weights are zero unless kind is EDGE_CHANGED
+    //   for EDGE_CHANGED, target is not null, oldWeight and newWeight are
+    //     >= 0 and differ
+    // Safety from rep exposure:
+    //   All fields are private and final; labels are immutable
+    
+    private GraphEvent(Kind kind, L source, L target, int oldWeight, int newWeight){
+        this.kind = kind;
+        this.source = source;
+        this.target = target;
+        this.oldWeight = oldWeight;
+        this.newWeight = newWeight;
+        checkRep();
+    }
+    private void checkRep(){
+        assert source != null;
+        assert ( kind == Kind.EDGE_CHANGED ) == ( target != null );
+        assert oldWeight >= 0 && newWeight >= 0;
+        assert kind != Kind.EDGE_CHANGED || oldWeight != newWeight;
+    }
+    
+    /**
+     * @param <L> type of vertex labels
+     * @param vertex label of the added vertex
+     * @return an event for vertex being added
+     */
+    public static <L> GraphEvent<L> vertexAdded(L vertex) {
+        return new GraphEvent<>(Kind.VERTEX_ADDED, vertex, null, 0, 0);
+    }
+    
+    /**
+     * @param <L> type of vertex labels
+     * @param vertex label of the removed vertex
+     * @return an event for vertex being removed
+     */
+    public static <L> GraphEvent<L> vertexRemoved(L vertex) {
+        return new GraphEvent<>(Kind.VERTEX_REMOVED, vertex, null, 0, 0);
+    }
+    
+    /**
+     * @param <L> type of vertex labels
+     * @param source label of the source of the edge
+     * @param target label of the target of the edge
+     * @param oldWeight weight before the change, zero if there was no edge
+     * @param newWeight weight after the change, zero if the edge was
+     *                  removed; requires newWeight != oldWeight
+     * @return an event for the weight of source -> target changing
+     */
+    public static <L> GraphEvent<L> edgeChanged(L source, L target, int oldWeight, int newWeight) {
+        return new GraphEvent<>(Kind.EDGE_CHANGED, source, target, oldWeight, newWeight);
+    }
+    
+    /** Returns the kind of this change */
+    public Kind getKind(){
+        return kind;
+    }
+    /** Returns the added or removed vertex, or the source of the changed edge */
+    public L getSource(){
+        return source;
+    }
+    /** Returns the target of the changed edge, null for vertex changes */
+    public L getTarget(){
+        return target;
+    }
+    /** Returns the weight of the edge before the change, zero for vertex changes */
+    public int getOldWeight(){
+        return oldWeight;
+    }
+    /** Returns the weight of the edge after the change, zero for vertex changes */
+    public int getNewWeight(){
+        return newWeight;
+    }
+    
+    /**
+     * Returns the string representation of this change, one of
+     *      + vertex
+     *      - vertex
+     *      source -> target: oldWeight => newWeight
+     */
+    @Override public String toString(){
+        switch ( kind ) {
+        case VERTEX_ADDED:   return "+ " + source;
+        case VERTEX_REMOVED: return "- " + source;
+        default:             return source + " -> " + target + ": " + oldWeight + " => " + newWeight;
+        }
+    }
+    @Override public boolean equals(Object that){
+        if ( !(that instanceof GraphEvent) ) {
+            return false;
+        }
+        final GraphEvent<?> thatEvent = (GraphEvent<?>) that;
+        return kind == thatEvent.kind
+                && source.equals(thatEvent.source)
+                && Objects.equals(target, thatEvent.target)
+                && oldWeight == thatEvent.oldWeight
+                && newWeight == thatEvent.newWeight;
+    }
+    @Override public int hashCode(){
+        return Objects.hash(kind, source, target, oldWeight, newWeight);
+    }
+}
@@ -0,0 +1,84 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mutable list of the listeners of an ObservableGraph, with the events
+ * waiting for the end of a batch.
+ * 
+ * <p>A graph keeps one of these only while it has listeners, so that a
+ * graph nobody listens to pays one null check per change and builds no
+ * events.
+ * 
+ * <p>This class is internal to the reps of ConcreteEdgesGraph and
+ * ConcreteVerticesGraph.
+ */
+final class GraphEvents<L> {
+    
+    private final List<GraphListener<L>> listeners = new ArrayList<>(2);
+    private List<GraphEvent<L>> pending = new ArrayList<>();
+    private int batchDepth = 0;
+    
+    // Abstraction function:
+    //   represents the listeners, in order, and the events of the batches
+    //   that are running, pending
+    // Representation invariant:
+    //   batchDepth >= 0
+    // Safety from rep exposure:
+    //   All fields are private; listeners get unmodifiable copies of events
+    
+    private void checkRep(){
+        assert batchDepth >= 0;
+    }
+    
+    void addListener(GraphListener<L> listener){
+        listeners.add(listener);
+    }
+    /** Returns true if listener was registered */
+    boolean removeListener(GraphListener<L> listener){
+        return listeners.remove(listener);
+    }
+    /** Returns true if there are no listeners and no batch is running */
+    boolean isIdle(){
+        return listeners.isEmpty() && batchDepth == 0;
+    }
+    
+    /** Records an event, to be delivered by the next flush() outside a batch */
+    void fire(GraphEvent<L> event){
+        pending.add(event);
+    }
+    /**
+     * Delivers the recorded events unless a batch is running; graphs call
+     * this when a mutator has finished, so listeners see a consistent graph
+     */
+    void flush(){
+        if ( batchDepth == 0 && !pending.isEmpty() ) {
+            deliver();
+        }
+    }
+    
+    /** Runs changes as one batch, see {@link ObservableGraph#batch(Runnable)} */
+    void batch(Runnable changes){
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            batchDepth--;
+            flush();
+        }
+    }
+    
+    private void deliver(){
+        final List<GraphEvent<L>> events = Collections.unmodifiableList(pending);
+        pending = new ArrayList<>();
+        checkRep();
+        for ( GraphListener<L> listener : new ArrayList<>(listeners) ) {
+            listener.changed(events);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+/**
+ * Immutable description of how a graph will be used, from which
+ * {@link Graphs#create(GraphHints)} picks an implementation.
+ * 
+ * <p>Hints are built up from {@link #NONE}, e.g.
+ *      GraphHints.NONE.withExpectedVertices(50_000).buildOnce()
+ * Every hint is optional; hints never change what a graph does, only how
+ * fast it does it.
+ */
+public final class GraphHints {
+    
+    /** The mix of operations expected on a graph */
+    public enum Access {
+        /** Reads and writes in similar numbers */
+        MIXED,
+        /** Mostly vertices(), sources() and targets() */
+        READ_HEAVY,
+        /** Mostly add(), set() and remove() */
+        WRITE_HEAVY
+    }
+    
+    /** No hints: a small, single-threaded, mutable graph with mixed access */
+    public static final GraphHints NONE = new GraphHints(0, 0, Access.MIXED, false, false);
+    
+    private final int expectedVertices;
+    private final long expectedEdges;
+    private final Access access;
+    private final boolean concurrent;
+    private final boolean buildOnce;
+    
+    // Abstraction function:
+    //   represents the hints with the values of the fields, where an
+    //   expected count of zero means "unknown"
+    // Representation invariant:
+    //   expectedVertices >= 0, expectedEdges >= 0, access != null
+    // Safety from rep exposure:
+    //   All fields are private, final and immutable
+    
+    private GraphHints(int expectedVertices, long expectedEdges, Access access,
+            boolean concurrent, boolean buildOnce){
+        this.expectedVertices = expectedVertices;
+        this.expectedEdges = expectedEdges;
+        this.access = access;
+        this.concurrent = concurrent;
+        this.buildOnce = buildOnce;
+        checkRep();
+    }
+    private void checkRep(){
+        assert expectedVertices >= 0;
+        assert expectedEdges >= 0;
+        assert access != null;
+    }
+    
+    /**
+     * @param vertices expected number of vertices, requires vertices >= 0
+     * @return these hints with the expected number of vertices
+     */
+    public GraphHints withExpectedVertices(int vertices) {
+        return new GraphHints(vertices, expectedEdges, access, concurrent, buildOnce);
+    }
+    /**
+     * @param edges expected number of edges, requires edges >= 0
+     * @return these hints with the expected number of edges
+     */
+    public GraphHints withExpectedEdges(long edges) {
+        return new GraphHints(expectedVertices, edges, access, concurrent, buildOnce);
+    }
+    /** Returns these hints for a graph that is mostly read */
+    public GraphHints readHeavy() {
+        return new GraphHints(expectedVertices, expectedEdges, Access.READ_HEAVY, concurrent, buildOnce);
+    }
+    /** Returns these hints for a graph that is mostly written */
+    public GraphHints writeHeavy() {
+        return new GraphHints(expectedVertices, expectedEdges, Access.WRITE_HEAVY, concurrent, buildOnce);
+    }
+    /** Returns these hints for a graph that threads will share */
+    public GraphHints concurrent() {
+        return new GraphHints(expectedVertices, expectedEdges, access, true, buildOnce);
+    }
+    /**
+     * Returns these hints for a graph that is built and then only read; the
+     * caller should {@link Graphs#freeze(Graph) freeze} it once built
+     */
+    public GraphHints buildOnce() {
+        return new GraphHints(expectedVertices, expectedEdges, access, concurrent, true);
+    }
+    
+    /** Returns the expected number of vertices, zero if unknown */
+    public int expectedVertices() {
+        return expectedVertices;
+    }
+    /** Returns the expected number of edges, zero if unknown */
+    public long expectedEdges() {
+        return expectedEdges;
+    }
+    /** Returns the expected mix of operations */
+    public Access access() {
+        return access;
+    }
+    /** Returns true if threads will share the graph */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+    /** Returns true if the graph is built and then only read */
+    public boolean isBuildOnce() {
+        return buildOnce;
+    }
+    
+    @Override public boolean equals(Object that){
+        if ( !(that instanceof GraphHints) ) {
+            return false;
+        }
+        final GraphHints other = (GraphHints) that;
+        return expectedVertices == other.expectedVertices
+                && expectedEdges == other.expectedEdges
+                && access == other.access
+                && concurrent == other.concurrent
+                && buildOnce == other.buildOnce;
+    }
+    @Override public int hashCode(){
+        int hash = expectedVertices;
+        hash = 31 * hash + Long.hashCode(expectedEdges);
+        hash = 31 * hash + access.hashCode();
+        hash = 31 * hash + Boolean.hashCode(concurrent);
+        return 31 * hash + Boolean.hashCode(buildOnce);
+    }
+    /** Returns the hints like: vertices=100 edges=0 access=MIXED concurrent=false buildOnce=true */
+    @Override public String toString(){
+        return "vertices=" + expectedVertices + " edges=" + expectedEdges + " access=" + access
+                + " concurrent=" + concurrent + " buildOnce=" + buildOnce;
+    }
+}
@@ -0,0 +1,24 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.List;
+
+/**
+ * Receives the changes made to an {@link ObservableGraph}.
+ * 
+ * @param <L> type of vertex labels in the graph, must be immutable
+ */
+@FunctionalInterface
+public interface GraphListener<L> {
+    
+    /**
+     * Called after changes have been made to the graph.
+     * 
+     * @param events the changes, in the order they were made; an
+     *               unmodifiable list that is never empty
+     */
+    public void changed(List<GraphEvent<L>> events);
+    
+}
@@ -0,0 +1,197 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe recorder of what graph operations cost: call counts,
+ * latency histograms and result sizes per operation, and counters of the
+ * internal work done by the concrete graphs of this package.
+ * 
+ * <p>Recording allocates nothing; all counters live in one preallocated
+ * atomic array. Monitoring code polls {@link #snapshot()}, which copies the
+ * counters into an immutable {@link Snapshot}.
+ * 
+ * @see InstrumentedGraph
+ */
+public final class GraphMetrics {
+    
+    /** The operations of Graph that are recorded */
+    public enum Operation { ADD, SET, REMOVE, VERTICES, SOURCES, TARGETS }
+    
+    /** The internal costs that concrete graphs record */
+    public enum Cost {
+        /**
+         * Entries of a graph's rep visited by operations whose cost grows
+         * with the graph rather than being constant: remove() and scans
+         * over all edges or vertices, such as toString()
+         */
+        ELEMENTS_SCANNED
+    }
+    
+    /**
+     * Number of latency buckets; bucket 0 counts latencies below 2ns, bucket
+     * i > 0 counts latencies in [2^i, 2^(i+1)) ns, and the last bucket also
+     * counts everything longer
+     */
+    public static final int LATENCY_BUCKETS = 40;
+    
+    private static final int CALLS = 0;
+    private static final int NANOS = 1;
+    private static final int RESULT_SIZES = 2;
+    private static final int FIRST_BUCKET = 3;
+    private static final int STRIDE = FIRST_BUCKET + LATENCY_BUCKETS;
+    private static final int FIRST_COST = Operation.values().length * STRIDE;
+    
+    private final AtomicLongArray counters =
+            new AtomicLongArray(FIRST_COST + Cost.values().length);
+    
+    // Abstraction function:
+    //   represents, for each operation op, the counters at
+    //   counters[op.ordinal() * STRIDE + CALLS | NANOS | RESULT_SIZES] and
+    //   the latency histogram at counters[op.ordinal() * STRIDE + FIRST_BUCKET
+    //   + i] for 0 <= i < LATENCY_BUCKETS; and, for each cost c, the counter
+    //   at counters[FIRST_COST + c.ordinal()]
+    // Representation invariant:
+    //   all counters are >= 0
+    //   for each operation, its histogram buckets sum to its calls, once
+    //     every record() that has started has finished
+    // Safety from rep exposure:
+    //   counters is private and final, and never returned; snapshots copy it
+    // Thread safety argument:
+    //   every counter is updated atomically, and counters never decrease,
+    //   so concurrent record() calls lose no counts
+    
+    /** Make a recorder with all counters zero. */
+    public GraphMetrics(){
+    }
+    
+    /**
+     * Returns the histogram bucket of a latency
+     * 
+     * @param nanos latency in nanoseconds
+     * @return index of the bucket counting nanos, in [0, LATENCY_BUCKETS)
+     */
+    public static int bucketOf(long nanos) {
+        if ( nanos < 2 ) {
+            return 0;
+        }
+        return Math.min(63 - Long.numberOfLeadingZeros(nanos), LATENCY_BUCKETS - 1);
+    }
+    
+    /**
+     * Record one call of an operation
+     * 
+     * @param operation operation that was called
+     * @param nanos how long the call took, in nanoseconds
+     * @param resultSize number of elements in the result, zero for
+     *                   operations that return a single value
+     */
+    public void record(Operation operation, long nanos, int resultSize) {
+        final int base = operation.ordinal() * STRIDE;
+        counters.incrementAndGet(base + CALLS);
+        counters.addAndGet(base + NANOS, Math.max(0, nanos));
+        counters.addAndGet(base + RESULT_SIZES, resultSize);
+        counters.incrementAndGet(base + FIRST_BUCKET + bucketOf(nanos));
+    }
+    
+    /**
+     * Record internal work done by a graph
+     * 
+     * @param cost kind of work
+     * @param amount how much work was done, requires amount >= 0
+     */
+    public void recordCost(Cost cost, long amount) {
+        assert amount >= 0;
+        counters.addAndGet(FIRST_COST + cost.ordinal(), amount);
+    }
+    
+    /**
+     * Returns a copy of the current counters. Counters are read one at a
+     * time, so a snapshot taken while other threads record may not reflect
+     * every recording atomically.
+     * 
+     * @return immutable snapshot of the counters
+     */
+    public Snapshot snapshot() {
+        final long[] copy = new long[counters.length()];
+        for ( int i = 0; i < copy.length; i++ ) {
+            copy[i] = counters.get(i);
+        }
+        return new Snapshot(copy);
+    }
+    
+    @Override public String toString(){
+        return snapshot().toString();
+    }
+    
+    /**
+     * Immutable copy of the counters of a GraphMetrics at some point in time.
+     */
+    public static final class Snapshot {
+        private final long[] counters;
+        
+        // Abstraction function:
+        //   represents the counters of a GraphMetrics, laid out the same way
+        // Representation invariant:
+        //   counters.length == FIRST_COST + Cost.values().length
+        // Safety from rep exposure:
+        //   counters is private and final, and never returned;
+        //   latencyHistogram() returns a copy
+        
+        private Snapshot(long[] counters){
+            this.counters = counters;
+            checkRep();
+        }
+        private void checkRep(){
+            assert counters.length == FIRST_COST + Cost.values().length;
+        }
+        
+        /** Returns the number of recorded calls of operation */
+        public long calls(Operation operation) {
+            return counters[operation.ordinal() * STRIDE + CALLS];
+        }
+        /** Returns the total latency of the recorded calls of operation, in nanoseconds */
+        public long totalNanos(Operation operation) {
+            return counters[operation.ordinal() * STRIDE + NANOS];
+        }
+        /** Returns the sum of the result sizes of the recorded calls of operation */
+        public long totalResultSize(Operation operation) {
+            return counters[operation.ordinal() * STRIDE + RESULT_SIZES];
+        }
+        /**
+         * Returns the latency histogram of operation
+         * 
+         * @return new array of LATENCY_BUCKETS counts, see {@link GraphMetrics#bucketOf(long)}
+         */
+        public long[] latencyHistogram(Operation operation) {
+            final int from = operation.ordinal() * STRIDE + FIRST_BUCKET;
+            return Arrays.copyOfRange(counters, from, from + LATENCY_BUCKETS);
+        }
+        /** Returns the recorded amount of cost */
+        public long cost(Cost cost) {
+            return counters[FIRST_COST + cost.ordinal()];
+        }
+        
+        /**
+         * Returns one line per operation and per cost, like:
+         *      SET: calls=3 nanos=1200 resultSize=0
+         *      ELEMENTS_SCANNED: 12
+         */
+        @Override public String toString(){
+            final StringBuilder rep = new StringBuilder();
+            for ( Operation operation : Operation.values() ) {
+                rep.append(operation).append(": calls=").append(calls(operation))
+                   .append(" nanos=").append(totalNanos(operation))
+                   .append(" resultSize=").append(totalResultSize(operation)).append('\n');
+            }
+            for ( Cost cost : Cost.values() ) {
+                rep.append(cost).append(": ").append(cost(cost)).append('\n');
+            }
+            return rep.substring(0, rep.length() - 1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One partition of a ShardedGraph: a set of vertices together with their
+ * outgoing and incoming edges. An edge s -> t is stored twice, as a target
+ * of s in the shard of s and as a source of t in the shard of t.
+ * 
+ * <p>This interface is internal to the rep of ShardedGraph.
+ */
+interface GraphShard<L> extends AutoCloseable {
+    
+    /**
+     * The edges of a vertex removed from a shard.
+     */
+    static final class Neighbours<L> implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        final Map<L, Integer> targets;
+        final Map<L, Integer> sources;
+        
+        Neighbours(Map<L, Integer> targets, Map<L, Integer> sources){
+            this.targets = targets;
+            this.sources = sources;
+        }
+    }
+    
+    /** Adds a vertex to this shard, returning true if it was not there */
+    boolean add(L vertex);
+    
+    /**
+     * Sets the weight of the edge from source to target on the side of
+     * source, adding source if weight > 0 and it does not exist
+     * 
+     * @return the previous weight, zero if there was no edge
+     */
+    int setTarget(L source, L target, int weight);
+    
+    /**
+     * Sets the weight of the edge from source to target on the side of
+     * target, adding target if weight > 0 and it does not exist
+     */
+    void setSource(L target, L source, int weight);
+    
+    /**
+     * Removes a vertex of this shard and its edges on its side
+     * 
+     * @return the edges of the removed vertex, null if it did not exist
+     */
+    Neighbours<L> removeVertex(L vertex);
+    
+    /**
+     * Removes every edge from vertex to one of targetsOf, on their side,
+     * and every edge from one of sourcesOf to vertex, on their side
+     */
+    void unlink(L vertex, Collection<L> targetsOf, Collection<L> sourcesOf);
+    
+    /** Returns the vertices of this shard */
+    Set<L> vertices();
+    
+    /** Returns the sources of a vertex of this shard, empty if it does not exist */
+    Map<L, Integer> sources(L target);
+    
+    /** Returns the targets of a vertex of this shard, empty if it does not exist */
+    Map<L, Integer> targets(L source);
+    
+    /** Returns the targets of every vertex of this shard that has any */
+    Map<L, Map<L, Integer>> allTargets();
+    
+    /** Releases the resources of this shard */
+    @Override void close();
+}
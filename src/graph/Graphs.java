@@ -0,0 +1,244 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Static factory and helper methods for {@link Graph}.
+ * 
+ * <p>The Graph interface may not gain methods. Optional capabilities are
+ * therefore companion interfaces that extend it: {@link CountingGraph},
+ * {@link BulkLoadableGraph}, {@link DegreeGraph} and {@link ObservableGraph},
+ * each implemented by the graphs of this package that support it. The
+ * factories for the implementations other than the one behind
+ * {@link Graph#empty()} live here, along with operations that use a
+ * companion interface when a graph implements it and fall back on the
+ * methods of Graph otherwise.
+ * 
+ * <p>Except for ConcreteVerticesGraph, the graphs of this package share the
+ * toString() format of ConcreteEdgesGraph: one line per edge,
+ * <pre>
+ *      source -> target: weight
+ * </pre>
+ * or "Empty Graph" if the graph has no edges. Each class documents the
+ * order of its lines.
+ */
+public final class Graphs {
+    
+    /**
+     * System property that, when set, names the implementation returned by
+     * {@link Graph#empty()} and by {@link #create(GraphHints)} for hints
+     * that are not concurrent: one of ConcreteEdgesGraph,
+     * ConcreteVerticesGraph, IntIndexedGraph or ConcurrentGraph.
+     */
+    public static final String IMPLEMENTATION_PROPERTY = "graph.implementation";
+    
+    /** Expected sizes from which a graph is large enough for IntIndexedGraph */
+    private static final int LARGE_VERTICES = 10_000;
+    private static final long LARGE_EDGES = 100_000;
+    
+    private Graphs(){
+        throw new AssertionError("not instantiable");
+    }
+    
+    /**
+     * Create an empty graph of the implementation that best fits the given
+     * hints:
+     *   - ConcurrentGraph if threads will share it;
+     *   - otherwise the implementation named by the
+     *     {@link #IMPLEMENTATION_PROPERTY} system property, if it is set;
+     *   - otherwise IntIndexedGraph if it will be built once, be mostly
+     *     written, or be large, since it keeps edges in primitive arrays;
+     *   - otherwise ConcreteEdgesGraph, whose sources() and targets() are
+     *     live views that cost nothing to make.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param hints how the graph will be used
+     * @return a new empty weighted directed graph
+     * @throws IllegalArgumentException if the system property names an
+     *         unknown implementation
+     */
+    public static <L> Graph<L> create(GraphHints hints) {
+        if ( hints.isConcurrent() ) {
+            return new ConcurrentGraph<>();
+        }
+        final String implementation = System.getProperty(IMPLEMENTATION_PROPERTY);
+        if ( implementation != null ) {
+            return byName(implementation);
+        }
+        final boolean large = hints.expectedVertices() >= LARGE_VERTICES
+                || hints.expectedEdges() >= LARGE_EDGES;
+        if ( hints.isBuildOnce() || hints.access() == GraphHints.Access.WRITE_HEAVY || large ) {
+            return new IntIndexedGraph<>();
+        }
+        return new ConcreteEdgesGraph<>();
+    }
+    
+    /** Returns a new empty graph of the implementation with the given simple class name */
+    private static <L> Graph<L> byName(String implementation) {
+        switch ( implementation ) {
+        case "ConcreteEdgesGraph":    return new ConcreteEdgesGraph<>();
+        case "ConcreteVerticesGraph": return new ConcreteVerticesGraph<>();
+        case "IntIndexedGraph":       return new IntIndexedGraph<>();
+        case "ConcurrentGraph":       return new ConcurrentGraph<>();
+        default:
+            throw new IllegalArgumentException(
+                    IMPLEMENTATION_PROPERTY + " names an unknown implementation: " + implementation);
+        }
+    }
+    
+    /**
+     * Create an empty graph that numbers its vertices and keeps its edges in
+     * primitive arrays; see {@link IntIndexedGraph}.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @return a new empty weighted directed graph
+     */
+    public static <L> Graph<L> intIndexed() {
+        return new IntIndexedGraph<>();
+    }
+    
+    /**
+     * Create an empty graph of strings that keeps its edges in direct
+     * (off-heap) memory; see {@link OffHeapGraph}.
+     * 
+     * @return a new empty weighted directed graph
+     */
+    public static Graph<String> offHeap() {
+        return new OffHeapGraph();
+    }
+    
+    /**
+     * Create an empty graph that may be shared by threads; see
+     * {@link ConcurrentGraph}.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @return a new empty thread-safe weighted directed graph
+     */
+    public static <L> Graph<L> concurrent() {
+        return new ConcurrentGraph<>();
+    }
+    
+    /**
+     * Wrap a graph so that its operations are recorded; see
+     * {@link InstrumentedGraph}.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to wrap
+     * @param metrics recorder for the operations of the wrapper
+     * @return a graph that forwards to graph and records in metrics
+     */
+    public static <L> InstrumentedGraph<L> instrumented(Graph<L> graph, GraphMetrics metrics) {
+        return new InstrumentedGraph<>(graph, metrics);
+    }
+    
+    /**
+     * Wrap a graph so that its heaviest edges can be found without scanning;
+     * see {@link HeaviestEdgesGraph}.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to wrap
+     * @return a graph that forwards to graph and ranks its edges by weight
+     */
+    public static <L> HeaviestEdgesGraph<L> heaviestEdges(Graph<L> graph) {
+        return new HeaviestEdgesGraph<>(graph);
+    }
+    
+    /**
+     * Wrap a graph so that targets can be drawn in proportion to edge
+     * weight in constant time; see {@link SamplingGraph}.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to wrap
+     * @return a graph that forwards to graph and samples its targets
+     */
+    public static <L> SamplingGraph<L> sampling(Graph<L> graph) {
+        return new SamplingGraph<>(graph);
+    }
+    
+    /**
+     * Add to the weight of a directed edge of any graph, adding the edge with
+     * weight delta if it does not exist. Uses
+     * {@link CountingGraph#increment(Object, Object, int)} when graph
+     * supports it, and otherwise reads the weight with targets() and
+     * writes it back with set().
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to modify
+     * @param source label of the source vertex
+     * @param target label of the target vertex
+     * @param delta amount to add to the weight, requires delta > 0
+     * @return the new weight of the edge
+     * @throws ArithmeticException if the new weight overflows an int
+     */
+    public static <L> int increment(Graph<L> graph, L source, L target, int delta) {
+        if ( graph instanceof CountingGraph ) {
+            return ((CountingGraph<L>) graph).increment(source, target, delta);
+        }
+        final Integer previousWeight = graph.targets(source).get(target);
+        final int newWeight = previousWeight == null ? delta : Math.addExact(previousWeight, delta);
+        graph.set(source, target, newWeight);
+        return newWeight;
+    }
+    
+    /**
+     * Returns the sum of the weights of the edges out of a vertex. Uses
+     * {@link DegreeGraph#outWeight(Object)} when graph supports it, and
+     * otherwise sums the weights of targets().
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to query
+     * @param vertex label of the vertex
+     * @return sum of the weights out of vertex, zero if it is not in graph
+     */
+    public static <L> long outWeight(Graph<L> graph, L vertex) {
+        if ( graph instanceof DegreeGraph ) {
+            return ((DegreeGraph<L>) graph).outWeight(vertex);
+        }
+        long sum = 0;
+        for ( int weight : graph.targets(vertex).values() ) {
+            sum += weight;
+        }
+        return sum;
+    }
+    
+    /**
+     * Add or change many weighted directed edges of a graph, with the same
+     * effect as calling set() for each edge in order. Uses
+     * {@link BulkLoadableGraph#setAll(Iterator)} when graph supports it.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to modify
+     * @param edges edges to set; consumed by this call
+     */
+    public static <L> void load(Graph<L> graph, Stream<? extends Edge<L>> edges) {
+        final Iterator<? extends Edge<L>> iterator = edges.iterator();
+        if ( graph instanceof BulkLoadableGraph ) {
+            ((BulkLoadableGraph<L>) graph).setAll(iterator);
+            return;
+        }
+        while ( iterator.hasNext() ) {
+            final Edge<L> edge = iterator.next();
+            graph.set(edge.getSource(), edge.getTarget(), edge.getWeight());
+        }
+    }
+    
+    /**
+     * Make an immutable copy of a graph in compressed sparse row layout;
+     * see {@link FrozenGraph}. Later changes to graph do not affect the copy.
+     * 
+     * @param <L> type of vertex labels in the graph, must be immutable
+     * @param graph graph to copy
+     * @return a read-only graph with the same vertices and edges as graph,
+     *         graph itself if it is already frozen
+     */
+    public static <L> FrozenGraph<L> freeze(Graph<L> graph) {
+        if ( graph instanceof FrozenGraph ) {
+            return (FrozenGraph<L>) graph;
+        }
+        return new FrozenGraph<>(graph);
+    }
+}
@@ -0,0 +1,209 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A Graph that forwards every operation to another graph and keeps its
+ * edges ranked by weight, so that the heaviest edges of the whole graph,
+ * or out of one vertex, are found without scanning.
+ * 
+ * <p>Edges are kept in a sorted set for the whole graph and one per source
+ * vertex, updated by set() and remove(). heaviest(k) and
+ * heaviestTargets(source, k) take O(log n + k) time. Every edge is ranked,
+ * not only the current top k, because removing a heavy edge must be able
+ * to promote the next one. Edges of equal weight rank oldest first.
+ * 
+ * <p>Only the operations of Graph keep the ranking up to date: changes
+ * made to the wrapped graph directly are not seen. A HeaviestEdgesGraph is
+ * not thread-safe.
+ */
+public final class HeaviestEdgesGraph<L> implements Graph<L> {
+    
+    private final Graph<L> graph;
+    private final NavigableSet<Ranked<L>> ranking = new TreeSet<>();
+    private final Map<L, Row<L>> rows = new HashMap<>();
+    private long nextSequence = 0;
+    
+    // Abstraction function:
+    //   represents the same graph as graph, whose edges ranked heaviest
+    //   first are the edges of ranking in order
+    // Representation invariant:
+    //   for every edge s -> t of weight w added through this wrapper,
+    //     rows.get(s).byTarget.get(t) is a Ranked r with weight w, and r is
+    //     in both ranking and rows.get(s).byWeight
+    //   ranking has no other elements, and no row is empty
+    //   every sequence number is < nextSequence, and they are distinct
+    // Safety from rep exposure:
+    //   All fields are private and final except the counter nextSequence;
+    //   graph is shared with the client on purpose, and results of graph
+    //   are returned unchanged
+    //   queries return new unmodifiable lists of immutable Edges
+    
+    /**
+     * Wrap a graph, ranking the edges it already has.
+     * 
+     * @param graph graph to forward operations to
+     */
+    public HeaviestEdgesGraph(Graph<L> graph){
+        this.graph = graph;
+        for ( L source : graph.vertices() ) {
+            for ( Map.Entry<L, Integer> target : graph.targets(source).entrySet() ) {
+                rank(source, target.getKey(), target.getValue());
+            }
+        }
+        checkRep();
+    }
+    private void checkRep(){
+        assert graph != null;
+        assert ranking.size() >= rows.size();
+    }
+    
+    //helper code
+    private void rank(L source, L target, int weight){
+        final Ranked<L> ranked = new Ranked<>(new Edge<>(source, target, weight), nextSequence++);
+        final Row<L> row = rows.computeIfAbsent(source, s -> new Row<>());
+        row.byTarget.put(target, ranked);
+        row.byWeight.add(ranked);
+        ranking.add(ranked);
+    }
+    private void unrank(L source, L target){
+        final Row<L> row = rows.get(source);
+        if ( row == null ) {
+            return;
+        }
+        final Ranked<L> ranked = row.byTarget.remove(target);
+        if ( ranked == null ) {
+            return;
+        }
+        row.byWeight.remove(ranked);
+        ranking.remove(ranked);
+        if ( row.byTarget.isEmpty() ) {
+            rows.remove(source);
+        }
+    }
+    private static <L> List<Edge<L>> first(Iterable<Ranked<L>> ranked, int k){
+        final List<Edge<L>> edges = new ArrayList<>();
+        final Iterator<Ranked<L>> iterator = ranked.iterator();
+        while ( edges.size() < k && iterator.hasNext() ) {
+            edges.add(iterator.next().edge);
+        }
+        return Collections.unmodifiableList(edges);
+    }
+    //end of helper code
+    
+    /**
+     * Returns the heaviest edges of this graph.
+     * 
+     * @param k maximum number of edges to return, requires k >= 0
+     * @return the min(k, number of edges) heaviest edges, heaviest first
+     */
+    public List<Edge<L>> heaviest(int k) {
+        assert k >= 0;
+        return first(ranking, k);
+    }
+    
+    /**
+     * Returns the heaviest edges out of a vertex.
+     * 
+     * @param source label of the source vertex
+     * @param k maximum number of edges to return, requires k >= 0
+     * @return the min(k, number of targets of source) heaviest edges from
+     *         source, heaviest first
+     */
+    public List<Edge<L>> heaviestTargets(L source, int k) {
+        assert k >= 0;
+        final Row<L> row = rows.get(source);
+        return row == null ? Collections.emptyList() : first(row.byWeight, k);
+    }
+    
+    @Override public boolean add(L vertex) {
+        return graph.add(vertex);
+    }
+    
+    @Override public int set(L source, L target, int weight) {
+        final int previousWeight = graph.set(source, target, weight);
+        if ( previousWeight != weight ) {
+            unrank(source, target);
+            if ( weight > 0 ) {
+                rank(source, target, weight);
+            }
+        }
+        checkRep();
+        return previousWeight;
+    }
+    
+    @Override public boolean remove(L vertex) {
+        final List<L> sources = new ArrayList<>(graph.sources(vertex).keySet());
+        if ( !graph.remove(vertex) ) {
+            return false;
+        }
+        for ( L source : sources ) {
+            unrank(source, vertex);
+        }
+        final Row<L> row = rows.remove(vertex);
+        if ( row != null ) {
+            ranking.removeAll(row.byWeight);
+        }
+        checkRep();
+        return true;
+    }
+    
+    @Override public Set<L> vertices() {
+        return graph.vertices();
+    }
+    
+    @Override public Map<L, Integer> sources(L target) {
+        return graph.sources(target);
+    }
+    
+    @Override public Map<L, Integer> targets(L source) {
+        return graph.targets(source);
+    }
+    
+    /** Returns the string representation of the wrapped graph */
+    @Override public String toString(){
+        return graph.toString();
+    }
+    
+    /**
+     * An edge with the sequence number that breaks ties between equal
+     * weights; orders heaviest first, then oldest first.
+     * 
+     * This class is internal to the rep of HeaviestEdgesGraph.
+     */
+    private static final class Ranked<L> implements Comparable<Ranked<L>> {
+        final Edge<L> edge;
+        final long sequence;
+        
+        Ranked(Edge<L> edge, long sequence){
+            this.edge = edge;
+            this.sequence = sequence;
+        }
+        
+        @Override public int compareTo(Ranked<L> that){
+            final int byWeight = Integer.compare(that.edge.getWeight(), this.edge.getWeight());
+            return byWeight != 0 ? byWeight : Long.compare(this.sequence, that.sequence);
+        }
+    }
+    
+    /**
+     * The ranked edges out of one vertex, by target and by weight.
+     * 
+     * This class is internal to the rep of HeaviestEdgesGraph.
+     */
+    private static final class Row<L> {
+        final Map<L, Ranked<L>> byTarget = new HashMap<>(4);
+        final NavigableSet<Ranked<L>> byWeight = new TreeSet<>();
+    }
+}
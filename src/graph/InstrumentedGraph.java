@@ -0,0 +1,131 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Graph that forwards every operation to another graph and records its
+ * latency and result size in a {@link GraphMetrics}.
+ * 
+ * <p>When the wrapped graph is a ConcreteEdgesGraph or a
+ * ConcreteVerticesGraph, it also records its internal costs in the same
+ * metrics, until {@link #close()}. Only the operations of Graph are forwarded, so
+ * {@link Graphs#increment(Graph, Object, Object, int)} and
+ * {@link Graphs#load(Graph, java.util.stream.Stream)} on an instrumented
+ * graph fall back to, and record, targets() and set().
+ * 
+ * <p>An InstrumentedGraph is as thread-safe as the graph it wraps.
+ */
+public final class InstrumentedGraph<L> implements Graph<L>, AutoCloseable {
+    
+    private final Graph<L> graph;
+    private final GraphMetrics metrics;
+    
+    // Abstraction function:
+    //   represents the same graph as graph
+    // Representation invariant:
+    //   graph and metrics are not null
+    // Safety from rep exposure:
+    //   All fields are private and final; graph and metrics are shared with
+    //   the client on purpose, and results of graph are returned unchanged
+    
+    /**
+     * Wrap a graph.
+     * 
+     * <p>If graph is a ConcreteEdgesGraph or a ConcreteVerticesGraph, this
+     * makes graph itself record its internal costs in metrics, instead of in
+     * any recorder it had before. That lasts until this wrapper is closed,
+     * so the costs of operations made on graph directly, or through another
+     * wrapper, are recorded in metrics too.
+     * 
+     * @param graph graph to forward operations to; later changes made to it
+     *              directly are visible through the wrapper, but their
+     *              latencies are not recorded
+     * @param metrics recorder for the operations of this wrapper
+     */
+    public InstrumentedGraph(Graph<L> graph, GraphMetrics metrics){
+        this.graph = graph;
+        this.metrics = metrics;
+        if ( graph instanceof ConcreteEdgesGraph ) {
+            ((ConcreteEdgesGraph<L>) graph).recordCostsTo(metrics);
+        } else if ( graph instanceof ConcreteVerticesGraph ) {
+            ((ConcreteVerticesGraph<L>) graph).recordCostsTo(metrics);
+        }
+        checkRep();
+    }
+    private void checkRep(){
+        assert graph != null;
+        assert metrics != null;
+    }
+    
+    /** Returns the recorder of this graph */
+    public GraphMetrics metrics() {
+        return metrics;
+    }
+    
+    /**
+     * Stops the wrapped graph from recording its internal costs in metrics,
+     * unless a later wrapper has already pointed it elsewhere. The wrapper
+     * keeps forwarding operations and recording their latencies.
+     */
+    @Override public void close() {
+        if ( graph instanceof ConcreteEdgesGraph ) {
+            ((ConcreteEdgesGraph<L>) graph).stopRecordingCostsTo(metrics);
+        } else if ( graph instanceof ConcreteVerticesGraph ) {
+            ((ConcreteVerticesGraph<L>) graph).stopRecordingCostsTo(metrics);
+        }
+    }
+    
+    @Override public boolean add(L vertex) {
+        final long start = System.nanoTime();
+        final boolean added = graph.add(vertex);
+        metrics.record(GraphMetrics.Operation.ADD, System.nanoTime() - start, 0);
+        return added;
+    }
+    
+    @Override public int set(L source, L target, int weight) {
+        final long start = System.nanoTime();
+        final int previousWeight = graph.set(source, target, weight);
+        metrics.record(GraphMetrics.Operation.SET, System.nanoTime() - start, 0);
+        return previousWeight;
+    }
+    
+    @Override public boolean remove(L vertex) {
+        final long start = System.nanoTime();
+        final boolean removed = graph.remove(vertex);
+        metrics.record(GraphMetrics.Operation.REMOVE, System.nanoTime() - start, 0);
+        return removed;
+    }
+    
+    @Override public Set<L> vertices() {
+        final long start = System.nanoTime();
+        final Set<L> vertices = graph.vertices();
+        final long nanos = System.nanoTime() - start;
+        metrics.record(GraphMetrics.Operation.VERTICES, nanos, vertices.size());
+        return vertices;
+    }
+    
+    @Override public Map<L, Integer> sources(L target) {
+        final long start = System.nanoTime();
+        final Map<L, Integer> sources = graph.sources(target);
+        final long nanos = System.nanoTime() - start;
+        metrics.record(GraphMetrics.Operation.SOURCES, nanos, sources.size());
+        return sources;
+    }
+    
+    @Override public Map<L, Integer> targets(L source) {
+        final long start = System.nanoTime();
+        final Map<L, Integer> targets = graph.targets(source);
+        final long nanos = System.nanoTime() - start;
+        metrics.record(GraphMetrics.Operation.TARGETS, nanos, targets.size());
+        return targets;
+    }
+    
+    /** Returns the string representation of the wrapped graph */
+    @Override public String toString(){
+        return graph.toString();
+    }
+}
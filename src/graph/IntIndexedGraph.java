@@ -0,0 +1,427 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An implementation of Graph that numbers its vertices.
+ *
+ * <p>Each label is given a dense int id the first time it is seen, and the
+ * edges of a vertex are kept in growable primitive arrays of neighbour ids
+ * and weights, so an edge costs two ints in each direction instead of an
+ * object. Ids of removed vertices are reused.
+ * Finding an edge scans the targets of its source, so set() takes time
+ * proportional to the degree of the vertices involved.
+ */
+public class IntIndexedGraph<L> implements CountingGraph<L>, BulkLoadableGraph<L> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<L, Integer> ids = new HashMap<>();
+    private final Set<L> vertexLabels = Collections.unmodifiableSet(ids.keySet());
+    private Object[] labels = new Object[INITIAL_CAPACITY];
+    private final Adjacency outgoing = new Adjacency(INITIAL_CAPACITY);
+    private final Adjacency incoming = new Adjacency(INITIAL_CAPACITY);
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int numberOfFreeIds = 0;
+    private int nextId = 0;
+    private int numberOfEdges = 0;
+
+    // Abstraction function:
+    //   represents the graph whose vertices are the keys of ids, and which
+    //   has an edge from labels[s] to labels[t] with weight w for every
+    //   position i such that outgoing.neighbours[s][i] == t and
+    //   outgoing.weights[s][i] == w
+    // Representation invariant:
+    //   ids.get(label) == id iff labels[id].equals(label)
+    //   0 <= id < nextId for every id in ids, and the ids below nextId that
+    //     are not in ids are exactly freeIds[0..numberOfFreeIds)
+    //   t appears once in outgoing's list for s with weight w iff
+    //     s appears once in incoming's list for t with weight w
+    //   all weights are > 0
+    //   numberOfEdges is the total length of the outgoing lists
+    // Safety from rep exposure:
+    //   All fields are private; arrays are never returned
+    //   vertexLabels is an unmodifiable view of ids.keySet()
+    //   sources() and targets() return fresh maps
+
+    public IntIndexedGraph(){
+    }
+    private void checkRep(){
+        assert ids.size() + numberOfFreeIds == nextId;
+        assert numberOfEdges >= 0;
+        assert (long) numberOfEdges <= (long) ids.size() * ids.size();
+    }
+    //helper code
+    /**
+     * Returns the id of a label, giving it a new id if it has none
+     *
+     * @param label the label of a vertex
+     * @return id such that labels[id].equals(label)
+     */
+    private int idFor(final L label){
+        final Integer existing = ids.get(label);
+        if ( existing != null ) {
+            return existing;
+        }
+        final int id;
+        if ( numberOfFreeIds > 0 ) {
+            id = freeIds[--numberOfFreeIds];
+        } else {
+            id = nextId++;
+            if ( id == labels.length ) {
+                final int capacity = labels.length * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                outgoing.grow(capacity);
+                incoming.grow(capacity);
+            }
+        }
+        labels[id] = label;
+        ids.put(label, id);
+        return id;
+    }
+    @SuppressWarnings("unchecked")
+    private L labelOf(final int id){
+        return (L) labels[id];
+    }
+    /** Copies one adjacency list into a map from neighbour label to weight */
+    private Map<L, Integer> weightsOf(final Adjacency adjacency, final L label){
+        final Integer id = ids.get(label);
+        if ( id == null || adjacency.counts[id] == 0 ) {
+            return new HashMap<>();
+        }
+        final int count = adjacency.counts[id];
+        final int[] neighbours = adjacency.neighbours[id];
+        final int[] weights = adjacency.weights[id];
+        final Map<L, Integer> result = new HashMap<>(count * 4 / 3 + 1);
+        for ( int i = 0; i < count; i++ ) {
+            result.put(labelOf(neighbours[i]), weights[i]);
+        }
+        return result;
+    }
+    //end of helper code
+
+    @Override public boolean add(L vertex) {
+        if ( ids.containsKey(vertex) ) {
+            return false;
+        }
+        idFor(vertex);
+        checkRep();
+        return true;
+    }
+
+    @Override public int set(L source, L target, int weight) {
+        final int previousWeight = setEdge(source, target, weight);
+        checkRep();
+        return previousWeight;
+    }
+
+    /** Sets all edges, checking the rep once at the end */
+    @Override public void setAll(Iterator<? extends Edge<L>> edges) {
+        while ( edges.hasNext() ) {
+            final Edge<L> edge = edges.next();
+            setEdge(edge.getSource(), edge.getTarget(), edge.getWeight());
+        }
+        checkRep();
+    }
+
+    /** Sets all edges, checking the rep once at the end */
+    @Override public void setAll(L[] sources, L[] targets, int[] weights) {
+        assert sources.length == targets.length && sources.length == weights.length;
+
+        //intern the vertices of new edges and count how many entries each
+        //list may gain, so every list grows at most once
+        final int[] sourceIds = new int[sources.length];
+        final int[] targetIds = new int[sources.length];
+        for ( int i = 0; i < sources.length; i++ ) {
+            assert weights[i] >= 0;
+            if ( weights[i] > 0 ) {
+                sourceIds[i] = idFor(sources[i]);
+                targetIds[i] = idFor(targets[i]);
+            }
+        }
+        final int[] outgoingAdded = new int[nextId];
+        final int[] incomingAdded = new int[nextId];
+        for ( int i = 0; i < sources.length; i++ ) {
+            if ( weights[i] > 0 ) {
+                outgoingAdded[sourceIds[i]]++;
+                incomingAdded[targetIds[i]]++;
+            }
+        }
+        for ( int id = 0; id < nextId; id++ ) {
+            outgoing.reserve(id, outgoingAdded[id]);
+            incoming.reserve(id, incomingAdded[id]);
+        }
+
+        for ( int i = 0; i < sources.length; i++ ) {
+            if ( weights[i] > 0 ) {
+                putEdge(sourceIds[i], targetIds[i], weights[i]);
+            } else {
+                setEdge(sources[i], targets[i], 0);
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Adds, changes or removes an edge as set() does, without checking the rep
+     *
+     * @return the previous weight of the edge, zero if there was none
+     */
+    private int setEdge(final L source, final L target, final int weight){
+        assert weight >= 0;
+
+        if ( weight == 0 ) {
+            final Integer sourceId = ids.get(source);
+            final Integer targetId = ids.get(target);
+            if ( sourceId == null || targetId == null ) {
+                return 0;
+            }
+            final int previousWeight = outgoing.remove(sourceId, targetId);
+            if ( previousWeight > 0 ) {
+                incoming.remove(targetId, sourceId);
+                numberOfEdges--;
+            }
+            return previousWeight;
+        }
+        return putEdge(idFor(source), idFor(target), weight);
+    }
+
+    /**
+     * Adds an edge or changes its weight, without checking the rep
+     *
+     * @param weight requires weight > 0
+     * @return the previous weight of the edge, zero if there was none
+     */
+    private int putEdge(final int sourceId, final int targetId, final int weight){
+        final int previousWeight = outgoing.put(sourceId, targetId, weight);
+        incoming.put(targetId, sourceId, weight);
+        if ( previousWeight == 0 ) {
+            numberOfEdges++;
+        }
+        return previousWeight;
+    }
+
+    @Override public int increment(L source, L target, int delta) {
+        assert delta > 0;
+
+        final int sourceId = idFor(source);
+        final int targetId = idFor(target);
+        final int i = outgoing.indexOf(sourceId, targetId);
+        if ( i < 0 ) {
+            outgoing.append(sourceId, targetId, delta);
+            incoming.append(targetId, sourceId, delta);
+            numberOfEdges++;
+            checkRep();
+            return delta;
+        }
+        final int newWeight = Math.addExact(outgoing.weights[sourceId][i], delta);
+        outgoing.weights[sourceId][i] = newWeight;
+        incoming.put(targetId, sourceId, newWeight);
+        checkRep();
+        return newWeight;
+    }
+
+    @Override public boolean remove(L vertex) {
+        final Integer boxedId = ids.remove(vertex);
+        if ( boxedId == null ) {
+            return false;
+        }
+        final int id = boxedId;
+        int selfLoops = 0;
+        for ( int i = 0; i < outgoing.counts[id]; i++ ) {
+            final int target = outgoing.neighbours[id][i];
+            if ( target == id ) {
+                selfLoops++;
+            } else {
+                incoming.remove(target, id);
+            }
+        }
+        for ( int i = 0; i < incoming.counts[id]; i++ ) {
+            final int source = incoming.neighbours[id][i];
+            if ( source != id ) {
+                outgoing.remove(source, id);
+            }
+        }
+        numberOfEdges -= outgoing.counts[id] + incoming.counts[id] - selfLoops;
+        outgoing.clear(id);
+        incoming.clear(id);
+        labels[id] = null;
+        if ( numberOfFreeIds == freeIds.length ) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[numberOfFreeIds++] = id;
+        checkRep();
+        return true;
+    }
+
+    /** Returns a live read-only view of the labels of this graph's vertices */
+    @Override public Set<L> vertices() {
+        return vertexLabels;
+    }
+
+    /** Returns a new map of a target's sources */
+    @Override public Map<L, Integer> sources(L target) {
+        return weightsOf(incoming, target);
+    }
+
+    /** Returns a new map of a source's targets */
+    @Override public Map<L, Integer> targets(L source) {
+        return weightsOf(outgoing, source);
+    }
+
+    /**
+     * Returns the string representation of this graph, in the format
+     * described in {@link Graphs}. Edges are grouped by source, in order
+     * of vertex id, and the targets of a source come in the order their
+     * edges were added, except that removals move the last edge into the gap.
+     *
+     * @return string rep of this graph containing all its edges,
+     *         "Empty Graph" if graph has no edges
+     */
+    @Override public String toString(){
+        if ( numberOfEdges == 0 ) {
+            return "Empty Graph";
+        }
+        final StringBuilder rep = new StringBuilder();
+        for ( int source = 0; source < nextId; source++ ) {
+            for ( int i = 0; i < outgoing.counts[source]; i++ ) {
+                if ( rep.length() > 0 ) {
+                    rep.append('\n');
+                }
+                rep.append(labelOf(source)).append(" -> ")
+                   .append(labelOf(outgoing.neighbours[source][i])).append(": ")
+                   .append(outgoing.weights[source][i]);
+            }
+        }
+        return rep.toString();
+    }
+
+    /**
+     * Mutable adjacency lists of int ids, one growable pair of
+     * neighbour/weight arrays per vertex id.
+     *
+     * This class is internal to the rep of IntIndexedGraph.
+     */
+    private static final class Adjacency {
+        private static final int[] EMPTY = new int[0];
+
+        private int[][] neighbours;
+        private int[][] weights;
+        private int[] counts;
+
+        // Abstraction function:
+        //   vertex v is adjacent to neighbours[v][i] with weight weights[v][i]
+        //   for 0 <= i < counts[v]
+        // Representation invariant:
+        //   neighbours[v].length == weights[v].length >= counts[v]
+        //   neighbours[v][0..counts[v]) are distinct
+        //   weights[v][0..counts[v]) are all > 0
+
+        Adjacency(final int capacity){
+            neighbours = new int[capacity][];
+            weights = new int[capacity][];
+            counts = new int[capacity];
+            Arrays.fill(neighbours, EMPTY);
+            Arrays.fill(weights, EMPTY);
+        }
+
+        /** Makes room for vertex ids below capacity */
+        void grow(final int capacity){
+            final int oldCapacity = counts.length;
+            neighbours = Arrays.copyOf(neighbours, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            Arrays.fill(neighbours, oldCapacity, capacity, EMPTY);
+            Arrays.fill(weights, oldCapacity, capacity, EMPTY);
+        }
+
+        /** Makes room for the list of vertex to gain added entries */
+        void reserve(final int vertex, final int added){
+            final int needed = counts[vertex] + added;
+            if ( added > 0 && needed > neighbours[vertex].length ) {
+                final int capacity = Math.max(4, needed);
+                neighbours[vertex] = Arrays.copyOf(neighbours[vertex], capacity);
+                weights[vertex] = Arrays.copyOf(weights[vertex], capacity);
+            }
+        }
+
+        /** Returns the position of neighbour in the list of vertex, or -1 */
+        int indexOf(final int vertex, final int neighbour){
+            final int[] list = neighbours[vertex];
+            for ( int i = 0, n = counts[vertex]; i < n; i++ ) {
+                if ( list[i] == neighbour ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds or updates the entry for neighbour in the list of vertex
+         *
+         * @param weight requires weight > 0
+         * @return the previous weight, zero if there was no entry
+         */
+        int put(final int vertex, final int neighbour, final int weight){
+            final int i = indexOf(vertex, neighbour);
+            if ( i >= 0 ) {
+                final int previousWeight = weights[vertex][i];
+                weights[vertex][i] = weight;
+                return previousWeight;
+            }
+            append(vertex, neighbour, weight);
+            return 0;
+        }
+
+        /**
+         * Appends an entry for neighbour to the list of vertex
+         *
+         * @param neighbour requires no entry for neighbour in the list
+         * @param weight requires weight > 0
+         */
+        void append(final int vertex, final int neighbour, final int weight){
+            final int count = counts[vertex];
+            if ( count == neighbours[vertex].length ) {
+                final int capacity = Math.max(4, count * 2);
+                neighbours[vertex] = Arrays.copyOf(neighbours[vertex], capacity);
+                weights[vertex] = Arrays.copyOf(weights[vertex], capacity);
+            }
+            neighbours[vertex][count] = neighbour;
+            weights[vertex][count] = weight;
+            counts[vertex] = count + 1;
+        }
+
+        /**
+         * Removes the entry for neighbour from the list of vertex by moving
+         * the last entry into its place
+         *
+         * @return the previous weight, zero if there was no entry
+         */
+        int remove(final int vertex, final int neighbour){
+            final int i = indexOf(vertex, neighbour);
+            if ( i < 0 ) {
+                return 0;
+            }
+            final int previousWeight = weights[vertex][i];
+            final int last = --counts[vertex];
+            neighbours[vertex][i] = neighbours[vertex][last];
+            weights[vertex][i] = weights[vertex][last];
+            return previousWeight;
+        }
+
+        /** Drops the whole list of vertex */
+        void clear(final int vertex){
+            neighbours[vertex] = EMPTY;
+            weights[vertex] = EMPTY;
+            counts[vertex] = 0;
+        }
+    }
+}
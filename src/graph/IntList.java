@@ -0,0 +1,78 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used as a stack or a work list by the
+ * graph algorithms of this package.
+ *
+ * <p>This class is internal to the algorithms of this package.
+ */
+final class IntList {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] elements;
+    private int size = 0;
+
+    // Abstraction function:
+    //   represents the list elements[0..size)
+    // Representation invariant:
+    //   0 <= size <= elements.length
+    // Safety from rep exposure:
+    //   All fields are private; elements is never returned
+
+    IntList(){
+        this(MIN_CAPACITY);
+    }
+    /** @param capacity number of elements to make room for, requires capacity >= 0 */
+    IntList(final int capacity){
+        elements = new int[Math.max(capacity, MIN_CAPACITY)];
+    }
+
+    /** Returns the number of elements */
+    int size(){
+        return size;
+    }
+    /** Returns true if there are no elements */
+    boolean isEmpty(){
+        return size == 0;
+    }
+    /** Returns the element at an index, requires 0 <= index < size() */
+    int get(final int index){
+        assert index < size;
+        return elements[index];
+    }
+    /** Appends an element */
+    void add(final int element){
+        if ( size == elements.length ) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = element;
+    }
+    /** Appends all elements of another list */
+    void addAll(final IntList other){
+        if ( size + other.size > elements.length ) {
+            elements = Arrays.copyOf(elements, Math.max(elements.length * 2, size + other.size));
+        }
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+    /** Returns the last element, requires !isEmpty() */
+    int peek(){
+        assert size > 0;
+        return elements[size - 1];
+    }
+    /** Removes and returns the last element, requires !isEmpty() */
+    int pop(){
+        assert size > 0;
+        return elements[--size];
+    }
+    /** Removes all elements, keeping the capacity */
+    void clear(){
+        size = 0;
+    }
+}
@@ -0,0 +1,108 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A GraphShard kept in hash maps on this JVM's heap, either directly in a
+ * ShardedGraph or behind a ShardServer.
+ * 
+ * <p>This class is internal to the rep of ShardedGraph.
+ */
+final class LocalShard<L> implements GraphShard<L> {
+    
+    private final Map<L, Map<L, Integer>> targets = new HashMap<>();
+    private final Map<L, Map<L, Integer>> sources = new HashMap<>();
+    
+    // Abstraction function:
+    //   represents the shard whose vertices are the keys of targets, where
+    //   vertex v has the targets targets.get(v) and the sources sources.get(v)
+    // Representation invariant:
+    //   targets and sources have the same keys
+    //   all weights are > 0
+    // Safety from rep exposure:
+    //   All fields are private and final; vertices(), sources(), targets()
+    //   and allTargets() return unmodifiable views, and the maps handed out
+    //   by removeVertex() are no longer part of the rep
+    
+    private void checkRep(){
+        assert targets.size() == sources.size();
+    }
+    
+    //helper code
+    /** Sets or removes (weight 0) the entry for other in one side of vertex */
+    private int setEntry(Map<L, Map<L, Integer>> side, L vertex, L other, int weight){
+        if ( weight == 0 ) {
+            final Map<L, Integer> weights = side.get(vertex);
+            final Integer previousWeight = weights == null ? null : weights.remove(other);
+            return previousWeight == null ? 0 : previousWeight;
+        }
+        add(vertex);
+        final Integer previousWeight = side.get(vertex).put(other, weight);
+        return previousWeight == null ? 0 : previousWeight;
+    }
+    //end of helper code
+    
+    @Override public boolean add(L vertex) {
+        if ( targets.containsKey(vertex) ) {
+            return false;
+        }
+        targets.put(vertex, new HashMap<>());
+        sources.put(vertex, new HashMap<>());
+        checkRep();
+        return true;
+    }
+    
+    @Override public int setTarget(L source, L target, int weight) {
+        return setEntry(targets, source, target, weight);
+    }
+    
+    @Override public void setSource(L target, L source, int weight) {
+        setEntry(sources, target, source, weight);
+    }
+    
+    @Override public Neighbours<L> removeVertex(L vertex) {
+        if ( !targets.containsKey(vertex) ) {
+            return null;
+        }
+        final Neighbours<L> removed = new Neighbours<>(targets.remove(vertex), sources.remove(vertex));
+        checkRep();
+        return removed;
+    }
+    
+    @Override public void unlink(L vertex, Collection<L> targetsOf, Collection<L> sourcesOf) {
+        for ( L source : targetsOf ) {
+            setEntry(targets, source, vertex, 0);
+        }
+        for ( L target : sourcesOf ) {
+            setEntry(sources, target, vertex, 0);
+        }
+    }
+    
+    @Override public Set<L> vertices() {
+        return Collections.unmodifiableSet(targets.keySet());
+    }
+    
+    @Override public Map<L, Integer> sources(L target) {
+        final Map<L, Integer> weights = sources.get(target);
+        return weights == null ? Collections.emptyMap() : Collections.unmodifiableMap(weights);
+    }
+    
+    @Override public Map<L, Integer> targets(L source) {
+        final Map<L, Integer> weights = targets.get(source);
+        return weights == null ? Collections.emptyMap() : Collections.unmodifiableMap(weights);
+    }
+    
+    @Override public Map<L, Map<L, Integer>> allTargets() {
+        return Collections.unmodifiableMap(targets);
+    }
+    
+    @Override public void close() {
+    }
+}
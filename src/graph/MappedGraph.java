@@ -0,0 +1,434 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only Graph of strings served straight from a memory-mapped file.
+ *
+ * <p>{@link #write(Graph, Path)} stores a graph in a versioned binary
+ * format; {@link #open(Path)} maps that file and answers vertices(),
+ * sources() and targets() from the mapped pages, without reading the
+ * file into the heap first. Opening takes time independent of the size of
+ * the graph. Like {@link FrozenGraph}, the mutators throw
+ * UnsupportedOperationException, and instances may be shared by threads.
+ *
+ * <p>File format, version 1, all numbers big-endian:
+ * <pre>
+ *   header        int magic "WGRF", int version, int n (vertices),
+ *                 int m (edges), int tableSize, int stringBytes
+ *   stringOffsets int[n+1]     label i is the UTF-8 bytes
+ *   strings       byte[stringBytes], zero-padded to a multiple of 4
+ *                              [stringOffsets[i], stringOffsets[i+1])
+ *   table         int[tableSize] open-addressing hash of labels, holding
+ *                              id+1, or 0 for an empty slot
+ *   targetOffsets int[n+1], targetIds int[m], targetWeights int[m]
+ *   sourceOffsets int[n+1], sourceIds int[m], sourceWeights int[m]
+ * </pre>
+ * Rows of targetIds and sourceIds are sorted by id. Each section must be
+ * smaller than 2GB, which bounds a file to about 500 million edges.
+ */
+public final class MappedGraph implements Graph<String> {
+
+    /** First four bytes of a graph file, "WGRF". */
+    static final int MAGIC = 0x57475246;
+    /** Current version of the file format. */
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 6;
+
+    private final int n;
+    private final int m;
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer strings;
+    private final IntBuffer table;
+    private final IntBuffer targetOffsets;
+    private final IntBuffer targetIds;
+    private final IntBuffer targetWeights;
+    private final IntBuffer sourceOffsets;
+    private final IntBuffer sourceIds;
+    private final IntBuffer sourceWeights;
+    private final Set<String> vertexLabels = new Labels();
+
+    // Abstraction function:
+    //   represents the graph whose vertices are the labels decoded from
+    //   strings for ids 0..n-1, with an edge from label(v) to
+    //   label(targetIds[i]) of weight targetWeights[i] for every
+    //   targetOffsets[v] <= i < targetOffsets[v+1]
+    // Representation invariant:
+    //   the buffers are read-only views of the sections of a file in the
+    //     format above; labels are distinct
+    //   table is a power of two in size, larger than n, and every label's
+    //     id+1 is found by linear probing from its hash
+    //   the reverse CSR holds exactly the edges of the forward CSR
+    // Safety from rep exposure:
+    //   All fields are private and final; buffers are never returned and
+    //   are only read with absolute gets, which do not change their state
+    //   vertices(), sources() and targets() return unmodifiable views
+
+    private MappedGraph(final FileChannel channel) throws IOException {
+        final IntBuffer header = map(channel, 0, HEADER_INTS * Integer.BYTES).asIntBuffer();
+        if ( header.get(0) != MAGIC ) {
+            throw new IOException("not a graph file");
+        }
+        if ( header.get(1) != VERSION ) {
+            throw new IOException("unsupported graph file version " + header.get(1));
+        }
+        n = header.get(2);
+        m = header.get(3);
+        final int tableSize = header.get(4);
+        final int stringBytes = header.get(5);
+
+        long offset = HEADER_INTS * Integer.BYTES;
+        stringOffsets = map(channel, offset, intBytes(n + 1)).asIntBuffer();
+        offset += intBytes(n + 1);
+        strings = map(channel, offset, stringBytes);
+        offset += padded(stringBytes);
+        table = map(channel, offset, intBytes(tableSize)).asIntBuffer();
+        offset += intBytes(tableSize);
+        targetOffsets = map(channel, offset, intBytes(n + 1)).asIntBuffer();
+        offset += intBytes(n + 1);
+        targetIds = map(channel, offset, intBytes(m)).asIntBuffer();
+        offset += intBytes(m);
+        targetWeights = map(channel, offset, intBytes(m)).asIntBuffer();
+        offset += intBytes(m);
+        sourceOffsets = map(channel, offset, intBytes(n + 1)).asIntBuffer();
+        offset += intBytes(n + 1);
+        sourceIds = map(channel, offset, intBytes(m)).asIntBuffer();
+        offset += intBytes(m);
+        sourceWeights = map(channel, offset, intBytes(m)).asIntBuffer();
+        offset += intBytes(m);
+        if ( offset != channel.size() ) {
+            throw new IOException("graph file has wrong length");
+        }
+        checkRep();
+    }
+    private void checkRep(){
+        assert Integer.bitCount(table.capacity()) == 1;
+        assert table.capacity() > n;
+        assert targetOffsets.get(n) == m;
+        assert sourceOffsets.get(n) == m;
+    }
+
+    /**
+     * Open a graph file written by {@link #write(Graph, Path)}.
+     *
+     * @param path file to open
+     * @return a read-only graph backed by the mapped file
+     * @throws IOException if the file cannot be read or is not a graph
+     *                     file of a supported version
+     */
+    public static MappedGraph open(final Path path) throws IOException {
+        try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) ) {
+            return new MappedGraph(channel);
+        }
+    }
+
+    /**
+     * Write a graph to a file in the format read by {@link #open(Path)},
+     * replacing the file if it exists.
+     *
+     * @param graph graph to write
+     * @param path file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final Graph<String> graph, final Path path) throws IOException {
+        try ( OutputStream file = Files.newOutputStream(path) ) {
+            write(Graphs.freeze(graph), new DataOutputStream(new BufferedOutputStream(file, 1 << 16)));
+        }
+    }
+    private static void write(final FrozenGraph<String> graph, final DataOutputStream out)
+            throws IOException {
+        final int n = graph.vertexCount();
+        final int m = graph.edgeCount();
+        final byte[][] labelBytes = new byte[n][];
+        int stringBytes = 0;
+        for ( int v = 0; v < n; v++ ) {
+            labelBytes[v] = graph.label(v).getBytes(StandardCharsets.UTF_8);
+            stringBytes += labelBytes[v].length;
+        }
+        final int[] table = new int[tableSize(n)];
+        for ( int v = 0; v < n; v++ ) {
+            int slot = slotOf(graph.label(v), table.length);
+            while ( table[slot] != 0 ) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = v + 1;
+        }
+
+        for ( int value : new int[] { MAGIC, VERSION, n, m, table.length, stringBytes } ) {
+            out.writeInt(value);
+        }
+        int stringOffset = 0;
+        out.writeInt(stringOffset);
+        for ( byte[] bytes : labelBytes ) {
+            stringOffset += bytes.length;
+            out.writeInt(stringOffset);
+        }
+        for ( byte[] bytes : labelBytes ) {
+            out.write(bytes);
+        }
+        for ( int i = stringBytes; i < padded(stringBytes); i++ ) {
+            out.writeByte(0);
+        }
+        for ( int slot : table ) {
+            out.writeInt(slot);
+        }
+        for ( int v = 0; v <= n; v++ ) {
+            out.writeInt(v < n ? graph.targetStart(v) : m);
+        }
+        for ( int i = 0; i < m; i++ ) {
+            out.writeInt(graph.targetId(i));
+        }
+        for ( int i = 0; i < m; i++ ) {
+            out.writeInt(graph.targetWeight(i));
+        }
+        for ( int v = 0; v <= n; v++ ) {
+            out.writeInt(v < n ? graph.sourceStart(v) : m);
+        }
+        for ( int i = 0; i < m; i++ ) {
+            out.writeInt(graph.sourceId(i));
+        }
+        for ( int i = 0; i < m; i++ ) {
+            out.writeInt(graph.sourceWeight(i));
+        }
+        out.flush();
+    }
+
+    //helper code
+    private static ByteBuffer map(final FileChannel channel, final long offset, final long size)
+            throws IOException {
+        if ( size < 0 || size > Integer.MAX_VALUE || offset + size > channel.size() ) {
+            throw new IOException("graph file is truncated or corrupt");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    }
+    private static long intBytes(final int count){
+        return (long) count * Integer.BYTES;
+    }
+    private static int padded(final int bytes){
+        return (bytes + 3) & ~3;
+    }
+    /** Returns a power of two at least twice the number of vertices */
+    private static int tableSize(final int n){
+        return Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1;
+    }
+    private static int slotOf(final String label, final int tableSize){
+        final int hash = label.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (tableSize - 1);
+    }
+    /** Returns the label of the vertex with an id */
+    private String label(final int id){
+        final int start = stringOffsets.get(id);
+        final byte[] bytes = new byte[stringOffsets.get(id + 1) - start];
+        //read through a duplicate, so that threads sharing strings do not
+        //race on its position
+        final ByteBuffer view = strings.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    /** Returns the id of a label, or -1 if it is not a vertex */
+    private int id(final Object label){
+        if ( !(label instanceof String) ) {
+            return -1;
+        }
+        final byte[] bytes = ((String) label).getBytes(StandardCharsets.UTF_8);
+        final int mask = table.capacity() - 1;
+        for ( int slot = slotOf((String) label, table.capacity()); ; slot = (slot + 1) & mask ) {
+            final int entry = table.get(slot);
+            if ( entry == 0 ) {
+                return -1;
+            }
+            if ( hasBytes(entry - 1, bytes) ) {
+                return entry - 1;
+            }
+        }
+    }
+    private boolean hasBytes(final int id, final byte[] bytes){
+        final int start = stringOffsets.get(id);
+        if ( stringOffsets.get(id + 1) - start != bytes.length ) {
+            return false;
+        }
+        for ( int i = 0; i < bytes.length; i++ ) {
+            if ( strings.get(start + i) != bytes[i] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //end of helper code
+
+    /** Unsupported: a MappedGraph cannot be modified */
+    @Override public boolean add(String vertex) {
+        throw new UnsupportedOperationException("mapped graph");
+    }
+    /** Unsupported: a MappedGraph cannot be modified */
+    @Override public int set(String source, String target, int weight) {
+        throw new UnsupportedOperationException("mapped graph");
+    }
+    /** Unsupported: a MappedGraph cannot be modified */
+    @Override public boolean remove(String vertex) {
+        throw new UnsupportedOperationException("mapped graph");
+    }
+    /** Returns a read-only view of the labels of this graph's vertices */
+    @Override public Set<String> vertices() {
+        return vertexLabels;
+    }
+    /** Returns a read-only view of a target's sources */
+    @Override public Map<String, Integer> sources(String target) {
+        final int v = id(target);
+        if ( v < 0 ) {
+            return Collections.emptyMap();
+        }
+        return new Row(sourceIds, sourceWeights, sourceOffsets.get(v), sourceOffsets.get(v + 1));
+    }
+    /** Returns a read-only view of a source's targets */
+    @Override public Map<String, Integer> targets(String source) {
+        final int v = id(source);
+        if ( v < 0 ) {
+            return Collections.emptyMap();
+        }
+        return new Row(targetIds, targetWeights, targetOffsets.get(v), targetOffsets.get(v + 1));
+    }
+
+    /**
+     * Returns the string representation of this graph, in the format
+     * described in {@link Graphs}. Edges are ordered by source id and then
+     * by target id, as they are stored in the file.
+     *
+     * @return string rep of this graph containing all its edges,
+     *         "Empty Graph" if graph has no edges
+     */
+    @Override public String toString(){
+        if ( m == 0 ) {
+            return "Empty Graph";
+        }
+        final StringBuilder rep = new StringBuilder();
+        for ( int v = 0; v < n; v++ ) {
+            for ( int i = targetOffsets.get(v); i < targetOffsets.get(v + 1); i++ ) {
+                if ( rep.length() > 0 ) {
+                    rep.append('\n');
+                }
+                rep.append(label(v)).append(" -> ")
+                   .append(label(targetIds.get(i))).append(": ")
+                   .append(targetWeights.get(i));
+            }
+        }
+        return rep.toString();
+    }
+
+    /** Read-only set view of the labels, decoded on demand. */
+    private final class Labels extends AbstractSet<String> {
+        @Override public int size(){
+            return n;
+        }
+        @Override public boolean contains(final Object label){
+            return id(label) >= 0;
+        }
+        @Override public Iterator<String> iterator(){
+            return new Iterator<String>() {
+                private int next = 0;
+                @Override public boolean hasNext(){
+                    return next < n;
+                }
+                @Override public String next(){
+                    if ( next >= n ) {
+                        throw new NoSuchElementException();
+                    }
+                    return label(next++);
+                }
+            };
+        }
+    }
+
+    /**
+     * Read-only map view of one mapped CSR row, from neighbour label to
+     * weight. Lookups binary search the row, which is sorted by id.
+     */
+    private final class Row extends AbstractMap<String, Integer> {
+        private final IntBuffer neighbours;
+        private final IntBuffer weights;
+        private final int start;
+        private final int end;
+
+        Row(final IntBuffer neighbours, final IntBuffer weights, final int start, final int end){
+            this.neighbours = neighbours;
+            this.weights = weights;
+            this.start = start;
+            this.end = end;
+        }
+        private int indexOf(final Object key){
+            final int v = id(key);
+            if ( v < 0 ) {
+                return -1;
+            }
+            int low = start;
+            int high = end - 1;
+            while ( low <= high ) {
+                final int mid = (low + high) >>> 1;
+                final int midId = neighbours.get(mid);
+                if ( midId < v ) {
+                    low = mid + 1;
+                } else if ( midId > v ) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+        @Override public int size(){
+            return end - start;
+        }
+        @Override public boolean containsKey(final Object key){
+            return indexOf(key) >= 0;
+        }
+        @Override public Integer get(final Object key){
+            final int i = indexOf(key);
+            return i < 0 ? null : weights.get(i);
+        }
+        @Override public Set<Map.Entry<String, Integer>> entrySet(){
+            return new AbstractSet<Map.Entry<String, Integer>>() {
+                @Override public int size(){
+                    return end - start;
+                }
+                @Override public Iterator<Map.Entry<String, Integer>> iterator(){
+                    return new Iterator<Map.Entry<String, Integer>>() {
+                        private int i = start;
+                        @Override public boolean hasNext(){
+                            return i < end;
+                        }
+                        @Override public Map.Entry<String, Integer> next(){
+                            if ( i >= end ) {
+                                throw new NoSuchElementException();
+                            }
+                            final Map.Entry<String, Integer> entry =
+                                    new SimpleImmutableEntry<>(label(neighbours.get(i)), weights.get(i));
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
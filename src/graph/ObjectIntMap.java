@@ -0,0 +1,312 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Mutable map from non-null keys to positive ints, using open addressing.
+ *
+ * <p>Keys and values are kept in parallel arrays probed linearly, so values
+ * are never boxed and there is no entry object per mapping. Every insert,
+ * update or removal probes the table once. Zero stands for "no mapping",
+ * which is why values must be positive.
+ *
+ * <p>This class is internal to the reps of Vertex and ConcreteEdgesGraph.
+ */
+final class ObjectIntMap<K> {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private Object[] keys;
+    private int[] values;
+    private int size = 0;
+    private int modifications = 0;
+    private final Map<K, Integer> view = new View();
+
+    // Abstraction function:
+    //   represents the map {keys[i] -> values[i] | keys[i] != null}
+    // Representation invariant:
+    //   keys.length == values.length, a power of two >= MIN_CAPACITY
+    //   size is the number of non-null keys, and size <= keys.length * 3/4
+    //   keys are distinct, and values[i] > 0 iff keys[i] != null
+    //   each key is in the first null-free run of slots starting at its
+    //     home slot, slotOf(key)
+    // Safety from rep exposure:
+    //   All fields are private; arrays are never returned
+    //   asMap() returns an unmodifiable view
+
+    ObjectIntMap(){
+        keys = new Object[MIN_CAPACITY];
+        values = new int[MIN_CAPACITY];
+    }
+    private void checkRep(){
+        assert keys.length == values.length;
+        assert Integer.bitCount(keys.length) == 1;
+        assert size <= keys.length - keys.length / 4;
+    }
+
+    //helper code
+    private int slotOf(final Object key){
+        final int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (keys.length - 1);
+    }
+    /**
+     * Returns the slot holding key, or the bitwise complement of the empty
+     * slot where key would be inserted
+     */
+    private int probe(final Object key){
+        final int mask = keys.length - 1;
+        for ( int slot = slotOf(key); ; slot = (slot + 1) & mask ) {
+            final Object existing = keys[slot];
+            if ( existing == null ) {
+                return ~slot;
+            }
+            if ( existing.equals(key) ) {
+                return slot;
+            }
+        }
+    }
+    /** Stores a new mapping in an empty slot found by probe() */
+    private void insertAt(final int slot, final K key, final int value){
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        modifications++;
+        if ( size > keys.length - keys.length / 4 ) {
+            resize(keys.length * 2);
+        }
+    }
+    private void resize(final int capacity){
+        final Object[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new Object[capacity];
+        values = new int[capacity];
+        for ( int i = 0; i < oldKeys.length; i++ ) {
+            if ( oldKeys[i] != null ) {
+                final int slot = ~probe(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    /**
+     * Empties a slot, shifting back later keys of the same run so that
+     * every key stays reachable from its home slot
+     */
+    private void deleteAt(int slot){
+        final int mask = keys.length - 1;
+        for ( int next = (slot + 1) & mask; keys[next] != null; next = (next + 1) & mask ) {
+            final int home = slotOf(keys[next]);
+            //move keys[next] back unless its home lies cyclically in (slot, next]
+            final boolean homeAfterSlot = slot <= next
+                    ? ( slot < home && home <= next )
+                    : ( slot < home || home <= next );
+            if ( !homeAfterSlot ) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        keys[slot] = null;
+        values[slot] = 0;
+        size--;
+        modifications++;
+    }
+    //end of helper code
+
+    /** Returns the number of mappings */
+    int size(){
+        return size;
+    }
+    /**
+     * Grows the table, if it is smaller, so that it holds mappings mappings
+     * without growing again
+     *
+     * @param mappings requires mappings >= 0
+     */
+    void ensureCapacity(final int mappings){
+        int capacity = keys.length;
+        while ( mappings > capacity - capacity / 4 ) {
+            capacity *= 2;
+        }
+        if ( capacity > keys.length ) {
+            resize(capacity);
+            checkRep();
+        }
+    }
+    /** Returns true if key is mapped */
+    boolean containsKey(final Object key){
+        return key != null && probe(key) >= 0;
+    }
+    /** Returns the value of key, zero if key is not mapped */
+    int get(final Object key){
+        if ( key == null ) {
+            return 0;
+        }
+        final int slot = probe(key);
+        return slot >= 0 ? values[slot] : 0;
+    }
+    /**
+     * Maps key to value, replacing any existing value
+     *
+     * @param value requires value > 0
+     * @return the previous value, zero if key was not mapped
+     */
+    int put(final K key, final int value){
+        assert value > 0;
+        final int slot = probe(key);
+        if ( slot >= 0 ) {
+            final int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insertAt(~slot, key, value);
+        checkRep();
+        return 0;
+    }
+    /**
+     * Maps key to value if key is not mapped
+     *
+     * @param value requires value > 0
+     * @return the existing value, zero if key was not mapped and is now
+     *         mapped to value
+     */
+    int putIfAbsent(final K key, final int value){
+        assert value > 0;
+        final int slot = probe(key);
+        if ( slot >= 0 ) {
+            return values[slot];
+        }
+        insertAt(~slot, key, value);
+        checkRep();
+        return 0;
+    }
+    /**
+     * Adds delta to the value of key, mapping key to delta if it is not mapped
+     *
+     * @param delta requires delta > 0
+     * @return the new value of key
+     * @throws ArithmeticException if the new value overflows an int
+     */
+    int add(final K key, final int delta){
+        assert delta > 0;
+        final int slot = probe(key);
+        if ( slot >= 0 ) {
+            values[slot] = Math.addExact(values[slot], delta);
+            return values[slot];
+        }
+        insertAt(~slot, key, delta);
+        checkRep();
+        return delta;
+    }
+    /**
+     * Removes the mapping of key
+     *
+     * @return the removed value, zero if key was not mapped
+     */
+    int remove(final Object key){
+        if ( key == null ) {
+            return 0;
+        }
+        final int slot = probe(key);
+        if ( slot < 0 ) {
+            return 0;
+        }
+        final int previous = values[slot];
+        deleteAt(slot);
+        checkRep();
+        return previous;
+    }
+    /**
+     * Calls action on every mapping, without boxing the values
+     *
+     * @param action must not modify this map
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(final ObjIntConsumer<? super K> action){
+        final int expectedModifications = modifications;
+        for ( int slot = 0; slot < keys.length; slot++ ) {
+            if ( keys[slot] != null ) {
+                action.accept((K) keys[slot], values[slot]);
+            }
+        }
+        if ( modifications != expectedModifications ) {
+            throw new ConcurrentModificationException();
+        }
+    }
+    /** Returns a live read-only Map view of this map */
+    Map<K, Integer> asMap(){
+        return view;
+    }
+
+    @Override public String toString(){
+        return view.toString();
+    }
+
+    /**
+     * Read-only Map view of the enclosing ObjectIntMap. Lookups go straight
+     * to the table; iteration walks the slots in order.
+     */
+    private final class View extends AbstractMap<K, Integer> {
+        private final Set<Map.Entry<K, Integer>> entries = new AbstractSet<Map.Entry<K, Integer>>() {
+            @Override public int size(){
+                return size;
+            }
+            @Override public Iterator<Map.Entry<K, Integer>> iterator(){
+                return new Iterator<Map.Entry<K, Integer>>() {
+                    private final int expectedModifications = modifications;
+                    private int next = advance(0);
+
+                    private int advance(int slot){
+                        while ( slot < keys.length && keys[slot] == null ) {
+                            slot++;
+                        }
+                        return slot;
+                    }
+                    @Override public boolean hasNext(){
+                        return next < keys.length;
+                    }
+                    @SuppressWarnings("unchecked")
+                    @Override public Map.Entry<K, Integer> next(){
+                        if ( modifications != expectedModifications ) {
+                            throw new ConcurrentModificationException();
+                        }
+                        if ( next >= keys.length ) {
+                            throw new NoSuchElementException();
+                        }
+                        final Map.Entry<K, Integer> entry =
+                                new SimpleImmutableEntry<>((K) keys[next], values[next]);
+                        next = advance(next + 1);
+                        return entry;
+                    }
+                };
+            }
+        };
+
+        @Override public int size(){
+            return size;
+        }
+        @Override public boolean isEmpty(){
+            return size == 0;
+        }
+        @Override public boolean containsKey(final Object key){
+            return ObjectIntMap.this.containsKey(key);
+        }
+        @Override public Integer get(final Object key){
+            final int value = ObjectIntMap.this.get(key);
+            return value == 0 ? null : value;
+        }
+        @Override public Set<Map.Entry<K, Integer>> entrySet(){
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+/**
+ * A Graph that tells registered listeners about every change made to it:
+ * vertices added, vertices removed, and edge weights changed, with their
+ * old and new weights.
+ * 
+ * <p>Each change is delivered as soon as the mutator that made it returns,
+ * unless it is made inside {@link #batch(Runnable)}, in which case all the
+ * changes of the batch are delivered in one list when it ends. A mutator
+ * that changes nothing, such as add() of an existing vertex, produces no
+ * event. Removing a vertex produces an event for each of its edges, with
+ * new weight zero, before the event for the vertex itself.
+ * 
+ * @param <L> type of vertex labels in this graph, must be immutable
+ */
+public interface ObservableGraph<L> extends Graph<L> {
+    
+    /**
+     * Register a listener for the changes made to this graph from now on.
+     * Listeners are called in the order they were added, and must not
+     * modify this graph.
+     * 
+     * @param listener listener to add
+     */
+    public void addListener(GraphListener<L> listener);
+    
+    /**
+     * Unregister a listener.
+     * 
+     * @param listener listener to remove
+     * @return true if listener was registered
+     */
+    public boolean removeListener(GraphListener<L> listener);
+    
+    /**
+     * Run changes to this graph, delivering the events of every change they
+     * make to each listener in one list when they finish, even if they
+     * throw. Batches may be nested; events are delivered when the outermost
+     * batch ends.
+     * 
+     * @param changes code that modifies this graph
+     */
+    public void batch(Runnable changes);
+    
+}
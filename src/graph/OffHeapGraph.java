@@ -0,0 +1,493 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An implementation of Graph whose edges live outside the Java heap.
+ *
+ * <p>Only the label dictionary (label to vertex id and back) is kept on the
+ * heap. The adjacency lists of every vertex, in both directions, are blocks
+ * of (neighbour id, weight) int pairs in an {@link OffHeapIntArena}, and the
+ * per-vertex list headers are kept in a direct buffer too, so the garbage
+ * collector has no per-edge objects to trace however many edges are added.
+ * Lists double when full and their old blocks are recycled. Lists of up to
+ * 16 entries are packed and scanned; longer lists are open-addressing hash
+ * tables on the neighbour id, so finding an edge takes constant expected
+ * time however high the degree of its vertices.
+ *
+ * <p>An edge takes two (neighbour, weight) pairs, 16 bytes, plus the unused
+ * room of its lists: up to half of a packed list and three quarters of a
+ * hashed one. The arena starts with a 4KB buffer and doubles it as edges
+ * are added, up to 64MB chunks. {@link #close()} drops all of it at once;
+ * the memory goes back to the system when the collector reclaims the
+ * buffers, as it also does when the graph itself becomes garbage.
+ */
+public class OffHeapGraph implements CountingGraph<String>, AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 16;
+    //layout of the header of a vertex: one (address, count, size class)
+    //triple for each direction
+    private static final int OUT = 0;
+    private static final int IN = 3;
+    private static final int ADDRESS = 0;
+    private static final int COUNT = 1;
+    private static final int SIZE_CLASS = 2;
+    private static final int HEADER_INTS = 6;
+    private static final int NO_LIST = -1;
+    private static final int FIRST_SIZE_CLASS = 2; //two entries
+    private static final int LAST_PACKED_SIZE_CLASS = 5; //sixteen entries
+    private static final int EMPTY = -1; //neighbour of a free hashed position
+
+    private final OffHeapIntArena arena;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Set<String> vertexLabels = Collections.unmodifiableSet(ids.keySet());
+    private String[] labels = new String[INITIAL_CAPACITY];
+    private IntBuffer headers = OffHeapIntArena.directInts(INITIAL_CAPACITY * HEADER_INTS);
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int numberOfFreeIds = 0;
+    private int nextId = 0;
+    private int numberOfEdges = 0;
+
+    // Abstraction function:
+    //   represents the graph whose vertices are the keys of ids, and which
+    //   has an edge from labels[s] to labels[t] with weight w for every
+    //   position i of the OUT list of s with arena[address + 2i] == t != EMPTY
+    //   and arena[address + 2i + 1] == w
+    // Representation invariant:
+    //   ids.get(label) == id iff labels[id].equals(label)
+    //   the ids below nextId that are not in ids are exactly
+    //     freeIds[0..numberOfFreeIds), and their lists are empty
+    //   for each id and direction, the header size class is NO_LIST and the
+    //     count is 0, or the list is a block of that class in arena
+    //   a list of class c <= LAST_PACKED_SIZE_CLASS is packed: its entries
+    //     are positions 0..count), and count <= 2^(c-1)
+    //   a list of class c > LAST_PACKED_SIZE_CLASS is hashed: it has 2^(c-1)
+    //     positions, count <= 2^(c-2) of them hold entries and the others
+    //     hold EMPTY, and every entry is reached by linear probing from
+    //     home(neighbour, c) without crossing an EMPTY position
+    //   t appears once in the OUT list of s with weight w iff
+    //     s appears once in the IN list of t with weight w
+    //   all weights are > 0
+    //   numberOfEdges is the total count of the OUT lists
+    // Safety from rep exposure:
+    //   All fields are private; buffers and arrays are never returned
+    //   vertexLabels is an unmodifiable view of ids.keySet()
+    //   sources() and targets() return fresh maps
+
+    public OffHeapGraph(){
+        this(new OffHeapIntArena());
+    }
+    /** Make an empty graph that keeps its edges in arena */
+    OffHeapGraph(final OffHeapIntArena arena){
+        this.arena = arena;
+    }
+    private void checkRep(){
+        assert ids.size() + numberOfFreeIds == nextId;
+        assert numberOfEdges >= 0;
+    }
+
+    /** Returns the number of bytes of direct memory reserved for edges */
+    public long offHeapBytes(){
+        return arena.reservedBytes() + (long) headers.capacity() * Integer.BYTES;
+    }
+
+    /**
+     * Removes every vertex and edge, and drops the direct buffers that held
+     * them. The graph stays usable, and is empty.
+     */
+    @Override public void close() {
+        arena.release();
+        ids.clear();
+        labels = new String[INITIAL_CAPACITY];
+        headers = OffHeapIntArena.directInts(INITIAL_CAPACITY * HEADER_INTS);
+        freeIds = new int[INITIAL_CAPACITY];
+        numberOfFreeIds = 0;
+        nextId = 0;
+        numberOfEdges = 0;
+        checkRep();
+    }
+
+    //helper code
+    private int header(final int id, final int direction, final int field){
+        return headers.get(id * HEADER_INTS + direction + field);
+    }
+    private void setHeader(final int id, final int direction, final int field, final int value){
+        headers.put(id * HEADER_INTS + direction + field, value);
+    }
+    /**
+     * Returns the id of a label, giving it a new id if it has none
+     *
+     * @param label the label of a vertex
+     * @return id such that labels[id].equals(label)
+     */
+    private int idFor(final String label){
+        final Integer existing = ids.get(label);
+        if ( existing != null ) {
+            return existing;
+        }
+        final int id;
+        if ( numberOfFreeIds > 0 ) {
+            id = freeIds[--numberOfFreeIds];
+        } else {
+            id = nextId++;
+            if ( id == labels.length ) {
+                final int capacity = labels.length * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                final IntBuffer grown = OffHeapIntArena.directInts(capacity * HEADER_INTS);
+                headers.rewind();
+                grown.put(headers);
+                headers = grown;
+            }
+        }
+        for ( int direction : new int[] { OUT, IN } ) {
+            setHeader(id, direction, ADDRESS, OffHeapIntArena.NO_BLOCK);
+            setHeader(id, direction, COUNT, 0);
+            setHeader(id, direction, SIZE_CLASS, NO_LIST);
+        }
+        labels[id] = label;
+        ids.put(label, id);
+        return id;
+    }
+    private static boolean isHashed(final int sizeClass){
+        return sizeClass > LAST_PACKED_SIZE_CLASS;
+    }
+    /** Returns the number of entries a list of sizeClass can hold */
+    private static int capacityOf(final int sizeClass){
+        if ( sizeClass == NO_LIST ) {
+            return 0;
+        }
+        return isHashed(sizeClass) ? 1 << (sizeClass - 2) : 1 << (sizeClass - 1);
+    }
+    /** Returns the first position to probe for neighbour in a hashed list */
+    private static int home(final int neighbour, final int sizeClass){
+        return (neighbour * 0x9E3779B9) >>> (33 - sizeClass);
+    }
+    /** Returns the number of positions to visit to see every entry of a list */
+    private int positions(final int vertex, final int direction){
+        final int sizeClass = header(vertex, direction, SIZE_CLASS);
+        return isHashed(sizeClass) ? 1 << (sizeClass - 1) : header(vertex, direction, COUNT);
+    }
+    /** Returns the position of neighbour in a list of vertex, or -1 */
+    private int indexOf(final int vertex, final int direction, final int neighbour){
+        final int address = header(vertex, direction, ADDRESS);
+        final int sizeClass = header(vertex, direction, SIZE_CLASS);
+        if ( !isHashed(sizeClass) ) {
+            final int count = header(vertex, direction, COUNT);
+            for ( int i = 0; i < count; i++ ) {
+                if ( arena.get(address + 2 * i) == neighbour ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final int mask = (1 << (sizeClass - 1)) - 1;
+        for ( int i = home(neighbour, sizeClass); ; i = (i + 1) & mask ) {
+            final int found = arena.get(address + 2 * i);
+            if ( found == neighbour ) {
+                return i;
+            }
+            if ( found == EMPTY ) {
+                return -1;
+            }
+        }
+    }
+    /** Returns the first EMPTY position on the probe path of neighbour in a hashed block */
+    private int emptyPosition(final int address, final int sizeClass, final int neighbour){
+        final int mask = (1 << (sizeClass - 1)) - 1;
+        int i = home(neighbour, sizeClass);
+        while ( arena.get(address + 2 * i) != EMPTY ) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+    /**
+     * Adds or updates the entry for neighbour in a list of vertex
+     *
+     * @param weight requires weight > 0
+     * @return the previous weight, zero if there was no entry
+     */
+    private int put(final int vertex, final int direction, final int neighbour, final int weight){
+        final int i = indexOf(vertex, direction, neighbour);
+        if ( i >= 0 ) {
+            final int address = header(vertex, direction, ADDRESS);
+            final int previousWeight = arena.get(address + 2 * i + 1);
+            arena.set(address + 2 * i + 1, weight);
+            return previousWeight;
+        }
+        append(vertex, direction, neighbour, weight);
+        return 0;
+    }
+    /**
+     * Appends an entry for neighbour to a list of vertex, growing the list
+     * into a larger block if it is full
+     *
+     * @param neighbour requires no entry for neighbour in the list
+     * @param weight requires weight > 0
+     */
+    private void append(final int vertex, final int direction, final int neighbour, final int weight){
+        final int count = header(vertex, direction, COUNT);
+        if ( count == capacityOf(header(vertex, direction, SIZE_CLASS)) ) {
+            grow(vertex, direction, count + 1);
+        }
+        final int address = header(vertex, direction, ADDRESS);
+        final int sizeClass = header(vertex, direction, SIZE_CLASS);
+        final int i = isHashed(sizeClass) ? emptyPosition(address, sizeClass, neighbour) : count;
+        arena.set(address + 2 * i, neighbour);
+        arena.set(address + 2 * i + 1, weight);
+        setHeader(vertex, direction, COUNT, count + 1);
+    }
+    /**
+     * Moves a list of vertex into a new block that holds at least entries
+     * entries, freeing its old block
+     */
+    private void grow(final int vertex, final int direction, final int entries){
+        final int address = header(vertex, direction, ADDRESS);
+        final int sizeClass = header(vertex, direction, SIZE_CLASS);
+        int newSizeClass = sizeClass == NO_LIST ? FIRST_SIZE_CLASS : sizeClass + 1;
+        while ( capacityOf(newSizeClass) < entries ) {
+            newSizeClass++;
+        }
+        if ( newSizeClass > arena.maxSizeClass() ) {
+            throw new IllegalStateException("vertex degree exceeds off-heap chunk size");
+        }
+        final int newAddress = arena.allocate(newSizeClass);
+        if ( isHashed(newSizeClass) ) {
+            for ( int i = 0; i < 1 << (newSizeClass - 1); i++ ) {
+                arena.set(newAddress + 2 * i, EMPTY);
+            }
+            for ( int i = 0; i < positions(vertex, direction); i++ ) {
+                final int neighbour = arena.get(address + 2 * i);
+                if ( neighbour != EMPTY ) {
+                    final int j = emptyPosition(newAddress, newSizeClass, neighbour);
+                    arena.set(newAddress + 2 * j, neighbour);
+                    arena.set(newAddress + 2 * j + 1, arena.get(address + 2 * i + 1));
+                }
+            }
+        } else if ( sizeClass != NO_LIST ) {
+            arena.copy(address, newAddress, 2 * header(vertex, direction, COUNT));
+        }
+        if ( sizeClass != NO_LIST ) {
+            arena.free(address, sizeClass);
+        }
+        setHeader(vertex, direction, ADDRESS, newAddress);
+        setHeader(vertex, direction, SIZE_CLASS, newSizeClass);
+    }
+    /**
+     * Removes the entry for neighbour from a list of vertex. A packed list
+     * moves its last entry into the gap; a hashed list moves later entries
+     * of the probe run back, so no entry is cut off from its home.
+     *
+     * @return the previous weight, zero if there was no entry
+     */
+    private int removeEntry(final int vertex, final int direction, final int neighbour){
+        final int i = indexOf(vertex, direction, neighbour);
+        if ( i < 0 ) {
+            return 0;
+        }
+        final int address = header(vertex, direction, ADDRESS);
+        final int sizeClass = header(vertex, direction, SIZE_CLASS);
+        final int last = header(vertex, direction, COUNT) - 1;
+        final int previousWeight = arena.get(address + 2 * i + 1);
+        if ( isHashed(sizeClass) ) {
+            final int mask = (1 << (sizeClass - 1)) - 1;
+            int hole = i;
+            for ( int j = (i + 1) & mask; arena.get(address + 2 * j) != EMPTY; j = (j + 1) & mask ) {
+                final int moved = arena.get(address + 2 * j);
+                if ( ((j - home(moved, sizeClass)) & mask) >= ((j - hole) & mask) ) {
+                    arena.set(address + 2 * hole, moved);
+                    arena.set(address + 2 * hole + 1, arena.get(address + 2 * j + 1));
+                    hole = j;
+                }
+            }
+            arena.set(address + 2 * hole, EMPTY);
+        } else {
+            arena.set(address + 2 * i, arena.get(address + 2 * last));
+            arena.set(address + 2 * i + 1, arena.get(address + 2 * last + 1));
+        }
+        setHeader(vertex, direction, COUNT, last);
+        return previousWeight;
+    }
+    /** Frees a list of vertex */
+    private void clear(final int vertex, final int direction){
+        final int sizeClass = header(vertex, direction, SIZE_CLASS);
+        if ( sizeClass != NO_LIST ) {
+            arena.free(header(vertex, direction, ADDRESS), sizeClass);
+        }
+        setHeader(vertex, direction, ADDRESS, OffHeapIntArena.NO_BLOCK);
+        setHeader(vertex, direction, COUNT, 0);
+        setHeader(vertex, direction, SIZE_CLASS, NO_LIST);
+    }
+    /** Copies a list into a map from neighbour label to weight */
+    private Map<String, Integer> weightsOf(final String label, final int direction){
+        final Integer id = ids.get(label);
+        if ( id == null ) {
+            return new HashMap<>();
+        }
+        final int address = header(id, direction, ADDRESS);
+        final int count = header(id, direction, COUNT);
+        final int positions = positions(id, direction);
+        final Map<String, Integer> result = new HashMap<>(count * 4 / 3 + 1);
+        for ( int i = 0; i < positions; i++ ) {
+            final int neighbour = arena.get(address + 2 * i);
+            if ( neighbour != EMPTY ) {
+                result.put(labels[neighbour], arena.get(address + 2 * i + 1));
+            }
+        }
+        return result;
+    }
+    //end of helper code
+
+    @Override public boolean add(String vertex) {
+        if ( ids.containsKey(vertex) ) {
+            return false;
+        }
+        idFor(vertex);
+        checkRep();
+        return true;
+    }
+
+    @Override public int set(String source, String target, int weight) {
+        assert weight >= 0;
+
+        if ( weight == 0 ) {
+            final Integer sourceId = ids.get(source);
+            final Integer targetId = ids.get(target);
+            if ( sourceId == null || targetId == null ) {
+                return 0;
+            }
+            final int previousWeight = removeEntry(sourceId, OUT, targetId);
+            if ( previousWeight > 0 ) {
+                removeEntry(targetId, IN, sourceId);
+                numberOfEdges--;
+            }
+            checkRep();
+            return previousWeight;
+        }
+        final int sourceId = idFor(source);
+        final int targetId = idFor(target);
+        final int previousWeight = put(sourceId, OUT, targetId, weight);
+        put(targetId, IN, sourceId, weight);
+        if ( previousWeight == 0 ) {
+            numberOfEdges++;
+        }
+        checkRep();
+        return previousWeight;
+    }
+
+    @Override public int increment(String source, String target, int delta) {
+        assert delta > 0;
+
+        final int sourceId = idFor(source);
+        final int targetId = idFor(target);
+        final int i = indexOf(sourceId, OUT, targetId);
+        if ( i < 0 ) {
+            append(sourceId, OUT, targetId, delta);
+            append(targetId, IN, sourceId, delta);
+            numberOfEdges++;
+            checkRep();
+            return delta;
+        }
+        final int weightAddress = header(sourceId, OUT, ADDRESS) + 2 * i + 1;
+        final int newWeight = Math.addExact(arena.get(weightAddress), delta);
+        arena.set(weightAddress, newWeight);
+        put(targetId, IN, sourceId, newWeight);
+        checkRep();
+        return newWeight;
+    }
+
+    @Override public boolean remove(String vertex) {
+        final Integer boxedId = ids.remove(vertex);
+        if ( boxedId == null ) {
+            return false;
+        }
+        final int id = boxedId;
+        final int outAddress = header(id, OUT, ADDRESS);
+        final int outCount = header(id, OUT, COUNT);
+        final int outPositions = positions(id, OUT);
+        final int inAddress = header(id, IN, ADDRESS);
+        final int inCount = header(id, IN, COUNT);
+        final int inPositions = positions(id, IN);
+        int selfLoops = 0;
+        for ( int i = 0; i < outPositions; i++ ) {
+            final int target = arena.get(outAddress + 2 * i);
+            if ( target == id ) {
+                selfLoops++;
+            } else if ( target != EMPTY ) {
+                removeEntry(target, IN, id);
+            }
+        }
+        for ( int i = 0; i < inPositions; i++ ) {
+            final int source = arena.get(inAddress + 2 * i);
+            if ( source != id && source != EMPTY ) {
+                removeEntry(source, OUT, id);
+            }
+        }
+        numberOfEdges -= outCount + inCount - selfLoops;
+        clear(id, OUT);
+        clear(id, IN);
+        labels[id] = null;
+        if ( numberOfFreeIds == freeIds.length ) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[numberOfFreeIds++] = id;
+        checkRep();
+        return true;
+    }
+
+    /** Returns a live read-only view of the labels of this graph's vertices */
+    @Override public Set<String> vertices() {
+        return vertexLabels;
+    }
+
+    /** Returns a new map of a target's sources */
+    @Override public Map<String, Integer> sources(String target) {
+        return weightsOf(target, IN);
+    }
+
+    /** Returns a new map of a source's targets */
+    @Override public Map<String, Integer> targets(String source) {
+        return weightsOf(source, OUT);
+    }
+
+    /**
+     * Returns the string representation of this graph, in the format
+     * described in {@link Graphs}. Edges are grouped by source, in order
+     * of vertex id. The targets of a packed list come in the order the
+     * edges were added. The targets of a hashed list come in table order.
+     *
+     * @return string rep of this graph containing all its edges,
+     *         "Empty Graph" if graph has no edges
+     */
+    @Override public String toString(){
+        if ( numberOfEdges == 0 ) {
+            return "Empty Graph";
+        }
+        final StringBuilder rep = new StringBuilder();
+        for ( int source = 0; source < nextId; source++ ) {
+            if ( labels[source] == null ) {
+                continue;
+            }
+            final int address = header(source, OUT, ADDRESS);
+            for ( int i = 0; i < positions(source, OUT); i++ ) {
+                if ( arena.get(address + 2 * i) == EMPTY ) {
+                    continue;
+                }
+                if ( rep.length() > 0 ) {
+                    rep.append('\n');
+                }
+                rep.append(labels[source]).append(" -> ")
+                   .append(labels[arena.get(address + 2 * i)]).append(": ")
+                   .append(arena.get(address + 2 * i + 1));
+            }
+        }
+        return rep.toString();
+    }
+}
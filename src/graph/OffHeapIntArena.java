@@ -0,0 +1,192 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Mutable allocator of int blocks in direct (off-heap) memory.
+ *
+ * <p>Memory is reserved in chunks of direct buffers, and blocks of 2^k ints
+ * are carved from the current chunk. The buffer of the current chunk starts
+ * small and doubles as blocks are carved from it, until it reaches the full
+ * chunk size, so a small arena reserves little more than it uses. Freed
+ * blocks go on a free list per size class and are reused by later
+ * allocations of that class. Blocks are addressed by an int: the chunk
+ * number in the high bits and the position in the chunk in the low bits.
+ *
+ * <p>The buffers are released by {@link #release()}, or when the arena
+ * becomes garbage; either way the JVM returns their memory once the
+ * collector has reclaimed the buffer objects.
+ *
+ * <p>This class is internal to the rep of OffHeapGraph.
+ */
+final class OffHeapIntArena {
+
+    /** Default chunk size: 2^24 ints, 64MB per chunk. */
+    static final int DEFAULT_CHUNK_BITS = 24;
+    /** Size of the first buffer of a chunk: 2^10 ints, 4KB. */
+    static final int INITIAL_BUFFER_BITS = 10;
+    /** Address returned for "no block". */
+    static final int NO_BLOCK = -1;
+
+    private final int chunkBits;
+    private final int chunkSize;
+    private final int maxChunks;
+    private IntBuffer[] chunks = new IntBuffer[4];
+    private int numberOfChunks = 0;
+    private int top = 0;
+    private long reservedInts = 0;
+    private final int[] freeLists;
+
+    // Abstraction function:
+    //   represents the set of allocated blocks; the block of size class c at
+    //   address a is the ints at positions (a & (chunkSize-1)) ..
+    //   (a & (chunkSize-1)) + 2^c - 1 of chunks[a >>> chunkBits]
+    // Representation invariant:
+    //   0 < chunkBits < 31, chunkSize == 1 << chunkBits
+    //   0 <= top <= chunkSize
+    //   chunks[0..numberOfChunks-1) are direct buffers of chunkSize ints,
+    //     and the last chunk is a direct buffer of a power of two ints,
+    //     at least top and at most chunkSize
+    //   reservedInts is the total capacity of chunks[0..numberOfChunks)
+    //   freeLists[c] is NO_BLOCK or the address of a free block of class c,
+    //     whose first int holds the address of the next free block of class c
+    //   blocks never span two chunks
+    // Safety from rep exposure:
+    //   All fields are private; buffers are never returned
+
+    /** Make an empty arena with chunks of 2^DEFAULT_CHUNK_BITS ints. */
+    OffHeapIntArena(){
+        this(DEFAULT_CHUNK_BITS);
+    }
+    /**
+     * Make an empty arena.
+     *
+     * @param chunkBits log2 of the number of ints per chunk, requires
+     *                  0 < chunkBits < 31
+     */
+    OffHeapIntArena(final int chunkBits){
+        assert chunkBits > 0 && chunkBits < 31;
+        this.chunkBits = chunkBits;
+        this.chunkSize = 1 << chunkBits;
+        this.maxChunks = 1 << (31 - chunkBits);
+        this.freeLists = new int[chunkBits + 1];
+        Arrays.fill(freeLists, NO_BLOCK);
+    }
+    private void checkRep(){
+        assert top >= 0 && top <= chunkSize;
+        assert numberOfChunks <= maxChunks;
+        assert numberOfChunks == 0 || top <= chunks[numberOfChunks - 1].capacity();
+    }
+
+    /** Returns the largest size class this arena can allocate */
+    int maxSizeClass(){
+        return chunkBits;
+    }
+    /** Returns the number of bytes of direct memory reserved by this arena */
+    long reservedBytes(){
+        return reservedInts * Integer.BYTES;
+    }
+    /**
+     * Drops every block and every buffer of this arena, which is then empty.
+     * Addresses allocated before are no longer valid.
+     */
+    void release(){
+        chunks = new IntBuffer[4];
+        numberOfChunks = 0;
+        top = 0;
+        reservedInts = 0;
+        Arrays.fill(freeLists, NO_BLOCK);
+        checkRep();
+    }
+
+    /**
+     * Allocates a block of 2^sizeClass ints. Its contents are unspecified.
+     *
+     * @param sizeClass requires 0 <= sizeClass <= maxSizeClass()
+     * @return address of the new block
+     * @throws IllegalStateException if the arena has no address space left
+     */
+    int allocate(final int sizeClass){
+        assert sizeClass >= 0 && sizeClass <= chunkBits;
+        final int free = freeLists[sizeClass];
+        if ( free != NO_BLOCK ) {
+            freeLists[sizeClass] = get(free);
+            return free;
+        }
+        final int size = 1 << sizeClass;
+        if ( numberOfChunks == 0 || top + size > chunkSize ) {
+            newChunk();
+        }
+        if ( top + size > chunks[numberOfChunks - 1].capacity() ) {
+            growLastChunk(top + size);
+        }
+        final int address = ((numberOfChunks - 1) << chunkBits) | top;
+        top += size;
+        checkRep();
+        return address;
+    }
+    /**
+     * Returns a block to the arena for reuse.
+     *
+     * @param address address of a block allocated with sizeClass and not
+     *                yet freed
+     * @param sizeClass the size class the block was allocated with
+     */
+    void free(final int address, final int sizeClass){
+        set(address, freeLists[sizeClass]);
+        freeLists[sizeClass] = address;
+    }
+    /** Returns the int at an offset within allocated memory */
+    int get(final int address){
+        return chunks[address >>> chunkBits].get(address & (chunkSize - 1));
+    }
+    /** Sets the int at an offset within allocated memory */
+    void set(final int address, final int value){
+        chunks[address >>> chunkBits].put(address & (chunkSize - 1), value);
+    }
+    /** Copies length ints between two blocks */
+    void copy(final int from, final int to, final int length){
+        for ( int i = 0; i < length; i++ ) {
+            set(to + i, get(from + i));
+        }
+    }
+
+    private void newChunk(){
+        if ( numberOfChunks == maxChunks ) {
+            throw new IllegalStateException("off-heap arena is full");
+        }
+        if ( numberOfChunks == chunks.length ) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        final int capacity = Math.min(1 << INITIAL_BUFFER_BITS, chunkSize);
+        chunks[numberOfChunks++] = directInts(capacity);
+        reservedInts += capacity;
+        top = 0;
+    }
+    /** Doubles the buffer of the last chunk until it holds at least size ints */
+    private void growLastChunk(final int size){
+        final IntBuffer last = chunks[numberOfChunks - 1];
+        int capacity = last.capacity();
+        while ( capacity < size ) {
+            capacity *= 2;
+        }
+        assert capacity <= chunkSize;
+        final IntBuffer grown = directInts(capacity);
+        last.rewind();
+        grown.put(last);
+        chunks[numberOfChunks - 1] = grown;
+        reservedInts += capacity - last.capacity();
+    }
+    /** Allocates a direct buffer of ints in native byte order */
+    static IntBuffer directInts(final int size){
+        return ByteBuffer.allocateDirect(size * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+    }
+}
@@ -0,0 +1,259 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable PageRank scores of the vertices of a graph, where a random
+ * walker leaves a vertex along each edge with probability proportional to
+ * its weight, and with probability 1 - damping jumps to a vertex chosen
+ * uniformly. A walker at a vertex without edges out always jumps.
+ * 
+ * <p>Scores are computed by power iteration over the int-indexed reverse
+ * CSR of a {@link FrozenGraph}, freezing the graph first unless it is
+ * already frozen. Each iteration pulls the new score of every vertex from
+ * its sources, so vertex ranges are scored by ForkJoin tasks in parallel
+ * without sharing writes.
+ */
+public final class PageRank<L> {
+    
+    /** Default probability that the walker follows an edge */
+    public static final double DEFAULT_DAMPING = 0.85;
+    /** Default bound on the L1 change of the scores at convergence */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+    /** Default maximum number of iterations */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+    
+    private static final int PARALLEL_THRESHOLD = 4096;
+    
+    private final FrozenGraph<L> graph;
+    private final double[] scores;
+    private final int iterations;
+    private final boolean converged;
+    
+    // Abstraction function:
+    //   represents the scores of graph, vertex v scoring scores[v], found
+    //   after iterations iterations, converged or not
+    // Representation invariant:
+    //   scores.length == graph.vertexCount()
+    //   all scores are >= 0, and they sum to 1 (up to rounding) if the
+    //     graph has vertices
+    //   iterations >= 0
+    // Safety from rep exposure:
+    //   All fields are private and final; scores is never returned, and
+    //   graph is immutable
+    
+    private PageRank(FrozenGraph<L> graph, double[] scores, int iterations, boolean converged){
+        this.graph = graph;
+        this.scores = scores;
+        this.iterations = iterations;
+        this.converged = converged;
+        checkRep();
+    }
+    private void checkRep(){
+        assert scores.length == graph.vertexCount();
+        assert iterations >= 0;
+    }
+    
+    /**
+     * Score a graph with the default damping, tolerance and iteration cap,
+     * in the common pool.
+     * 
+     * @see #of(Graph, double, double, int, ForkJoinPool)
+     */
+    public static <L> PageRank<L> of(Graph<L> graph) {
+        return of(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Score a graph.
+     * 
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to score
+     * @param damping probability of following an edge, requires 0 <= damping < 1
+     * @param tolerance iteration stops once the sum of the absolute changes of
+     *                  the scores is below tolerance, requires tolerance > 0
+     * @param maxIterations iteration stops after this many iterations,
+     *                      requires maxIterations >= 0
+     * @param pool pool to score vertex ranges in
+     * @return the scores of the vertices of graph
+     */
+    public static <L> PageRank<L> of(Graph<L> graph, double damping, double tolerance,
+            int maxIterations, ForkJoinPool pool) {
+        assert damping >= 0 && damping < 1;
+        assert tolerance > 0;
+        assert maxIterations >= 0;
+        
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final int n = frozen.vertexCount();
+        double[] scores = new double[n];
+        Arrays.fill(scores, 1.0 / n);
+        double[] next = new double[n];
+        final double[] shares = new double[n];
+        
+        int iterations = 0;
+        boolean converged = n == 0;
+        while ( !converged && iterations < maxIterations ) {
+            final double dangling = pool.invoke(new Shares(frozen, scores, shares, 0, n));
+            final double base = (1 - damping + damping * dangling) / n;
+            final double change = pool.invoke(new Pull(frozen, shares, next, base, damping, scores, 0, n));
+            final double[] previous = scores;
+            scores = next;
+            next = previous;
+            iterations++;
+            converged = change < tolerance;
+        }
+        return new PageRank<>(frozen, scores, iterations, converged);
+    }
+    
+    /** Returns the number of iterations run */
+    public int iterations() {
+        return iterations;
+    }
+    
+    /** Returns true if the scores converged within the iteration cap */
+    public boolean converged() {
+        return converged;
+    }
+    
+    /**
+     * @param vertex label of a vertex
+     * @return the score of vertex, zero if it is not in the graph
+     */
+    public double score(L vertex) {
+        final int v = graph.id(vertex);
+        return v < 0 ? 0 : scores[v];
+    }
+    
+    /** Returns a new map from every vertex to its score */
+    public Map<L, Double> scores() {
+        final Map<L, Double> all = new HashMap<>();
+        for ( int v = 0; v < scores.length; v++ ) {
+            all.put(graph.label(v), scores[v]);
+        }
+        return all;
+    }
+    
+    /**
+     * @param k number of vertices to return, requires k >= 0
+     * @return the (at most) k vertices with the highest scores, highest first
+     */
+    public List<L> top(int k) {
+        assert k >= 0;
+        final Integer[] ids = new Integer[scores.length];
+        for ( int v = 0; v < ids.length; v++ ) {
+            ids[v] = v;
+        }
+        Arrays.sort(ids, (u, v) -> Double.compare(scores[v], scores[u]));
+        final List<L> top = new ArrayList<>(Math.min(k, ids.length));
+        for ( int i = 0; i < Math.min(k, ids.length); i++ ) {
+            top.add(graph.label(ids[i]));
+        }
+        return Collections.unmodifiableList(top);
+    }
+    
+    @Override public String toString(){
+        return "PageRank after " + iterations + " iterations: " + scores();
+    }
+    
+    /**
+     * Computes shares[u] = scores[u] / outWeight(u) for u in [from, to),
+     * returning the total score of the vertices without edges out.
+     */
+    private static final class Shares extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        
+        private final FrozenGraph<?> graph;
+        private final double[] scores;
+        private final double[] shares;
+        private final int from;
+        private final int to;
+        
+        Shares(FrozenGraph<?> graph, double[] scores, double[] shares, int from, int to){
+            this.graph = graph;
+            this.scores = scores;
+            this.shares = shares;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override protected Double compute(){
+            if ( to - from > PARALLEL_THRESHOLD ) {
+                final int middle = (from + to) >>> 1;
+                final Shares left = new Shares(graph, scores, shares, from, middle);
+                left.fork();
+                final double right = new Shares(graph, scores, shares, middle, to).compute();
+                return right + left.join();
+            }
+            double dangling = 0;
+            for ( int u = from; u < to; u++ ) {
+                final long outWeight = graph.outWeightOf(u);
+                if ( outWeight == 0 ) {
+                    shares[u] = 0;
+                    dangling += scores[u];
+                } else {
+                    shares[u] = scores[u] / outWeight;
+                }
+            }
+            return dangling;
+        }
+    }
+    
+    /**
+     * Computes next[v] for v in [from, to) from the shares of the sources
+     * of v, returning the sum of the absolute changes from scores.
+     */
+    private static final class Pull extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        
+        private final FrozenGraph<?> graph;
+        private final double[] shares;
+        private final double[] next;
+        private final double base;
+        private final double damping;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+        
+        Pull(FrozenGraph<?> graph, double[] shares, double[] next, double base, double damping,
+                double[] scores, int from, int to){
+            this.graph = graph;
+            this.shares = shares;
+            this.next = next;
+            this.base = base;
+            this.damping = damping;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override protected Double compute(){
+            if ( to - from > PARALLEL_THRESHOLD ) {
+                final int middle = (from + to) >>> 1;
+                final Pull left = new Pull(graph, shares, next, base, damping, scores, from, middle);
+                left.fork();
+                final double right = new Pull(graph, shares, next, base, damping, scores, middle, to).compute();
+                return right + left.join();
+            }
+            double change = 0;
+            for ( int v = from; v < to; v++ ) {
+                double pulled = 0;
+                for ( int i = graph.sourceStart(v); i < graph.sourceEnd(v); i++ ) {
+                    pulled += shares[graph.sourceId(i)] * graph.sourceWeight(i);
+                }
+                next[v] = base + damping * pulled;
+                change += Math.abs(next[v] - scores[v]);
+            }
+            return change;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reachability and k-hop neighbourhood queries by breadth-first search.
+ * 
+ * <p>Searches run over the int-indexed CSR arrays of a {@link FrozenGraph},
+ * freezing the graph first unless it is already frozen; to run many
+ * queries on one graph, freeze it once and pass the frozen copy. The
+ * frontier, the next frontier and the visited vertices are bitsets in long
+ * arrays, one bit per vertex id. Each level is expanded either top-down,
+ * from the frontier along targets, or bottom-up, from every unvisited
+ * vertex along its sources until one is in the frontier, whichever the
+ * sizes of the frontier and of the unvisited part of the graph suggest
+ * is cheaper.
+ */
+public final class Reachability {
+    
+    /** Switch to bottom-up once the frontier's edges exceed 1/ALPHA of the unvisited edges */
+    private static final int ALPHA = 14;
+    /** Switch back to top-down once the frontier is under 1/BETA of the vertices */
+    private static final int BETA = 24;
+    private static final int NO_TARGET = -1;
+    
+    private Reachability(){
+        throw new AssertionError("not instantiable");
+    }
+    
+    /**
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to search
+     * @param source label of the vertex to start at
+     * @return the vertices reachable from source, including source; empty
+     *         if source is not in graph
+     */
+    public static <L> Set<L> reachable(Graph<L> graph, L source) {
+        return withinHops(graph, source, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to search
+     * @param source label of the vertex to start at
+     * @param hops maximum number of edges on a path, requires hops >= 0
+     * @return the vertices reachable from source along at most hops edges,
+     *         including source; empty if source is not in graph
+     */
+    public static <L> Set<L> withinHops(Graph<L> graph, L source, int hops) {
+        assert hops >= 0;
+        
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final int s = frozen.id(source);
+        if ( s < 0 ) {
+            return Collections.emptySet();
+        }
+        final long[] visited = search(frozen, s, hops, NO_TARGET);
+        final Set<L> reached = new HashSet<>();
+        for ( int w = 0; w < visited.length; w++ ) {
+            for ( long bits = visited[w]; bits != 0; bits &= bits - 1 ) {
+                reached.add(frozen.label(w * Long.SIZE + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return Collections.unmodifiableSet(reached);
+    }
+    
+    /**
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to search
+     * @param source label of the vertex to start at
+     * @param target label of the vertex to look for
+     * @return true if there is a path from source to target; every vertex
+     *         of graph reaches itself
+     */
+    public static <L> boolean isReachable(Graph<L> graph, L source, L target) {
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final int s = frozen.id(source);
+        final int t = frozen.id(target);
+        if ( s < 0 || t < 0 ) {
+            return false;
+        }
+        return isSet(search(frozen, s, Integer.MAX_VALUE, t), t);
+    }
+    
+    //helper code
+    private static boolean isSet(long[] bits, int v) {
+        return ( bits[v >>> 6] & (1L << v) ) != 0;
+    }
+    private static void set(long[] bits, int v) {
+        bits[v >>> 6] |= 1L << v;
+    }
+    
+    /**
+     * Searches breadth-first from s for at most hops levels, stopping early
+     * once target is visited unless target is NO_TARGET
+     * 
+     * @return bitset of the visited vertices
+     */
+    private static long[] search(FrozenGraph<?> graph, int s, int hops, int target) {
+        final int n = graph.vertexCount();
+        final int words = (n + Long.SIZE - 1) / Long.SIZE;
+        final long[] visited = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        set(visited, s);
+        set(frontier, s);
+        
+        int frontierSize = 1;
+        long frontierEdges = graph.targetEnd(s) - graph.targetStart(s);
+        long unvisitedEdges = graph.edgeCount() - frontierEdges;
+        boolean bottomUp = false;
+        
+        for ( int level = 0; level < hops && frontierSize > 0; level++ ) {
+            if ( target != NO_TARGET && isSet(visited, target) ) {
+                break;
+            }
+            if ( !bottomUp && frontierEdges > unvisitedEdges / ALPHA ) {
+                bottomUp = true;
+            } else if ( bottomUp && frontierSize < n / BETA ) {
+                bottomUp = false;
+            }
+            
+            Arrays.fill(next, 0);
+            frontierSize = 0;
+            frontierEdges = 0;
+            if ( bottomUp ) {
+                for ( int v = 0; v < n; v++ ) {
+                    if ( isSet(visited, v) ) {
+                        continue;
+                    }
+                    for ( int i = graph.sourceStart(v); i < graph.sourceEnd(v); i++ ) {
+                        if ( isSet(frontier, graph.sourceId(i)) ) {
+                            set(next, v);
+                            break;
+                        }
+                    }
+                }
+                for ( int w = 0; w < words; w++ ) {
+                    visited[w] |= next[w];
+                }
+            } else {
+                for ( int w = 0; w < words; w++ ) {
+                    for ( long bits = frontier[w]; bits != 0; bits &= bits - 1 ) {
+                        final int u = w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                        for ( int i = graph.targetStart(u); i < graph.targetEnd(u); i++ ) {
+                            final int v = graph.targetId(i);
+                            if ( !isSet(visited, v) ) {
+                                set(visited, v);
+                                set(next, v);
+                            }
+                        }
+                    }
+                }
+            }
+            for ( int w = 0; w < words; w++ ) {
+                for ( long bits = next[w]; bits != 0; bits &= bits - 1 ) {
+                    final int v = w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    frontierSize++;
+                    frontierEdges += graph.targetEnd(v) - graph.targetStart(v);
+                }
+            }
+            unvisitedEdges -= frontierEdges;
+            final long[] previous = frontier;
+            frontier = next;
+            next = previous;
+        }
+        return visited;
+    }
+    //end of helper code
+}
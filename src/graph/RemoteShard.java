@@ -0,0 +1,141 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A GraphShard hosted by a ShardServer, reached over a loopback socket.
+ * Every call is one request and one response; failures of the connection
+ * are thrown as UncheckedIOException.
+ * 
+ * <p>This class is internal to the rep of ShardedGraph.
+ */
+final class RemoteShard<L> implements GraphShard<L> {
+    
+    /** Classes that a client accepts in responses: labels, and the results of requests */
+    private static final Set<String> RESPONSE_CLASSES = ShardServer.union(ShardServer.LABEL_CLASSES,
+            HashSet.class.getName(), HashMap.class.getName(), GraphShard.Neighbours.class.getName());
+    
+    private final Socket socket;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+    
+    // Abstraction function:
+    //   represents the shard that the server at the other end of socket
+    //   keeps for this connection
+    // Representation invariant:
+    //   out and in are the streams of socket
+    // Safety from rep exposure:
+    //   All fields are private and final; results are freshly deserialized
+    //   and returned in unmodifiable wrappers
+    
+    /**
+     * Connect to a new empty shard.
+     * 
+     * @param server address of a running ShardServer
+     * @throws IOException if the server cannot be reached
+     */
+    RemoteShard(InetSocketAddress server) throws IOException {
+        socket = new Socket(server.getAddress(), server.getPort());
+        try {
+            socket.setTcpNoDelay(true);
+            out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.flush();
+            in = new ShardServer.FilteredInputStream(
+                    new BufferedInputStream(socket.getInputStream()), RESPONSE_CLASSES);
+        } catch (IOException ioe) {
+            socket.close();
+            throw ioe;
+        }
+    }
+    
+    //helper code
+    /** Sends one request and returns its result */
+    private Object call(byte request, Object... arguments){
+        try {
+            out.writeByte(request);
+            for ( Object argument : arguments ) {
+                out.writeObject(argument);
+            }
+            out.reset();
+            out.flush();
+            final boolean succeeded = in.readBoolean();
+            final Object result = in.readObject();
+            if ( !succeeded ) {
+                throw new IllegalStateException("shard request " + request + " failed: " + result);
+            }
+            return result;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } catch (ClassNotFoundException cnfe) {
+            throw new IllegalStateException("unexpected response from shard server", cnfe);
+        }
+    }
+    //end of helper code
+    
+    @Override public boolean add(L vertex) {
+        return (Boolean) call(ShardServer.ADD, vertex);
+    }
+    
+    @Override public int setTarget(L source, L target, int weight) {
+        return (Integer) call(ShardServer.SET_TARGET, source, target, weight);
+    }
+    
+    @Override public void setSource(L target, L source, int weight) {
+        call(ShardServer.SET_SOURCE, target, source, weight);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override public Neighbours<L> removeVertex(L vertex) {
+        return (Neighbours<L>) call(ShardServer.REMOVE_VERTEX, vertex);
+    }
+    
+    @Override public void unlink(L vertex, Collection<L> targetsOf, Collection<L> sourcesOf) {
+        call(ShardServer.UNLINK, vertex, new ArrayList<>(targetsOf), new ArrayList<>(sourcesOf));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override public Set<L> vertices() {
+        return Collections.unmodifiableSet((Set<L>) call(ShardServer.VERTICES));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override public Map<L, Integer> sources(L target) {
+        return Collections.unmodifiableMap((Map<L, Integer>) call(ShardServer.SOURCES, target));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override public Map<L, Integer> targets(L source) {
+        return Collections.unmodifiableMap((Map<L, Integer>) call(ShardServer.TARGETS, source));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override public Map<L, Map<L, Integer>> allTargets() {
+        return Collections.unmodifiableMap((Map<L, Map<L, Integer>>) call(ShardServer.ALL_TARGETS));
+    }
+    
+    /** Disconnects, which drops the shard on the server */
+    @Override public void close() {
+        try {
+            socket.close();
+        } catch (IOException ioe) {
+            //nothing left to release
+        }
+    }
+}
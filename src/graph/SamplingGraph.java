@@ -0,0 +1,209 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A Graph that forwards every operation to another graph and draws random
+ * targets of a vertex with probability proportional to edge weight.
+ * 
+ * <p>Each vertex gets a Walker alias table the first time it is sampled,
+ * built in time linear in its number of targets; after that every draw
+ * takes constant time. set() drops the table of the edge's source, and
+ * remove() the tables of the removed vertex and of its sources, so tables
+ * are rebuilt only for vertices whose edges changed.
+ * 
+ * <p>Only the operations of Graph invalidate tables: changes made to the
+ * wrapped graph directly are not seen. A SamplingGraph is not thread-safe,
+ * even when sampling only.
+ */
+public final class SamplingGraph<L> implements Graph<L> {
+    
+    private final Graph<L> graph;
+    private final Map<L, AliasTable<L>> tables = new HashMap<>();
+    
+    // Abstraction function:
+    //   represents the same graph as graph, where tables.get(v) draws the
+    //   targets of v in proportion to their weights
+    // Representation invariant:
+    //   for every v in tables, tables.get(v) was built from targets(v), and
+    //     no edge out of v has been set or removed through this wrapper since
+    //   no table is empty
+    // Safety from rep exposure:
+    //   All fields are private and final; graph is shared with the client
+    //   on purpose, and results of graph are returned unchanged
+    //   tables are never returned
+    
+    /**
+     * Wrap a graph.
+     * 
+     * @param graph graph to forward operations to
+     */
+    public SamplingGraph(Graph<L> graph){
+        this.graph = graph;
+        checkRep();
+    }
+    private void checkRep(){
+        assert graph != null;
+    }
+    
+    /**
+     * Draw a random target of a vertex, each target with probability its
+     * edge weight over the total weight out of source.
+     * 
+     * @param source label of the source vertex
+     * @param random source of randomness
+     * @return a random target of source, null if source has no targets
+     */
+    public L sample(L source, Random random) {
+        AliasTable<L> table = tables.get(source);
+        if ( table == null ) {
+            final Map<L, Integer> targets = graph.targets(source);
+            if ( targets.isEmpty() ) {
+                return null;
+            }
+            table = new AliasTable<>(targets);
+            tables.put(source, table);
+        }
+        return table.sample(random);
+    }
+    
+    /**
+     * Take a random walk, choosing each step with sample().
+     * 
+     * @param start label of the first vertex
+     * @param steps maximum number of steps, requires steps >= 0
+     * @param random source of randomness
+     * @return the vertices visited, starting with start, with steps + 1
+     *         vertices unless the walk reaches a vertex without targets first
+     */
+    public List<L> walk(L start, int steps, Random random) {
+        assert steps >= 0;
+        final List<L> visited = new ArrayList<>();
+        visited.add(start);
+        L current = start;
+        for ( int step = 0; step < steps; step++ ) {
+            current = sample(current, random);
+            if ( current == null ) {
+                break;
+            }
+            visited.add(current);
+        }
+        return Collections.unmodifiableList(visited);
+    }
+    
+    @Override public boolean add(L vertex) {
+        return graph.add(vertex);
+    }
+    
+    @Override public int set(L source, L target, int weight) {
+        final int previousWeight = graph.set(source, target, weight);
+        if ( previousWeight != weight ) {
+            tables.remove(source);
+        }
+        return previousWeight;
+    }
+    
+    @Override public boolean remove(L vertex) {
+        final List<L> sources = new ArrayList<>(graph.sources(vertex).keySet());
+        if ( !graph.remove(vertex) ) {
+            return false;
+        }
+        for ( L source : sources ) {
+            tables.remove(source);
+        }
+        tables.remove(vertex);
+        return true;
+    }
+    
+    @Override public Set<L> vertices() {
+        return graph.vertices();
+    }
+    
+    @Override public Map<L, Integer> sources(L target) {
+        return graph.sources(target);
+    }
+    
+    @Override public Map<L, Integer> targets(L source) {
+        return graph.targets(source);
+    }
+    
+    /** Returns the string representation of the wrapped graph */
+    @Override public String toString(){
+        return graph.toString();
+    }
+    
+    /**
+     * Immutable Walker alias table over the targets of one vertex, built
+     * with Vose's method.
+     * 
+     * This class is internal to the rep of SamplingGraph.
+     */
+    private static final class AliasTable<L> {
+        private final Object[] targets;
+        private final double[] probability;
+        private final int[] alias;
+        
+        // Abstraction function:
+        //   represents the distribution that picks column i uniformly, then
+        //   targets[i] with probability probability[i] and targets[alias[i]]
+        //   otherwise
+        // Representation invariant:
+        //   targets, probability and alias have the same length n > 0
+        //   0 <= probability[i] <= 1, 0 <= alias[i] < n
+        
+        AliasTable(Map<L, Integer> weights){
+            final int n = weights.size();
+            targets = new Object[n];
+            probability = new double[n];
+            alias = new int[n];
+            long total = 0;
+            int i = 0;
+            for ( Map.Entry<L, Integer> weight : weights.entrySet() ) {
+                targets[i++] = weight.getKey();
+                total += weight.getValue();
+            }
+            //scale each weight so that the average column holds exactly 1
+            final double[] scaled = new double[n];
+            final IntList small = new IntList();
+            final IntList large = new IntList();
+            i = 0;
+            for ( int weight : weights.values() ) {
+                scaled[i] = (double) weight * n / total;
+                ( scaled[i] < 1 ? small : large ).add(i);
+                i++;
+            }
+            //fill each small column with the excess of a large one
+            while ( !small.isEmpty() && !large.isEmpty() ) {
+                final int less = small.pop();
+                final int more = large.pop();
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] -= 1 - scaled[less];
+                ( scaled[more] < 1 ? small : large ).add(more);
+            }
+            //what is left is 1 up to rounding
+            while ( !large.isEmpty() ) {
+                probability[large.pop()] = 1;
+            }
+            while ( !small.isEmpty() ) {
+                probability[small.pop()] = 1;
+            }
+            assert n > 0;
+        }
+        
+        @SuppressWarnings("unchecked")
+        L sample(Random random){
+            final int column = random.nextInt(targets.length);
+            return (L) ( random.nextDouble() < probability[column] ? targets[column] : targets[alias[column]] );
+        }
+    }
+}
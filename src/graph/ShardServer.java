@@ -0,0 +1,289 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A separate local JVM process that hosts shards of ShardedGraphs.
+ * 
+ * <p>The server listens on a loopback port. Every connection to it is one
+ * shard, with its own vertices and edges, so one server can host shards of
+ * many graphs. Requests and results are sent with Java serialization,
+ * restricted to an allow-list of classes: the labels of a graph with
+ * remote shards must be strings or boxed primitives.
+ * 
+ * <p>The server only listens on the loopback interface, and exits when the
+ * process that launched it closes its standard input or dies. A connection
+ * that sends any other class, or a malformed request, is dropped.
+ */
+public final class ShardServer implements AutoCloseable {
+    
+    // request codes, each followed by its arguments as serialized objects
+    static final byte ADD = 1;
+    static final byte SET_TARGET = 2;
+    static final byte SET_SOURCE = 3;
+    static final byte REMOVE_VERTEX = 4;
+    static final byte UNLINK = 5;
+    static final byte VERTICES = 6;
+    static final byte SOURCES = 7;
+    static final byte TARGETS = 8;
+    static final byte ALL_TARGETS = 9;
+    /** Number of arguments of each request, indexed by request code */
+    private static final int[] ARGUMENTS = { -1, 1, 3, 3, 1, 3, 0, 1, 1, 0 };
+    
+    /** Classes that labels may have */
+    static final Set<String> LABEL_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class.getName(), Number.class.getName(), Integer.class.getName(),
+            Long.class.getName(), Short.class.getName(), Byte.class.getName(),
+            Double.class.getName(), Float.class.getName(), Character.class.getName(),
+            Boolean.class.getName())));
+    /** Classes that a server accepts in requests: labels, and the lists of UNLINK */
+    private static final Set<String> REQUEST_CLASSES = union(LABEL_CLASSES,
+            ArrayList.class.getName());
+    
+    private static final long EXIT_TIMEOUT_SECONDS = 5;
+    
+    private final Process process;
+    private final InetSocketAddress address;
+    
+    // Abstraction function:
+    //   represents the server running as process, listening on address
+    // Representation invariant:
+    //   address is a loopback address
+    // Safety from rep exposure:
+    //   All fields are private, final and never returned except the
+    //   immutable address
+    
+    private ShardServer(Process process, InetSocketAddress address){
+        this.process = process;
+        this.address = address;
+        checkRep();
+    }
+    private void checkRep(){
+        assert address.getAddress().isLoopbackAddress();
+    }
+    
+    /**
+     * Start a shard server in a new JVM process, with the same java
+     * executable and class path as this JVM.
+     * 
+     * @return the running server
+     * @throws IOException if the process cannot be started, or exits before
+     *         it is listening
+     */
+    public static ShardServer launch() throws IOException {
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final ProcessBuilder builder = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"), ShardServer.class.getName());
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        final Process process = builder.start();
+        
+        final BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII));
+        final String port = output.readLine();
+        if ( port == null ) {
+            process.destroy();
+            throw new IOException("shard server exited before it was listening");
+        }
+        return new ShardServer(process,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(port.trim())));
+    }
+    
+    /** Returns the address that shards of this server are reached at */
+    public InetSocketAddress address() {
+        return address;
+    }
+    
+    /** Stop the server process, dropping every shard it hosts */
+    @Override public void close() {
+        try {
+            process.getOutputStream().close();
+            if ( !process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS) ) {
+                process.destroyForcibly();
+            }
+        } catch (IOException ioe) {
+            process.destroyForcibly();
+        } catch (InterruptedException ie) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Run a shard server: listen on a free loopback port, print the port on
+     * a line of standard output, and serve every connection as a new shard
+     * until standard input is closed.
+     * 
+     * @param args ignored
+     * @throws IOException if the server cannot listen
+     */
+    public static void main(String[] args) throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            System.out.println(server.getLocalPort());
+            System.out.flush();
+            startDaemon(() -> {
+                waitForEndOfInput(System.in);
+                System.exit(0);
+            });
+            while ( true ) {
+                final Socket connection = server.accept();
+                startDaemon(() -> serve(connection));
+            }
+        }
+    }
+    
+    /** Returns a new set of the elements of a set and some more */
+    static Set<String> union(Set<String> classes, String... more) {
+        final Set<String> union = new HashSet<>(classes);
+        union.addAll(Arrays.asList(more));
+        return Collections.unmodifiableSet(union);
+    }
+    
+    private static void startDaemon(Runnable task) {
+        final Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private static void waitForEndOfInput(InputStream input) {
+        try {
+            while ( input.read() >= 0 ) {
+                //ignore anything the parent sends
+            }
+        } catch (IOException ioe) {
+            //the parent is gone either way
+        }
+    }
+    
+    /** Serves one connection as a new empty shard until the client disconnects */
+    private static void serve(Socket connection) {
+        final LocalShard<Object> shard = new LocalShard<>();
+        try (Socket socket = connection) {
+            socket.setTcpNoDelay(true);
+            final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.flush();
+            final ObjectInputStream in = new FilteredInputStream(
+                    new BufferedInputStream(socket.getInputStream()), REQUEST_CLASSES);
+            while ( true ) {
+                final int request = in.read();
+                if ( request < 0 ) {
+                    return;
+                }
+                if ( request >= ARGUMENTS.length || ARGUMENTS[request] < 0 ) {
+                    return; //unknown request, so the stream cannot be followed
+                }
+                //read every argument before using any, so that a bad argument
+                //fails only its own request and leaves the stream in step
+                final Object[] arguments = new Object[ARGUMENTS[request]];
+                for ( int i = 0; i < arguments.length; i++ ) {
+                    arguments[i] = in.readObject();
+                }
+                Object result;
+                try {
+                    result = handle((byte) request, arguments, shard);
+                    out.writeBoolean(true);
+                } catch (RuntimeException re) {
+                    result = re.toString();
+                    out.writeBoolean(false);
+                }
+                out.writeObject(result);
+                out.reset();
+                out.flush();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            //the client is gone or broke the protocol; drop its shard
+        }
+    }
+    
+    /**
+     * Runs one request on shard and returns its result
+     * 
+     * @throws ClassCastException if an argument has the wrong type
+     */
+    @SuppressWarnings("unchecked")
+    private static Object handle(byte request, Object[] arguments, LocalShard<Object> shard) {
+        switch ( request ) {
+        case ADD:
+            return shard.add(arguments[0]);
+        case SET_TARGET:
+            return shard.setTarget(arguments[0], arguments[1], (Integer) arguments[2]);
+        case SET_SOURCE:
+            shard.setSource(arguments[0], arguments[1], (Integer) arguments[2]);
+            return null;
+        case REMOVE_VERTEX:
+            return shard.removeVertex(arguments[0]);
+        case UNLINK:
+            shard.unlink(arguments[0], (Collection<Object>) arguments[1], (Collection<Object>) arguments[2]);
+            return null;
+        case VERTICES:
+            return new HashSet<>(shard.vertices());
+        case SOURCES:
+            return new HashMap<>(shard.sources(arguments[0]));
+        case TARGETS:
+            return new HashMap<>(shard.targets(arguments[0]));
+        case ALL_TARGETS:
+            final Map<Object, Map<Object, Integer>> allTargets = new HashMap<>();
+            shard.allTargets().forEach((source, targets) -> {
+                if ( !targets.isEmpty() ) {
+                    allTargets.put(source, new HashMap<>(targets));
+                }
+            });
+            return allTargets;
+        default:
+            throw new IllegalArgumentException("unknown request: " + request);
+        }
+    }
+    
+    /**
+     * An ObjectInputStream that only resolves classes on an allow-list, so
+     * that a peer cannot make it instantiate any other serializable class.
+     * 
+     * This class is internal to ShardServer and RemoteShard.
+     */
+    static final class FilteredInputStream extends ObjectInputStream {
+        private final Set<String> allowed;
+        
+        FilteredInputStream(InputStream in, Set<String> allowed) throws IOException {
+            super(in);
+            this.allowed = allowed;
+        }
+        
+        @Override protected Class<?> resolveClass(ObjectStreamClass description)
+                throws IOException, ClassNotFoundException {
+            if ( !allowed.contains(description.getName()) ) {
+                throw new InvalidClassException(description.getName(), "not allowed in shard messages");
+            }
+            return super.resolveClass(description);
+        }
+        
+        @Override protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("proxy classes are not allowed in shard messages");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An implementation of Graph that hash-partitions its vertices across
+ * shards. Each shard owns some of the vertices, together with their
+ * outgoing and incoming edges, so an edge s -> t is kept by the shard of s
+ * and by the shard of t.
+ * 
+ * <p>Shards are kept either on this JVM's heap, see
+ * {@link #ShardedGraph(int)}, or in separate JVM processes on this machine,
+ * see {@link #connect(List)}. sources() and targets() ask only the shard of
+ * the vertex; set() asks the shards of its two vertices, and remove() the
+ * shards of the removed vertex and of its neighbours. vertices() and
+ * toString() ask every shard.
+ * 
+ * <p>The sets and maps returned by this graph are read-only copies when
+ * shards are remote. A ShardedGraph is not safe for use by multiple threads.
+ */
+public class ShardedGraph<L> implements Graph<L>, AutoCloseable {
+    
+    private final List<GraphShard<L>> shards;
+    
+    // Abstraction function:
+    //   represents the graph whose vertices are the vertices of all shards,
+    //   with an edge s -> t of weight w iff shards.get(shardOf(s)).targets(s)
+    //   maps t to w
+    // Representation invariant:
+    //   shards is not empty
+    //   every vertex v is only in shards.get(shardOf(v))
+    //   shards.get(shardOf(s)).targets(s) maps t to w iff
+    //     shards.get(shardOf(t)).sources(t) maps s to w
+    // Safety from rep exposure:
+    //   All fields are private and final; shards is never returned, and
+    //   shards only return unmodifiable views or copies
+    
+    /**
+     * Make an empty graph with in-process shards.
+     * 
+     * @param numberOfShards requires numberOfShards > 0
+     */
+    public ShardedGraph(int numberOfShards){
+        assert numberOfShards > 0;
+        final List<GraphShard<L>> localShards = new ArrayList<>(numberOfShards);
+        for ( int i = 0; i < numberOfShards; i++ ) {
+            localShards.add(new LocalShard<>());
+        }
+        this.shards = Collections.unmodifiableList(localShards);
+        checkRep();
+    }
+    private ShardedGraph(List<GraphShard<L>> shards){
+        this.shards = Collections.unmodifiableList(shards);
+        checkRep();
+    }
+    private void checkRep(){
+        assert !shards.isEmpty();
+    }
+    
+    /**
+     * Make an empty graph with one new shard on each of the given servers.
+     * Labels of the graph must be strings or boxed primitives. Close the
+     * graph to drop its shards from the servers.
+     * 
+     * @param <L> type of vertex labels in the graph, must be String or a
+     *            boxed primitive type
+     * @param servers addresses of running shard servers, see
+     *                {@link ShardServer}; requires servers not empty
+     * @return a new empty graph sharded across servers
+     * @throws IOException if a server cannot be reached
+     */
+    public static <L> ShardedGraph<L> connect(List<InetSocketAddress> servers) throws IOException {
+        assert !servers.isEmpty();
+        final List<GraphShard<L>> remoteShards = new ArrayList<>(servers.size());
+        try {
+            for ( InetSocketAddress server : servers ) {
+                remoteShards.add(new RemoteShard<>(server));
+            }
+        } catch (IOException ioe) {
+            remoteShards.forEach(GraphShard::close);
+            throw ioe;
+        }
+        return new ShardedGraph<>(remoteShards);
+    }
+    
+    //helper code
+    private GraphShard<L> shardOf(Object vertex){
+        final int hash = vertex.hashCode() * 0x9E3779B9;
+        return shards.get(Math.floorMod(hash ^ (hash >>> 16), shards.size()));
+    }
+    /** Removes vertex from the target or source maps of neighbours, one request per shard */
+    private void unlink(L vertex, Set<L> sourcesOfVertex, Set<L> targetsOfVertex){
+        final Map<GraphShard<L>, List<L>> targetsOf = new IdentityHashMap<>();
+        final Map<GraphShard<L>, List<L>> sourcesOf = new IdentityHashMap<>();
+        for ( L source : sourcesOfVertex ) {
+            if ( !source.equals(vertex) ) {
+                targetsOf.computeIfAbsent(shardOf(source), s -> new ArrayList<>()).add(source);
+            }
+        }
+        for ( L target : targetsOfVertex ) {
+            if ( !target.equals(vertex) ) {
+                sourcesOf.computeIfAbsent(shardOf(target), s -> new ArrayList<>()).add(target);
+            }
+        }
+        for ( GraphShard<L> shard : shards ) {
+            final List<L> shardTargetsOf = targetsOf.getOrDefault(shard, Collections.emptyList());
+            final List<L> shardSourcesOf = sourcesOf.getOrDefault(shard, Collections.emptyList());
+            if ( !shardTargetsOf.isEmpty() || !shardSourcesOf.isEmpty() ) {
+                shard.unlink(vertex, shardTargetsOf, shardSourcesOf);
+            }
+        }
+    }
+    //end of helper code
+    
+    @Override public boolean add(L vertex) {
+        return shardOf(vertex).add(vertex);
+    }
+    
+    @Override public int set(L source, L target, int weight) {
+        assert weight >= 0;
+        
+        final int previousWeight = shardOf(source).setTarget(source, target, weight);
+        if ( weight > 0 || previousWeight > 0 ) {
+            shardOf(target).setSource(target, source, weight);
+        }
+        return previousWeight;
+    }
+    
+    @Override public boolean remove(L vertex) {
+        final GraphShard.Neighbours<L> removed = shardOf(vertex).removeVertex(vertex);
+        if ( removed == null ) {
+            return false;
+        }
+        unlink(vertex, removed.sources.keySet(), removed.targets.keySet());
+        return true;
+    }
+    
+    /** Returns a read-only copy of the labels of this graph's vertices */
+    @Override public Set<L> vertices() {
+        final Set<L> vertices = new HashSet<>();
+        for ( GraphShard<L> shard : shards ) {
+            vertices.addAll(shard.vertices());
+        }
+        return Collections.unmodifiableSet(vertices);
+    }
+    
+    @Override public Map<L, Integer> sources(L target) {
+        return shardOf(target).sources(target);
+    }
+    
+    @Override public Map<L, Integer> targets(L source) {
+        return shardOf(source).targets(source);
+    }
+    
+    /** Drops the shards of this graph; the graph must not be used afterwards */
+    @Override public void close() {
+        shards.forEach(GraphShard::close);
+    }
+    
+    /**
+     * Returns the string representation of this graph, in the format
+     * described in {@link Graphs}. Edges are grouped by shard, in shard
+     * order.
+     * 
+     * @return string rep of this graph containing all its edges,
+     *         "Empty Graph" if graph has no edges
+     */
+    @Override public String toString(){
+        final StringBuilder rep = new StringBuilder();
+        for ( GraphShard<L> shard : shards ) {
+            shard.allTargets().forEach((source, targets) -> targets.forEach((target, weight) -> {
+                if ( rep.length() > 0 ) {
+                    rep.append('\n');
+                }
+                rep.append(source).append(" -> ").append(target).append(": ").append(weight);
+            }));
+        }
+        return rep.length() == 0 ? "Empty Graph" : rep.toString();
+    }
+}
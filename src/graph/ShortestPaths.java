@@ -0,0 +1,415 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Immutable single-source shortest paths of a graph, where the length of a
+ * path is the sum of its edge weights.
+ * 
+ * <p>Both algorithms run over the int-indexed CSR arrays of a
+ * {@link FrozenGraph}, freezing the graph first unless it is already
+ * frozen, and keep distances in a long array indexed by vertex id.
+ * {@link #dijkstra(Graph, Object)} uses a binary heap of vertex ids with
+ * decrease-key; {@link #deltaStepping(Graph, Object, long, ForkJoinPool)}
+ * relaxes the edges of each distance bucket in parallel.
+ */
+public final class ShortestPaths<L> {
+    
+    /** Returned by distanceTo() for a vertex that the source does not reach */
+    public static final long NO_PATH = -1;
+    
+    private static final long UNREACHED = Long.MAX_VALUE;
+    private static final int NO_PARENT = -1;
+    private static final int PARALLEL_THRESHOLD = 512;
+    
+    private final FrozenGraph<L> graph;
+    private final L source;
+    private final long[] distances;
+    private final int[] parents;
+    
+    // Abstraction function:
+    //   represents the shortest paths from source in graph: vertex v is
+    //   reached iff distances[v] != UNREACHED, at distance distances[v],
+    //   along the shortest path ending with the edge parents[v] -> v
+    // Representation invariant:
+    //   distances.length == parents.length == graph.vertexCount()
+    //   if source is in graph, distances[id(source)] == 0 and
+    //     parents[id(source)] == NO_PARENT
+    //   for every other reached v, parents[v] is reached and
+    //     distances[parents[v]] + weight(parents[v], v) == distances[v]
+    //   unreached vertices have no parent
+    // Safety from rep exposure:
+    //   All fields are private and final; arrays are never returned, and
+    //   graph is immutable
+    
+    private ShortestPaths(FrozenGraph<L> graph, L source, long[] distances, int[] parents){
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+        checkRep();
+    }
+    private void checkRep(){
+        assert distances.length == graph.vertexCount();
+        assert parents.length == graph.vertexCount();
+        final int s = graph.id(source);
+        assert s < 0 || ( distances[s] == 0 && parents[s] == NO_PARENT );
+    }
+    
+    /**
+     * Find shortest paths with Dijkstra's algorithm.
+     * 
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to search
+     * @param source label of the vertex paths start at; if it is not in
+     *               graph, no vertex is reached
+     * @return the shortest paths from source
+     */
+    public static <L> ShortestPaths<L> dijkstra(Graph<L> graph, L source) {
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final int n = frozen.vertexCount();
+        final long[] distances = unreached(n);
+        final int[] parents = new int[n];
+        Arrays.fill(parents, NO_PARENT);
+        
+        final int s = frozen.id(source);
+        if ( s >= 0 ) {
+            distances[s] = 0;
+            final IdHeap heap = new IdHeap(distances);
+            heap.insertOrDecrease(s);
+            while ( !heap.isEmpty() ) {
+                final int u = heap.poll();
+                for ( int i = frozen.targetStart(u); i < frozen.targetEnd(u); i++ ) {
+                    final int v = frozen.targetId(i);
+                    final long candidate = distances[u] + frozen.targetWeight(i);
+                    if ( candidate < distances[v] ) {
+                        distances[v] = candidate;
+                        parents[v] = u;
+                        heap.insertOrDecrease(v);
+                    }
+                }
+            }
+        }
+        return new ShortestPaths<>(frozen, source, distances, parents);
+    }
+    
+    /**
+     * Find shortest paths with delta-stepping, using the common pool and a
+     * bucket width of the average edge weight.
+     * 
+     * @see #deltaStepping(Graph, Object, long, ForkJoinPool)
+     */
+    public static <L> ShortestPaths<L> deltaStepping(Graph<L> graph, L source) {
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final long delta = frozen.edgeCount() == 0 ? 1 : Math.max(1, frozen.totalWeight() / frozen.edgeCount());
+        return deltaStepping(frozen, source, delta, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Find shortest paths with delta-stepping. Vertices are kept in buckets
+     * of distances [i*delta, (i+1)*delta); the buckets are settled in
+     * order, and the edges out of the vertices of a bucket are relaxed by
+     * tasks of pool, light edges (weight <= delta) until the bucket stays
+     * empty, then heavy edges once.
+     * 
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to search
+     * @param source label of the vertex paths start at; if it is not in
+     *               graph, no vertex is reached
+     * @param delta bucket width, requires delta > 0
+     * @param pool pool to relax edges in
+     * @return the shortest paths from source; distances are the same as
+     *         dijkstra()'s, and when several paths are shortest, either
+     *         may be chosen
+     */
+    public static <L> ShortestPaths<L> deltaStepping(Graph<L> graph, L source, long delta, ForkJoinPool pool) {
+        assert delta > 0;
+        
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final int n = frozen.vertexCount();
+        final AtomicLongArray distances = new AtomicLongArray(n);
+        for ( int v = 0; v < n; v++ ) {
+            distances.set(v, UNREACHED);
+        }
+        
+        final int s = frozen.id(source);
+        if ( s >= 0 ) {
+            distances.set(s, 0);
+            final TreeMap<Long, IntList> buckets = new TreeMap<>();
+            final IntList first = new IntList();
+            first.add(s);
+            buckets.put(0L, first);
+            final int[] inFrontier = new int[n];
+            int phase = 0;
+            
+            while ( !buckets.isEmpty() ) {
+                final long bucket = buckets.firstKey();
+                final IntList settled = new IntList();
+                IntList pending = buckets.remove(bucket);
+                while ( pending != null ) {
+                    //drop entries that moved to a lower distance, and duplicates
+                    phase++;
+                    final IntList frontier = new IntList(pending.size());
+                    for ( int k = 0; k < pending.size(); k++ ) {
+                        final int v = pending.get(k);
+                        if ( distances.get(v) / delta == bucket && inFrontier[v] != phase ) {
+                            inFrontier[v] = phase;
+                            frontier.add(v);
+                        }
+                    }
+                    settled.addAll(frontier);
+                    final IntList improved = pool.invoke(new Relaxation(frozen, distances, frontier, 0,
+                            frontier.size(), delta, true));
+                    fillBuckets(buckets, improved, distances, delta);
+                    pending = buckets.remove(bucket);
+                }
+                final IntList improved = pool.invoke(new Relaxation(frozen, distances, settled, 0,
+                        settled.size(), delta, false));
+                fillBuckets(buckets, improved, distances, delta);
+            }
+        }
+        
+        final long[] finalDistances = new long[n];
+        for ( int v = 0; v < n; v++ ) {
+            finalDistances[v] = distances.get(v);
+        }
+        return new ShortestPaths<>(frozen, source, finalDistances, parentsOf(frozen, s, finalDistances));
+    }
+    
+    //helper code
+    private static long[] unreached(int n) {
+        final long[] distances = new long[n];
+        Arrays.fill(distances, UNREACHED);
+        return distances;
+    }
+    
+    /** Puts every improved vertex in the bucket of its current distance */
+    private static void fillBuckets(TreeMap<Long, IntList> buckets, IntList improved,
+            AtomicLongArray distances, long delta) {
+        for ( int k = 0; k < improved.size(); k++ ) {
+            final int v = improved.get(k);
+            buckets.computeIfAbsent(distances.get(v) / delta, b -> new IntList()).add(v);
+        }
+    }
+    
+    /**
+     * Finds a shortest-path parent of every reached vertex from the final
+     * distances, so parallel relaxations need not agree on parents.
+     */
+    private static int[] parentsOf(FrozenGraph<?> graph, int source, long[] distances) {
+        final int[] parents = new int[distances.length];
+        Arrays.fill(parents, NO_PARENT);
+        for ( int v = 0; v < distances.length; v++ ) {
+            if ( v == source || distances[v] == UNREACHED ) {
+                continue;
+            }
+            for ( int i = graph.sourceStart(v); i < graph.sourceEnd(v); i++ ) {
+                final int u = graph.sourceId(i);
+                if ( distances[u] != UNREACHED && distances[u] + graph.sourceWeight(i) == distances[v] ) {
+                    parents[v] = u;
+                    break;
+                }
+            }
+        }
+        return parents;
+    }
+    //end of helper code
+    
+    /** Returns the label of the vertex paths start at */
+    public L source() {
+        return source;
+    }
+    
+    /**
+     * @param target label of a vertex
+     * @return true if there is a path from source to target
+     */
+    public boolean reaches(L target) {
+        final int t = graph.id(target);
+        return t >= 0 && distances[t] != UNREACHED;
+    }
+    
+    /**
+     * @param target label of a vertex
+     * @return the length of a shortest path from source to target,
+     *         NO_PATH if there is none
+     */
+    public long distanceTo(L target) {
+        return reaches(target) ? distances[graph.id(target)] : NO_PATH;
+    }
+    
+    /**
+     * @param target label of a vertex
+     * @return the vertices of a shortest path from source to target,
+     *         starting with source and ending with target; empty if there
+     *         is no path
+     */
+    public List<L> pathTo(L target) {
+        if ( !reaches(target) ) {
+            return Collections.emptyList();
+        }
+        final List<L> path = new ArrayList<>();
+        for ( int v = graph.id(target); v != NO_PARENT; v = parents[v] ) {
+            path.add(graph.label(v));
+        }
+        Collections.reverse(path);
+        return Collections.unmodifiableList(path);
+    }
+    
+    /** Returns a new map from every reached vertex to its distance from source */
+    public Map<L, Long> distances() {
+        final Map<L, Long> reached = new HashMap<>();
+        for ( int v = 0; v < distances.length; v++ ) {
+            if ( distances[v] != UNREACHED ) {
+                reached.put(graph.label(v), distances[v]);
+            }
+        }
+        return reached;
+    }
+    
+    @Override public String toString(){
+        return "shortest paths from " + source + ": " + distances();
+    }
+    
+    /**
+     * Binary min-heap of vertex ids, ordered by their entries in a distance
+     * array that the caller lowers before calling insertOrDecrease().
+     */
+    private static final class IdHeap {
+        private final long[] keys;
+        private final int[] heap;
+        private final int[] positions;
+        private int size = 0;
+        
+        IdHeap(long[] keys){
+            this.keys = keys;
+            this.heap = new int[keys.length];
+            this.positions = new int[keys.length];
+            Arrays.fill(positions, -1);
+        }
+        boolean isEmpty(){
+            return size == 0;
+        }
+        /** Adds id, or moves it up after its key was lowered */
+        void insertOrDecrease(int id){
+            int position = positions[id];
+            if ( position < 0 ) {
+                position = size++;
+            }
+            while ( position > 0 ) {
+                final int parent = (position - 1) >>> 1;
+                if ( keys[heap[parent]] <= keys[id] ) {
+                    break;
+                }
+                place(heap[parent], position);
+                position = parent;
+            }
+            place(id, position);
+        }
+        /** Removes and returns the id with the lowest key */
+        int poll(){
+            final int top = heap[0];
+            positions[top] = -1;
+            final int last = heap[--size];
+            if ( size > 0 ) {
+                int position = 0;
+                while ( true ) {
+                    int child = 2 * position + 1;
+                    if ( child >= size ) {
+                        break;
+                    }
+                    if ( child + 1 < size && keys[heap[child + 1]] < keys[heap[child]] ) {
+                        child++;
+                    }
+                    if ( keys[last] <= keys[heap[child]] ) {
+                        break;
+                    }
+                    place(heap[child], position);
+                    position = child;
+                }
+                place(last, position);
+            }
+            return top;
+        }
+        private void place(int id, int position){
+            heap[position] = id;
+            positions[id] = position;
+        }
+    }
+    
+    /**
+     * Relaxes the light or heavy edges out of frontier[from..to), splitting
+     * the range between tasks; returns the vertices whose distance it
+     * lowered, possibly with duplicates.
+     */
+    private static final class Relaxation extends RecursiveTask<IntList> {
+        private static final long serialVersionUID = 1L;
+        
+        private final FrozenGraph<?> graph;
+        private final AtomicLongArray distances;
+        private final IntList frontier;
+        private final int from;
+        private final int to;
+        private final long delta;
+        private final boolean light;
+        
+        Relaxation(FrozenGraph<?> graph, AtomicLongArray distances, IntList frontier,
+                int from, int to, long delta, boolean light){
+            this.graph = graph;
+            this.distances = distances;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+            this.light = light;
+        }
+        
+        @Override protected IntList compute(){
+            if ( to - from > PARALLEL_THRESHOLD ) {
+                final int middle = (from + to) >>> 1;
+                final Relaxation left = new Relaxation(graph, distances, frontier, from, middle, delta, light);
+                left.fork();
+                final IntList improved =
+                        new Relaxation(graph, distances, frontier, middle, to, delta, light).compute();
+                improved.addAll(left.join());
+                return improved;
+            }
+            final IntList improved = new IntList();
+            for ( int k = from; k < to; k++ ) {
+                final int u = frontier.get(k);
+                final long distance = distances.get(u);
+                for ( int i = graph.targetStart(u); i < graph.targetEnd(u); i++ ) {
+                    final int weight = graph.targetWeight(i);
+                    if ( ( weight <= delta ) == light && lower(graph.targetId(i), distance + weight) ) {
+                        improved.add(graph.targetId(i));
+                    }
+                }
+            }
+            return improved;
+        }
+        
+        /** Atomically lowers the distance of v to candidate, returning true if it did */
+        private boolean lower(int v, long candidate){
+            long current = distances.get(v);
+            while ( candidate < current ) {
+                if ( distances.compareAndSet(v, current, candidate) ) {
+                    return true;
+                }
+                current = distances.get(v);
+            }
+            return false;
+        }
+    }
+}
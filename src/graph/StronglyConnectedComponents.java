@@ -0,0 +1,264 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable strongly connected components of a graph: maximal sets of
+ * vertices that can all reach each other.
+ * 
+ * <p>Components are found by Tarjan's algorithm over the int-indexed CSR
+ * arrays of a {@link FrozenGraph}, freezing the graph first unless it is
+ * already frozen. The depth-first search keeps its call stack in int
+ * arrays instead of recursing, so graphs of any depth are handled without
+ * StackOverflowError.
+ * 
+ * <p>Components are numbered 0..count()-1 in the order Tarjan's algorithm
+ * completes them, which is a reverse topological order: every edge between
+ * two components goes from a higher number to a lower one.
+ */
+public final class StronglyConnectedComponents<L> {
+    
+    private static final int UNVISITED = -1;
+    
+    private final FrozenGraph<L> graph;
+    private final int[] components;
+    private final int[] memberOffsets;
+    private final int[] members;
+    
+    // Abstraction function:
+    //   represents the components of graph, vertex v being in component
+    //   components[v], and component c having the vertices
+    //   members[memberOffsets[c]..memberOffsets[c+1])
+    // Representation invariant:
+    //   components.length == members.length == graph.vertexCount()
+    //   memberOffsets has length count() + 1, starts at 0, is increasing
+    //     and ends at graph.vertexCount()
+    //   components[members[i]] == c for memberOffsets[c] <= i < memberOffsets[c+1]
+    //   every edge u -> v has components[u] >= components[v]
+    // Safety from rep exposure:
+    //   All fields are private and final; arrays are never returned, and
+    //   members() returns an unmodifiable view
+    
+    private StronglyConnectedComponents(FrozenGraph<L> graph, int[] components, int count){
+        this.graph = graph;
+        this.components = components;
+        
+        //group vertices by component with a counting sort
+        memberOffsets = new int[count + 1];
+        for ( int component : components ) {
+            memberOffsets[component + 1]++;
+        }
+        for ( int c = 0; c < count; c++ ) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[components.length];
+        final int[] next = Arrays.copyOf(memberOffsets, count);
+        for ( int v = 0; v < components.length; v++ ) {
+            members[next[components[v]]++] = v;
+        }
+        checkRep();
+    }
+    private void checkRep(){
+        assert components.length == graph.vertexCount();
+        assert members.length == components.length;
+        assert memberOffsets[memberOffsets.length - 1] == components.length;
+    }
+    
+    /**
+     * Find the strongly connected components of a graph.
+     * 
+     * @param <L> type of vertex labels in the graph
+     * @param graph graph to search
+     * @return the components of graph
+     */
+    public static <L> StronglyConnectedComponents<L> of(Graph<L> graph) {
+        final FrozenGraph<L> frozen = Graphs.freeze(graph);
+        final int n = frozen.vertexCount();
+        final int[] index = new int[n];
+        final int[] lowLink = new int[n];
+        final int[] cursor = new int[n];
+        final int[] components = new int[n];
+        Arrays.fill(index, UNVISITED);
+        Arrays.fill(components, UNVISITED);
+        final IntList calls = new IntList();
+        final IntList open = new IntList();
+        int nextIndex = 0;
+        int count = 0;
+        
+        for ( int root = 0; root < n; root++ ) {
+            if ( index[root] != UNVISITED ) {
+                continue;
+            }
+            index[root] = lowLink[root] = nextIndex++;
+            cursor[root] = frozen.targetStart(root);
+            calls.add(root);
+            open.add(root);
+            while ( !calls.isEmpty() ) {
+                final int u = calls.peek();
+                if ( cursor[u] < frozen.targetEnd(u) ) {
+                    final int v = frozen.targetId(cursor[u]++);
+                    if ( index[v] == UNVISITED ) {
+                        //descend into v
+                        index[v] = lowLink[v] = nextIndex++;
+                        cursor[v] = frozen.targetStart(v);
+                        calls.add(v);
+                        open.add(v);
+                    } else if ( components[v] == UNVISITED ) {
+                        //v is still open, so it is on the current path's component stack
+                        lowLink[u] = Math.min(lowLink[u], index[v]);
+                    }
+                    continue;
+                }
+                //every edge of u is done: return from u
+                calls.pop();
+                if ( lowLink[u] == index[u] ) {
+                    int member;
+                    do {
+                        member = open.pop();
+                        components[member] = count;
+                    } while ( member != u );
+                    count++;
+                }
+                if ( !calls.isEmpty() ) {
+                    final int parent = calls.peek();
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[u]);
+                }
+            }
+        }
+        return new StronglyConnectedComponents<>(frozen, components, count);
+    }
+    
+    /** Returns the number of components */
+    public int count() {
+        return memberOffsets.length - 1;
+    }
+    
+    /**
+     * @param vertex label of a vertex
+     * @return the number of the component of vertex, -1 if it is not in
+     *         the graph
+     */
+    public int componentOf(L vertex) {
+        final int v = graph.id(vertex);
+        return v < 0 ? -1 : components[v];
+    }
+    
+    /**
+     * @param component number of a component, requires 0 <= component < count()
+     * @return read-only view of the vertices of component
+     */
+    public Set<L> members(int component) {
+        assert component >= 0 && component < count();
+        final int start = memberOffsets[component];
+        final int end = memberOffsets[component + 1];
+        return new AbstractSet<L>() {
+            @Override public int size(){
+                return end - start;
+            }
+            @Override public boolean contains(Object vertex){
+                final int v = graph.id(vertex);
+                return v >= 0 && components[v] == component;
+            }
+            @Override public Iterator<L> iterator(){
+                return new Iterator<L>() {
+                    private int i = start;
+                    @Override public boolean hasNext(){
+                        return i < end;
+                    }
+                    @Override public L next(){
+                        if ( i >= end ) {
+                            throw new NoSuchElementException();
+                        }
+                        return graph.label(members[i++]);
+                    }
+                };
+            }
+        };
+    }
+    
+    /**
+     * Returns the components that contain a cycle: those with more than one
+     * vertex, and single vertices with an edge to themselves.
+     * 
+     * @return the vertices of each cyclic component, in component order
+     */
+    public List<Set<L>> cyclicComponents() {
+        final List<Set<L>> cyclic = new ArrayList<>();
+        for ( int c = 0; c < count(); c++ ) {
+            final int start = memberOffsets[c];
+            if ( memberOffsets[c + 1] - start > 1 || hasLoop(members[start]) ) {
+                cyclic.add(members(c));
+            }
+        }
+        return Collections.unmodifiableList(cyclic);
+    }
+    
+    private boolean hasLoop(int v) {
+        for ( int i = graph.targetStart(v); i < graph.targetEnd(v); i++ ) {
+            if ( graph.targetId(i) == v ) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Build the condensation of the graph: the acyclic graph with one vertex
+     * per component, labelled by its number, and an edge c -> d whenever
+     * some edge goes from a vertex of c to a vertex of d != c. The weight of
+     * c -> d is the sum of the weights of those edges, capped at
+     * Integer.MAX_VALUE.
+     * 
+     * @return a new read-only graph of the components
+     */
+    public Graph<Integer> condensation() {
+        final int count = count();
+        final Graph<Integer> condensed = Graphs.intIndexed();
+        for ( int c = 0; c < count; c++ ) {
+            condensed.add(c);
+        }
+        //sum the weights out of each component into a scratch row
+        final long[] weights = new long[count];
+        final IntList touched = new IntList();
+        for ( int c = 0; c < count; c++ ) {
+            for ( int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++ ) {
+                final int u = members[i];
+                for ( int k = graph.targetStart(u); k < graph.targetEnd(u); k++ ) {
+                    final int d = components[graph.targetId(k)];
+                    if ( d == c ) {
+                        continue;
+                    }
+                    if ( weights[d] == 0 ) {
+                        touched.add(d);
+                    }
+                    weights[d] += graph.targetWeight(k);
+                }
+            }
+            for ( int k = 0; k < touched.size(); k++ ) {
+                final int d = touched.get(k);
+                condensed.set(c, d, (int) Math.min(weights[d], Integer.MAX_VALUE));
+                weights[d] = 0;
+            }
+            touched.clear();
+        }
+        return Graphs.freeze(condensed);
+    }
+    
+    @Override public String toString(){
+        final List<Set<L>> all = new ArrayList<>();
+        for ( int c = 0; c < count(); c++ ) {
+            all.add(members(c));
+        }
+        return all.toString();
+    }
+}
@@ -15,18 +15,40 @@ import java.util.Scanner;
 import java.util.Set;
 import java.util.stream.Collectors;
 import graph.Graph;
+import graph.GraphHints;
+import graph.Graphs;
+import graph.MappedGraph;
+import graph.SamplingGraph;
 public class GraphPoet {
    private final Graph<String> wordGraph;
+   private final SamplingGraph<String> wordSampler;
    private final List<String> wordList;
   
    public GraphPoet(File textFile) throws IOException {
        wordList = extractWordsFromFile(textFile);
-       wordGraph = buildWordGraph(wordList);
+       wordGraph = Graphs.freeze(buildWordGraph(wordList));
+       wordSampler = Graphs.sampling(wordGraph);
+       checkRepresentation();
+   }
+  
+   /**
+    * Create a poet over a word graph built earlier, for example one opened
+    * with graph.MappedGraph, without reading a corpus. The poet keeps a
+    * frozen copy of a mutable graph, so later changes to wordGraph do not
+    * affect it; graphs that are already immutable are used as they are.
+    * 
+    * @param wordGraph graph of word adjacencies, as built from a corpus
+    */
+   public GraphPoet(Graph<String> wordGraph) {
+       this.wordList = Collections.emptyList();
+       this.wordGraph = wordGraph instanceof MappedGraph ? wordGraph : Graphs.freeze(wordGraph);
+       this.wordSampler = Graphs.sampling(this.wordGraph);
        checkRepresentation();
    }
   
    private void checkRepresentation() {
        assert wordGraph != null;
+       assert wordSampler != null;
    }
    private List<String> extractWordsFromFile(File file) throws IOException {
        List<String> words = new ArrayList<>();
@@ -39,7 +61,11 @@ public class GraphPoet {
        return words;
    }
    private Graph<String> buildWordGraph(List<String> words){
-       Graph<String> graph = Graph.empty();
+       //the graph is frozen once built, and has at most one vertex and one
+       //edge per word
+       Graph<String> graph = Graphs.create(GraphHints.NONE.buildOnce()
+               .withExpectedVertices(words.size())
+               .withExpectedEdges(words.size()));
       
        for (int i = 0; i < words.size(); i++) {
            String source = words.get(i);
@@ -48,8 +74,7 @@ public class GraphPoet {
                break;
            }
            String target = words.get(i + 1);
-           int prevCount = graph.set(source, target, 1);
-           graph.set(source, target, prevCount + 1);
+           Graphs.increment(graph, source, target, 1);
        }
        return graph;
    }
@@ -74,9 +99,7 @@ public class GraphPoet {
                    .collect(Collectors.toList());
           
            if (!allBridges.isEmpty()) {
-               Random rand = new Random();
-               int  n = rand.nextInt(allBridges.size());
-               String bridge = allBridges.get(n);
+               String bridge = pickBridge(word1Targets, allBridges, word2Sources);
                int insertAt = poem.indexOf(inputWords[i+1], fromIndex);
                poem.insert(insertAt, bridge + " ");
            }
@@ -85,6 +108,46 @@ public class GraphPoet {
        return poem.toString();
    }
   
+   /**
+    * Picks a bridge word at random, with the probability of the walk
+    * word1 -> bridge -> word2 in the word graph: the bridge's share of the
+    * weight out of word1, times word2's share of the weight out of the bridge.
+    * The weight out of word1 is the same for every bridge, so only the
+    * weight out of each bridge is needed to normalize.
+    */
+   private String pickBridge(Map<String, Integer> word1Targets, List<String> bridges,
+           Map<String, Integer> word2Sources) {
+       double[] cumulative = new double[bridges.size()];
+       double total = 0;
+       for (int i = 0; i < bridges.size(); i++) {
+           String bridge = bridges.get(i);
+           total += (double) word1Targets.get(bridge) * word2Sources.get(bridge)
+                   / Graphs.outWeight(wordGraph, bridge);
+           cumulative[i] = total;
+       }
+       double r = new Random().nextDouble() * total;
+       for (int i = 0; i < bridges.size() - 1; i++) {
+           if (r < cumulative[i]) {
+               return bridges.get(i);
+           }
+       }
+       return bridges.get(bridges.size() - 1);
+   }
+  
+   /**
+    * Generates text by a random walk over the word graph, each next word
+    * following the current one with probability proportional to how often
+    * it follows it in the corpus.
+    * 
+    * @param start first word of the text
+    * @param length maximum number of words after start, requires length >= 0
+    * @return the words of the walk separated by spaces; shorter than
+    *         length + 1 words if the walk reaches a word nothing follows
+    */
+   public String randomWalk(String start, int length) {
+       return String.join(" ", wordSampler.walk(start.toLowerCase(), length, new Random()));
+   }
+  
    @Override
    public String toString() {
        return wordGraph.toString();
@@ -5,6 +5,13 @@ package graph;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -61,7 +68,51 @@ public class ConcreteEdgesGraphTest extends GraphInstanceTest {
         assertTrue("Expected correct syntax", 
                 graph.toString().matches(regex));
     }
+    @Test
+    //covers graph whose edges were all removed with their vertex
+    public void testToStringAfterRemovingVertex(){
+        Graph<String> graph = emptyInstance();
+
+        graph.set("source1", "target1", 1);
+        graph.set("target1", "source1", 2);
+        graph.set("source1", "source1", 3);
+        graph.remove("source1");
+
+        assertEquals("Expected no edges left", "Empty Graph", graph.toString());
+        assertEquals("Expected no targets left",
+                Collections.emptyMap(), graph.targets("target1"));
+        assertEquals("Expected no sources left",
+                Collections.emptyMap(), graph.sources("target1"));
+    }
     
+    // Testing strategy for ConcreteEdgesGraph.sources() and targets()
+    //   view taken before the vertex has edges, while it has edges,
+    //   and kept after its last edge is removed
+    //   the view is read-only
+    @Test
+    //covers view taken before and kept after the vertex's edges
+    public void testTargetsLiveView(){
+        Graph<String> graph = emptyInstance();
+        Map<String, Integer> targets = graph.targets("source1");
+        Map<String, Integer> sources = graph.sources("target1");
+        
+        graph.set("source1", "target1", 2);
+        assertEquals("Expected view to see new edge", (Integer) 2, targets.get("target1"));
+        assertEquals("Expected view to see new edge", (Integer) 2, sources.get("source1"));
+        
+        graph.set("source1", "target1", 0);
+        assertTrue("Expected view to see removal", targets.isEmpty());
+        assertTrue("Expected view to see removal", sources.isEmpty());
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    //covers view is read-only
+    public void testTargetsReadOnly(){
+        Graph<String> graph = emptyInstance();
+        graph.set("source1", "target1", 2);
+        
+        graph.targets("source1").clear();
+    }
+
     // TODO tests for ConcreteEdgesGraph.toString()
     // TODO: include tests for postcondition, ie, structure of the string
    
@@ -241,4 +292,230 @@ public class ConcreteEdgesGraphTest extends GraphInstanceTest {
         assertNotEquals("Expected different hashcodes for unequal edges", 
                 hashCodeEdge1, hashCodeEdge2);
     }
+    
+    // Testing strategy for increment(source, target, delta) -> newWeight
+    //   edge: doesn't exist (vertices added), exists
+    //   delta: 1, > 1
+    @Test
+    //covers edge doesn't exist, edge exists, delta 1 and > 1
+    public void testIncrement(){
+        CountingGraph<String> graph = (CountingGraph<String>) emptyInstance();
+        
+        assertEquals("Expected new edge with weight delta", 1, graph.increment("a", "b", 1));
+        assertEquals("Expected weight increased", 4, graph.increment("a", "b", 3));
+        assertEquals("Expected targets updated", (Integer) 4, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 4, graph.sources("b").get("a"));
+        assertEquals("Expected vertices added", 2, graph.vertices().size());
+        assertEquals("Expected set() to see incremented weight", 4, graph.set("a", "b", 0));
+    }
+    
+    // Testing strategy for setAll(...)
+    //   edges: iterator, parallel arrays
+    //   entries: new edge, update of an earlier entry, removal (arrays only)
+    @Test
+    //covers iterator of new and updated edges
+    public void testSetAllIterator(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.setAll(Arrays.asList(
+                new Edge<>("a", "b", 1),
+                new Edge<>("b", "c", 2),
+                new Edge<>("a", "b", 3)).iterator());
+        
+        assertEquals("Expected last weight to win", (Integer) 3, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 2, graph.sources("c").get("b"));
+        assertEquals("Expected vertices added", 3, graph.vertices().size());
+    }
+    @Test
+    //covers parallel arrays with a removal
+    public void testSetAllArrays(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.setAll(new String[] { "a", "b", "a" },
+                     new String[] { "b", "c", "b" },
+                     new int[] { 1, 2, 0 });
+        
+        assertEquals("Expected a -> b removed", Collections.emptyMap(), graph.targets("a"));
+        assertEquals("Expected b -> c kept", (Integer) 2, graph.targets("b").get("c"));
+    }
+    
+    // Testing strategy for the edge table
+    //   removed slots: edge removed with set(), edges removed with a vertex
+    //   reuse: new edge after removals, vertex re-added after removal
+    @Test
+    //covers slots and vertex ids reused after set() and remove()
+    public void testEdgeTableReuse(){
+        Graph<String> graph = emptyInstance();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 2);
+        graph.set("c", "a", 3);
+        graph.set("a", "b", 0);
+        graph.remove("c");
+        graph.set("c", "d", 4);
+        graph.set("d", "a", 5);
+        
+        assertEquals("Expected removed edges forgotten", Collections.emptyMap(), graph.targets("b"));
+        assertEquals("Expected new edges in reused slots", (Integer) 4, graph.targets("c").get("d"));
+        assertEquals("Expected new edges in reused slots", (Integer) 5, graph.sources("a").get("d"));
+        assertEquals("Expected only the live edges", 2, graph.toString().split("\n").length);
+        assertTrue("Expected re-added vertex", graph.vertices().contains("c"));
+    }
+    
+    // Testing strategy for the DegreeGraph queries
+    //   operations before the query: set() adding, updating and removing
+    //     edges, increment(), remove() of vertices
+    //   vertex: in graph, not in graph
+    //   observe by comparing with sources() and targets()
+    @Test
+    //covers random sequences of all operations, vertex in and not in graph
+    public void testDegreesMatchEdges(){
+        DegreeGraph<String> graph = (DegreeGraph<String>) emptyInstance();
+        Random random = new Random(17);
+        for ( int round = 0; round < 2000; round++ ) {
+            String source = "v" + random.nextInt(12);
+            String target = "v" + random.nextInt(12);
+            switch ( random.nextInt(4) ) {
+            case 0:  graph.set(source, target, random.nextInt(3)); break;
+            case 1:  graph.set(source, target, 1 + random.nextInt(50)); break;
+            case 2:  ((CountingGraph<String>) graph).increment(source, target, 1 + random.nextInt(5)); break;
+            default: if ( random.nextInt(10) == 0 ) { graph.remove(source); }
+            }
+        }
+        long totalWeight = 0;
+        int edgeCount = 0;
+        for ( String vertex : graph.vertices() ) {
+            assertEquals(graph.targets(vertex).size(), graph.outDegree(vertex));
+            assertEquals(graph.sources(vertex).size(), graph.inDegree(vertex));
+            assertEquals(sum(graph.targets(vertex)), graph.outWeight(vertex));
+            assertEquals(sum(graph.sources(vertex)), graph.inWeight(vertex));
+            edgeCount += graph.targets(vertex).size();
+            totalWeight += sum(graph.targets(vertex));
+        }
+        assertEquals("Expected edge count", edgeCount, graph.edgeCount());
+        assertEquals("Expected total weight", totalWeight, graph.totalWeight());
+        assertEquals("Expected zero for a missing vertex", 0, graph.outWeight("missing"));
+        assertEquals("Expected zero for a missing vertex", 0, graph.inDegree("missing"));
+    }
+    private static long sum(Map<String, Integer> weights){
+        long sum = 0;
+        for ( int weight : weights.values() ) {
+            sum += weight;
+        }
+        return sum;
+    }
+    
+    // Testing strategy for the ObservableGraph events
+    //   mutators: add() new and existing vertex, set() adding vertices,
+    //     adding, reweighting, keeping and removing an edge, increment(),
+    //     setAll(), remove() of a vertex with edges and of a missing vertex
+    //   batches: none, nested; listeners: none, one, removed, last one
+    //     removed inside a batch
+    //   observe by recording events, and by replaying them on a replica
+    @Test
+    //covers every mutator without batches, one listener
+    public void testListenerEvents(){
+        ObservableGraph<String> graph = (ObservableGraph<String>) emptyInstance();
+        List<List<GraphEvent<String>>> deliveries = new ArrayList<>();
+        graph.addListener(events -> {
+            assertTrue("Expected the change to be complete", graph.vertices().containsAll(
+                    events.stream().filter(e -> e.getKind() == GraphEvent.Kind.VERTEX_ADDED)
+                        .map(GraphEvent::getSource).collect(Collectors.toList())));
+            deliveries.add(events);
+        });
+        
+        graph.add("a");
+        graph.add("a");
+        graph.set("a", "b", 2);
+        graph.set("a", "b", 2);
+        graph.set("a", "b", 5);
+        graph.set("c", "a", 1);
+        ((CountingGraph<String>) graph).increment("a", "b", 1);
+        graph.set("b", "c", 0);
+        graph.remove("missing");
+        graph.remove("a");
+        
+        assertEquals(Arrays.asList(
+                Arrays.asList(GraphEvent.vertexAdded("a")),
+                Arrays.asList(GraphEvent.vertexAdded("b"), GraphEvent.edgeChanged("a", "b", 0, 2)),
+                Arrays.asList(GraphEvent.edgeChanged("a", "b", 2, 5)),
+                Arrays.asList(GraphEvent.vertexAdded("c"), GraphEvent.edgeChanged("c", "a", 0, 1)),
+                Arrays.asList(GraphEvent.edgeChanged("a", "b", 5, 6)),
+                Arrays.asList(GraphEvent.edgeChanged("a", "b", 6, 0),
+                        GraphEvent.edgeChanged("c", "a", 1, 0), GraphEvent.vertexRemoved("a"))),
+                deliveries);
+    }
+    @Test
+    //covers setAll(), nested batches, listener removed, no listeners
+    public void testBatchesAndRemovedListener(){
+        ObservableGraph<String> graph = (ObservableGraph<String>) emptyInstance();
+        List<List<GraphEvent<String>>> deliveries = new ArrayList<>();
+        GraphListener<String> listener = deliveries::add;
+        graph.batch(() -> graph.add("x"));
+        graph.addListener(listener);
+        
+        ((BulkLoadableGraph<String>) graph).setAll(
+                new String[] { "x", "y" }, new String[] { "y", "x" }, new int[] { 1, 2 });
+        graph.batch(() -> {
+            graph.set("x", "y", 3);
+            graph.batch(() -> graph.remove("y"));
+            assertEquals("Expected no delivery inside a batch", 1, deliveries.size());
+        });
+        assertTrue(graph.removeListener(listener));
+        assertFalse(graph.removeListener(listener));
+        graph.set("x", "z", 1);
+        
+        assertEquals(Arrays.asList(
+                Arrays.asList(GraphEvent.vertexAdded("y"), GraphEvent.edgeChanged("x", "y", 0, 1),
+                        GraphEvent.edgeChanged("y", "x", 0, 2)),
+                Arrays.asList(GraphEvent.edgeChanged("x", "y", 1, 3), GraphEvent.edgeChanged("y", "x", 2, 0),
+                        GraphEvent.edgeChanged("x", "y", 3, 0), GraphEvent.vertexRemoved("y"))),
+                deliveries);
+    }
+    @Test
+    //covers last listener removed inside a batch
+    public void testLastListenerRemovedInBatch(){
+        ConcreteEdgesGraph<String> graph = (ConcreteEdgesGraph<String>) emptyInstance();
+        List<List<GraphEvent<String>>> deliveries = new ArrayList<>();
+        GraphListener<String> listener = deliveries::add;
+        graph.addListener(listener);
+        
+        graph.batch(() -> {
+            graph.set("x", "y", 1);
+            assertTrue(graph.removeListener(listener));
+        });
+        graph.set("y", "z", 1);
+        
+        assertFalse("Expected no events built without listeners", graph.isObserved());
+        assertEquals("Expected no deliveries", Collections.emptyList(), deliveries);
+    }
+    @Test
+    //covers random sequences of all operations, replayed on a replica
+    public void testEventsReplay(){
+        ObservableGraph<String> graph = (ObservableGraph<String>) emptyInstance();
+        Graph<String> replica = Graphs.intIndexed();
+        graph.addListener(events -> {
+            for ( GraphEvent<String> event : events ) {
+                switch ( event.getKind() ) {
+                case VERTEX_ADDED:   assertTrue(replica.add(event.getSource())); break;
+                case VERTEX_REMOVED: assertTrue(replica.remove(event.getSource())); break;
+                default:
+                    assertEquals(event.getOldWeight(),
+                            replica.set(event.getSource(), event.getTarget(), event.getNewWeight()));
+                }
+            }
+        });
+        Random random = new Random(25);
+        for ( int round = 0; round < 2000; round++ ) {
+            String source = "v" + random.nextInt(12);
+            String target = "v" + random.nextInt(12);
+            switch ( random.nextInt(4) ) {
+            case 0:  graph.set(source, target, random.nextInt(3)); break;
+            case 1:  graph.set(source, target, 1 + random.nextInt(50)); break;
+            case 2:  ((CountingGraph<String>) graph).increment(source, target, 1 + random.nextInt(5)); break;
+            default: if ( random.nextInt(10) == 0 ) { graph.remove(source); }
+            }
+        }
+        assertEquals(graph.vertices(), replica.vertices());
+        for ( String vertex : graph.vertices() ) {
+            assertEquals(graph.targets(vertex), replica.targets(vertex));
+        }
+    }
 }
@@ -6,8 +6,15 @@ package graph;
 import static org.junit.Assert.*;
 
 import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -37,6 +44,33 @@ public class ConcreteVerticesGraphTest extends GraphInstanceTest {
     
     // TODO tests for ConcreteVerticesGraph.toString()
     
+    // Testing strategy for ConcreteVerticesGraph.vertices()
+    //   graph mutated after vertices() was called: add, set, remove
+    //   the returned set is read-only
+    @Test
+    //covers view observes later mutations
+    public void testVerticesLiveView(){
+        Graph<String> graph = emptyInstance();
+        Set<String> vertices = graph.vertices();
+        
+        graph.add("vertex1");
+        graph.set("vertex2", "vertex3", 1);
+        graph.remove("vertex1");
+        
+        assertEquals("Expected view to reflect mutations",
+                new HashSet<>(Arrays.asList("vertex2", "vertex3")), vertices);
+        assertEquals("Expected no edges to removed vertex",
+                Collections.emptyMap(), graph.sources("vertex1"));
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    //covers view is read-only
+    public void testVerticesReadOnly(){
+        Graph<String> graph = emptyInstance();
+        graph.add("vertex1");
+        
+        graph.vertices().remove("vertex1");
+    }
+    
     /*
      * Testing Vertex...
      */
@@ -657,8 +691,8 @@ public class ConcreteVerticesGraphTest extends GraphInstanceTest {
         assertTrue("Expected source3 added", source3Added);
         assertEquals("Expected vertex to have 3 source vertices", 
                 3, initialNumSources);
-        assertEquals("Expected no previous weight", 
-                0, previousWeight);
+        assertEquals("Expected previous weight to be the unchanged weight", 
+                weight, previousWeight);
         assertEquals("Expected same number of source vertices", 
                 initialNumSources, currentNumSources);
         assertEquals("Expected source1 not to change weight", 
@@ -817,8 +851,8 @@ public class ConcreteVerticesGraphTest extends GraphInstanceTest {
         assertTrue("Expected target3 added", target3Added);
         assertEquals("Expected vertex to have 3 target vertices", 
                 3, initialNumTargets);
-        assertEquals("Expected no previous weight", 
-                0, previousWeight);
+        assertEquals("Expected previous weight to be the unchanged weight", 
+                weight, previousWeight);
         assertEquals("Expected same number of target vertices", 
                 initialNumTargets, currentNumTargets);
         assertEquals("Expected target1 not to change weight", 
@@ -1095,4 +1129,310 @@ public class ConcreteVerticesGraphTest extends GraphInstanceTest {
 //        
 //        assertTrue("Expected correct vertex string rep",stringRep.matches(regex));
 //    }
-}  
\ No newline at end of file
+    
+    // Testing strategy for increment(source, target, delta) -> newWeight
+    //   edge: doesn't exist (vertices added), exists
+    //   delta: 1, > 1
+    @Test
+    //covers edge doesn't exist, edge exists, delta 1 and > 1
+    public void testIncrement(){
+        CountingGraph<String> graph = (CountingGraph<String>) emptyInstance();
+        
+        assertEquals("Expected new edge with weight delta", 1, graph.increment("a", "b", 1));
+        assertEquals("Expected weight increased", 4, graph.increment("a", "b", 3));
+        assertEquals("Expected targets updated", (Integer) 4, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 4, graph.sources("b").get("a"));
+        assertEquals("Expected vertices added", 2, graph.vertices().size());
+        assertEquals("Expected set() to see incremented weight", 4, graph.set("a", "b", 0));
+    }
+    
+    // Testing strategy for setAll(...)
+    //   edges: iterator, parallel arrays
+    //   entries: new edge, update of an earlier entry, removal (arrays only),
+    //            removal before the edge is added
+    //   graph: empty, already has edges
+    @Test
+    //covers iterator of new and updated edges
+    public void testSetAllIterator(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.setAll(Arrays.asList(
+                new Edge<>("a", "b", 1),
+                new Edge<>("b", "c", 2),
+                new Edge<>("a", "b", 3)).iterator());
+        
+        assertEquals("Expected last weight to win", (Integer) 3, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 2, graph.sources("c").get("b"));
+        assertEquals("Expected vertices added", 3, graph.vertices().size());
+    }
+    @Test
+    //covers parallel arrays with a removal
+    public void testSetAllArrays(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.setAll(new String[] { "a", "b", "a" },
+                     new String[] { "b", "c", "b" },
+                     new int[] { 1, 2, 0 });
+        
+        assertEquals("Expected a -> b removed", Collections.emptyMap(), graph.targets("a"));
+        assertEquals("Expected b -> c kept", (Integer) 2, graph.targets("b").get("c"));
+    }
+    @Test
+    //covers parallel arrays onto a graph with edges, removal before the edge
+    //is added
+    public void testSetAllArraysOntoEdges(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.set("a", "b", 1);
+        graph.set("c", "a", 2);
+        String[] sources = new String[40];
+        String[] targets = new String[40];
+        int[] weights = new int[40];
+        for ( int i = 0; i < 40; i++ ) {
+            sources[i] = "a";
+            targets[i] = "v" + (i % 20);
+            weights[i] = i < 20 ? 0 : i;
+        }
+        graph.setAll(sources, targets, weights);
+        
+        assertEquals("Expected old and new targets", 21, graph.targets("a").size());
+        assertEquals("Expected old target kept", (Integer) 1, graph.targets("a").get("b"));
+        assertEquals("Expected new target", (Integer) 39, graph.targets("a").get("v19"));
+        assertEquals("Expected sources of new vertex", (Integer) 25, graph.sources("v5").get("a"));
+        assertEquals("Expected old source kept", (Integer) 2, graph.sources("a").get("c"));
+    }
+    
+    /*
+     * Testing ObjectIntMap...
+     */
+    
+    // Testing strategy for ObjectIntMap
+    //   operations: put, putIfAbsent, add, remove, interleaved at random
+    //   table: below and above its initial capacity, keys that collide,
+    //          grown ahead with ensureCapacity()
+    //   compare every result, and the Map view, against a HashMap
+    @Test
+    //covers random interleaving of all operations, growth, collisions
+    public void testObjectIntMapAgainstHashMap(){
+        final ObjectIntMap<Integer> map = new ObjectIntMap<>();
+        final Map<Integer, Integer> expected = new HashMap<>();
+        final Random random = new Random(6005);
+        
+        for ( int i = 0; i < 20000; i++ ) {
+            //multiples of 64 collide in small tables
+            final Integer key = random.nextInt(200) * 64;
+            final int value = 1 + random.nextInt(10);
+            final Integer old = expected.get(key);
+            final int oldValue = old == null ? 0 : old;
+            switch ( random.nextInt(4) ) {
+            case 0:
+                expected.put(key, value);
+                assertEquals("Expected put() to return old value", oldValue, map.put(key, value));
+                break;
+            case 1:
+                expected.putIfAbsent(key, value);
+                assertEquals("Expected putIfAbsent() to return old value",
+                        oldValue, map.putIfAbsent(key, value));
+                break;
+            case 2:
+                expected.put(key, oldValue + value);
+                assertEquals("Expected add() to return new value", oldValue + value, map.add(key, value));
+                break;
+            default:
+                expected.remove(key);
+                assertEquals("Expected remove() to return old value", oldValue, map.remove(key));
+            }
+        }
+        assertEquals("Expected same mappings", expected, map.asMap());
+        assertEquals("Expected same size", expected.size(), map.size());
+        for ( int key = 0; key < 200 * 64; key += 64 ) {
+            assertEquals("Expected same lookups", expected.containsKey(key), map.containsKey(key));
+        }
+    }
+    @Test
+    //covers grown ahead with ensureCapacity(), then filled
+    public void testObjectIntMapEnsureCapacity(){
+        final ObjectIntMap<Integer> map = new ObjectIntMap<>();
+        map.put(7, 1);
+        map.ensureCapacity(1000);
+        map.ensureCapacity(0);
+        for ( int key = 0; key < 1000; key++ ) {
+            map.add(key, 1);
+        }
+        
+        assertEquals("Expected all keys", 1000, map.size());
+        assertEquals("Expected earlier value kept", 2, map.get(7));
+        assertEquals("Expected new value", 1, map.get(999));
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    //covers the Map view is read-only
+    public void testObjectIntMapViewReadOnly(){
+        final ObjectIntMap<String> map = new ObjectIntMap<>();
+        map.put("key", 1);
+        
+        map.asMap().put("key", 2);
+    }
+    
+    // Testing strategy for the DegreeGraph queries
+    //   operations before the query: set() adding, updating and removing
+    //     edges, increment(), remove() of vertices (loops are not allowed)
+    //   vertex: in graph, not in graph
+    //   observe by comparing with sources() and targets()
+    @Test
+    //covers random sequences of all operations, vertex in and not in graph
+    public void testDegreesMatchEdges(){
+        DegreeGraph<String> graph = (DegreeGraph<String>) emptyInstance();
+        Random random = new Random(17);
+        for ( int round = 0; round < 2000; round++ ) {
+            String source = "v" + random.nextInt(12);
+            String target = "v" + random.nextInt(12);
+            if ( source.equals(target) ) {
+                continue;
+            }
+            switch ( random.nextInt(4) ) {
+            case 0:  graph.set(source, target, random.nextInt(3)); break;
+            case 1:  graph.set(source, target, 1 + random.nextInt(50)); break;
+            case 2:  ((CountingGraph<String>) graph).increment(source, target, 1 + random.nextInt(5)); break;
+            default: if ( random.nextInt(10) == 0 ) { graph.remove(source); }
+            }
+        }
+        long totalWeight = 0;
+        int edgeCount = 0;
+        for ( String vertex : graph.vertices() ) {
+            assertEquals(graph.targets(vertex).size(), graph.outDegree(vertex));
+            assertEquals(graph.sources(vertex).size(), graph.inDegree(vertex));
+            assertEquals(sum(graph.targets(vertex)), graph.outWeight(vertex));
+            assertEquals(sum(graph.sources(vertex)), graph.inWeight(vertex));
+            edgeCount += graph.targets(vertex).size();
+            totalWeight += sum(graph.targets(vertex));
+        }
+        assertEquals("Expected edge count", edgeCount, graph.edgeCount());
+        assertEquals("Expected total weight", totalWeight, graph.totalWeight());
+        assertEquals("Expected zero for a missing vertex", 0, graph.outWeight("missing"));
+        assertEquals("Expected zero for a missing vertex", 0, graph.inDegree("missing"));
+    }
+    private static long sum(Map<String, Integer> weights){
+        long sum = 0;
+        for ( int weight : weights.values() ) {
+            sum += weight;
+        }
+        return sum;
+    }
+    
+    // Testing strategy for the ObservableGraph events
+    //   mutators: add() new and existing vertex, set() adding vertices,
+    //     adding, reweighting, keeping and removing an edge, increment(),
+    //     setAll(), remove() of a vertex with edges and of a missing vertex
+    //   batches: none, nested; listeners: none, one, removed, last one
+    //     removed inside a batch
+    //   observe by recording events, and by replaying them on a replica
+    @Test
+    //covers every mutator without batches, one listener
+    public void testListenerEvents(){
+        ObservableGraph<String> graph = (ObservableGraph<String>) emptyInstance();
+        List<List<GraphEvent<String>>> deliveries = new ArrayList<>();
+        graph.addListener(events -> {
+            assertTrue("Expected the change to be complete", graph.vertices().containsAll(
+                    events.stream().filter(e -> e.getKind() == GraphEvent.Kind.VERTEX_ADDED)
+                        .map(GraphEvent::getSource).collect(Collectors.toList())));
+            deliveries.add(events);
+        });
+        
+        graph.add("a");
+        graph.add("a");
+        graph.set("a", "b", 2);
+        graph.set("a", "b", 2);
+        graph.set("a", "b", 5);
+        graph.set("c", "a", 1);
+        ((CountingGraph<String>) graph).increment("a", "b", 1);
+        graph.set("b", "c", 0);
+        graph.remove("missing");
+        graph.remove("a");
+        
+        assertEquals(Arrays.asList(
+                Arrays.asList(GraphEvent.vertexAdded("a")),
+                Arrays.asList(GraphEvent.vertexAdded("b"), GraphEvent.edgeChanged("a", "b", 0, 2)),
+                Arrays.asList(GraphEvent.edgeChanged("a", "b", 2, 5)),
+                Arrays.asList(GraphEvent.vertexAdded("c"), GraphEvent.edgeChanged("c", "a", 0, 1)),
+                Arrays.asList(GraphEvent.edgeChanged("a", "b", 5, 6)),
+                Arrays.asList(GraphEvent.edgeChanged("a", "b", 6, 0),
+                        GraphEvent.edgeChanged("c", "a", 1, 0), GraphEvent.vertexRemoved("a"))),
+                deliveries);
+    }
+    @Test
+    //covers setAll(), nested batches, listener removed, no listeners
+    public void testBatchesAndRemovedListener(){
+        ObservableGraph<String> graph = (ObservableGraph<String>) emptyInstance();
+        List<List<GraphEvent<String>>> deliveries = new ArrayList<>();
+        GraphListener<String> listener = deliveries::add;
+        graph.batch(() -> graph.add("x"));
+        graph.addListener(listener);
+        
+        ((BulkLoadableGraph<String>) graph).setAll(
+                new String[] { "x", "y" }, new String[] { "y", "x" }, new int[] { 1, 2 });
+        graph.batch(() -> {
+            graph.set("x", "y", 3);
+            graph.batch(() -> graph.remove("y"));
+            assertEquals("Expected no delivery inside a batch", 1, deliveries.size());
+        });
+        assertTrue(graph.removeListener(listener));
+        assertFalse(graph.removeListener(listener));
+        graph.set("x", "z", 1);
+        
+        assertEquals(Arrays.asList(
+                Arrays.asList(GraphEvent.vertexAdded("y"), GraphEvent.edgeChanged("x", "y", 0, 1),
+                        GraphEvent.edgeChanged("y", "x", 0, 2)),
+                Arrays.asList(GraphEvent.edgeChanged("x", "y", 1, 3), GraphEvent.edgeChanged("y", "x", 2, 0),
+                        GraphEvent.edgeChanged("x", "y", 3, 0), GraphEvent.vertexRemoved("y"))),
+                deliveries);
+    }
+    @Test
+    //covers last listener removed inside a batch
+    public void testLastListenerRemovedInBatch(){
+        ConcreteVerticesGraph<String> graph = (ConcreteVerticesGraph<String>) emptyInstance();
+        List<List<GraphEvent<String>>> deliveries = new ArrayList<>();
+        GraphListener<String> listener = deliveries::add;
+        graph.addListener(listener);
+        
+        graph.batch(() -> {
+            graph.set("x", "y", 1);
+            assertTrue(graph.removeListener(listener));
+        });
+        graph.set("y", "z", 1);
+        
+        assertFalse("Expected no events built without listeners", graph.isObserved());
+        assertEquals("Expected no deliveries", Collections.emptyList(), deliveries);
+    }
+    @Test
+    //covers random sequences of all operations, replayed on a replica
+    public void testEventsReplay(){
+        ObservableGraph<String> graph = (ObservableGraph<String>) emptyInstance();
+        Graph<String> replica = Graphs.intIndexed();
+        graph.addListener(events -> {
+            for ( GraphEvent<String> event : events ) {
+                switch ( event.getKind() ) {
+                case VERTEX_ADDED:   assertTrue(replica.add(event.getSource())); break;
+                case VERTEX_REMOVED: assertTrue(replica.remove(event.getSource())); break;
+                default:
+                    assertEquals(event.getOldWeight(),
+                            replica.set(event.getSource(), event.getTarget(), event.getNewWeight()));
+                }
+            }
+        });
+        Random random = new Random(25);
+        for ( int round = 0; round < 2000; round++ ) {
+            String source = "v" + random.nextInt(12);
+            String target = "v" + random.nextInt(12);
+            if ( source.equals(target) ) {
+                continue;
+            }
+            switch ( random.nextInt(4) ) {
+            case 0:  graph.set(source, target, random.nextInt(3)); break;
+            case 1:  graph.set(source, target, 1 + random.nextInt(50)); break;
+            case 2:  ((CountingGraph<String>) graph).increment(source, target, 1 + random.nextInt(5)); break;
+            default: if ( random.nextInt(10) == 0 ) { graph.remove(source); }
+            }
+        }
+        assertEquals(graph.vertices(), replica.vertices());
+        for ( String vertex : graph.vertices() ) {
+            assertEquals(graph.targets(vertex), replica.targets(vertex));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for ConcurrentGraph.
+ * 
+ * This class runs the GraphInstanceTest tests against ConcurrentGraph, as
+ * well as stress tests of that implementation under contention.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class ConcurrentGraphTest extends GraphInstanceTest {
+    
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 2000;
+    private static final int VERTICES = 50;
+    
+    /*
+     * Provide a ConcurrentGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return Graphs.concurrent();
+    }
+    
+    // Testing strategy for ConcurrentGraph under contention
+    //   writers: several threads calling set() on shared vertices,
+    //            with and without a concurrent remove()
+    //   readers: threads calling sources() and targets() meanwhile
+    //   lock stripes: one (every writer contends), default
+    //   after all threads finish, check that sources() and targets()
+    //   agree on every edge, and that the last write to each edge won
+    
+    /** Runs tasks on THREADS threads, starting them together */
+    private static void runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for ( Runnable task : tasks ) {
+            results.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for ( Future<?> result : results ) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+    
+    /** Asserts that sources() and targets() describe the same edges */
+    private static void assertConsistent(Graph<String> graph){
+        int forward = 0;
+        int backward = 0;
+        for ( String vertex : graph.vertices() ) {
+            for ( Map.Entry<String, Integer> edge : graph.targets(vertex).entrySet() ) {
+                assertTrue("Expected target to be a vertex", graph.vertices().contains(edge.getKey()));
+                assertEquals("Expected sources to agree with targets",
+                        edge.getValue(), graph.sources(edge.getKey()).get(vertex));
+                forward++;
+            }
+            backward += graph.sources(vertex).size();
+        }
+        assertEquals("Expected same number of edges both ways", forward, backward);
+    }
+    
+    private void stressSet(Graph<String> graph) throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        for ( int t = 0; t < THREADS; t++ ) {
+            final int thread = t;
+            tasks.add(() -> {
+                for ( int i = 0; i < ROUNDS; i++ ) {
+                    final String source = "v" + ((i + thread) % VERTICES);
+                    final String target = "v" + ((i * 7 + 1) % VERTICES);
+                    graph.set(source, target, i % 3);
+                    graph.targets(target).size();
+                    graph.sources(source).size();
+                }
+                //each thread finally owns edges from its own vertex
+                for ( int i = 0; i < VERTICES; i++ ) {
+                    graph.set("own" + thread, "v" + i, thread + 1);
+                }
+            });
+        }
+        runConcurrently(tasks);
+        
+        assertConsistent(graph);
+        for ( int thread = 0; thread < THREADS; thread++ ) {
+            Map<String, Integer> targets = graph.targets("own" + thread);
+            assertEquals("Expected every owned edge", VERTICES, targets.size());
+            for ( Integer weight : targets.values() ) {
+                assertEquals("Expected owner's weight", (Integer) (thread + 1), weight);
+            }
+        }
+    }
+    
+    @Test
+    //covers writers and readers on shared vertices, default stripes
+    public void testConcurrentSet() throws Exception {
+        stressSet(new ConcurrentGraph<>());
+    }
+    
+    @Test
+    //covers writers and readers on shared vertices, one stripe
+    public void testConcurrentSetSingleStripe() throws Exception {
+        stressSet(new ConcurrentGraph<>(1));
+    }
+    
+    @Test
+    //covers writers with a concurrent remove()
+    public void testConcurrentSetAndRemove() throws Exception {
+        Graph<String> graph = new ConcurrentGraph<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for ( int t = 0; t < THREADS - 1; t++ ) {
+            final int thread = t;
+            tasks.add(() -> {
+                for ( int i = 0; i < ROUNDS; i++ ) {
+                    graph.set("v" + ((i + thread) % VERTICES), "v" + (i % VERTICES), 1 + i % 5);
+                }
+            });
+        }
+        tasks.add(() -> {
+            for ( int i = 0; i < ROUNDS / 10; i++ ) {
+                graph.remove("v" + (i % VERTICES));
+            }
+        });
+        runConcurrently(tasks);
+        
+        assertConsistent(graph);
+    }
+    
+    @Test
+    //covers concurrent increment() of shared edges
+    public void testConcurrentIncrement() throws Exception {
+        CountingGraph<String> graph = new ConcurrentGraph<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for ( int t = 0; t < THREADS; t++ ) {
+            tasks.add(() -> {
+                for ( int i = 0; i < ROUNDS; i++ ) {
+                    graph.increment("v" + (i % 3), "v" + (i % 5), 1);
+                }
+            });
+        }
+        runConcurrently(tasks);
+        
+        int total = 0;
+        for ( String vertex : graph.vertices() ) {
+            for ( int weight : graph.targets(vertex).values() ) {
+                total += weight;
+            }
+        }
+        assertEquals("Expected no lost increments", THREADS * ROUNDS, total);
+        assertConsistent(graph);
+    }
+}
@@ -0,0 +1,122 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for FrozenGraph and Graphs.freeze().
+ */
+public class FrozenGraphTest {
+    
+    // Testing strategy
+    //   Partition for Graphs.freeze(graph) -> frozen
+    //     graph: empty, contains vertices without edges, contains edges
+    //     graph: ConcreteEdgesGraph, ConcreteVerticesGraph, FrozenGraph
+    //     graph mutated after freezing
+    //   Partition for frozen.sources(label), frozen.targets(label)
+    //     label: not in graph, has no edges, has multiple edges
+    //     observe with get(), containsKey(), equals()
+    //   add(), set(), remove() throw UnsupportedOperationException
+    //   Partition for degree and weight queries
+    //     label: not in graph, has no edges, has multiple edges
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    private static Graph<String> sampleGraph(Graph<String> graph){
+        graph.set("a", "b", 1);
+        graph.set("a", "c", 2);
+        graph.set("c", "a", 3);
+        graph.set("b", "c", 4);
+        graph.add("d");
+        return graph;
+    }
+    
+    @Test
+    //covers empty graph
+    public void testFreezeEmpty(){
+        FrozenGraph<String> frozen = Graphs.freeze(new ConcreteEdgesGraph<>());
+        
+        assertEquals("Expected no vertices", Collections.emptySet(), frozen.vertices());
+        assertEquals("Expected no targets", Collections.emptyMap(), frozen.targets("a"));
+        assertEquals("Expected 'Empty Graph'", "Empty Graph", frozen.toString());
+    }
+    @Test
+    //covers ConcreteEdgesGraph and ConcreteVerticesGraph with edges,
+    //       labels with and without edges and not in graph
+    public void testFreezeCopiesEdges(){
+        Graph<String> edgesGraph = sampleGraph(new ConcreteEdgesGraph<>());
+        Graph<String> verticesGraph = sampleGraph(new ConcreteVerticesGraph<>());
+        for ( Graph<String> graph : Arrays.asList(edgesGraph, verticesGraph) ) {
+            FrozenGraph<String> frozen = Graphs.freeze(graph);
+            
+            assertEquals("Expected same vertices", graph.vertices(), frozen.vertices());
+            for ( String vertex : graph.vertices() ) {
+                assertEquals("Expected same targets", graph.targets(vertex), frozen.targets(vertex));
+                assertEquals("Expected same sources", graph.sources(vertex), frozen.sources(vertex));
+            }
+            assertEquals("Expected no targets for unknown label",
+                    Collections.emptyMap(), frozen.targets("z"));
+            assertEquals("Expected weight lookup", (Integer) 2, frozen.targets("a").get("c"));
+            assertFalse("Expected no edge d -> a", frozen.targets("d").containsKey("a"));
+            assertNull("Expected no weight for unknown label", frozen.sources("c").get("z"));
+        }
+    }
+    @Test
+    //covers graph mutated after freezing, freezing a FrozenGraph
+    public void testFreezeIsCopy(){
+        Graph<String> graph = sampleGraph(new ConcreteEdgesGraph<>());
+        FrozenGraph<String> frozen = Graphs.freeze(graph);
+        graph.set("a", "b", 0);
+        graph.remove("d");
+        
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("b", 1);
+        expected.put("c", 2);
+        assertEquals("Expected frozen targets unchanged", expected, frozen.targets("a"));
+        assertTrue("Expected frozen vertices unchanged", frozen.vertices().contains("d"));
+        assertSame("Expected frozen graph returned as is", frozen, Graphs.freeze(frozen));
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    public void testSetUnsupported(){
+        Graphs.freeze(sampleGraph(new ConcreteEdgesGraph<>())).set("a", "b", 2);
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    public void testAddUnsupported(){
+        Graphs.freeze(sampleGraph(new ConcreteEdgesGraph<>())).add("e");
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    public void testRemoveUnsupported(){
+        Graphs.freeze(sampleGraph(new ConcreteEdgesGraph<>())).remove("a");
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    public void testViewReadOnly(){
+        Graphs.freeze(sampleGraph(new ConcreteEdgesGraph<>())).targets("a").remove("b");
+    }
+    
+    @Test
+    //covers degree and weight queries, label in graph, without edges and not in graph
+    public void testDegrees(){
+        FrozenGraph<String> frozen = Graphs.freeze(sampleGraph(new ConcreteEdgesGraph<>()));
+        
+        assertEquals(2, frozen.outDegree("a"));
+        assertEquals(1, frozen.inDegree("a"));
+        assertEquals(3, frozen.outWeight("a"));
+        assertEquals(6, frozen.inWeight("c"));
+        assertEquals(0, frozen.outDegree("d"));
+        assertEquals(0, frozen.inWeight("missing"));
+        assertEquals(4, frozen.edgeCount());
+        assertEquals(10, frozen.totalWeight());
+    }
+}
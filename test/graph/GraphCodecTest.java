@@ -0,0 +1,164 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for GraphCodec.
+ */
+public class GraphCodecTest {
+    
+    // Testing strategy
+    //   graph: empty, vertices without edges, self-loop, non-ASCII labels,
+    //     large weights and ids (multi-byte varints), random
+    //   source graph: ConcreteEdgesGraph, FrozenGraph
+    //   read(), readInto() an existing graph
+    //   stream: one graph, two graphs back to back
+    //   bad input: wrong magic, wrong version, truncated, corrupted byte,
+    //     huge counts and lengths in a short stream
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    /** Returns the edges of graph as source -> (target -> weight) */
+    private static Map<String, Map<String, Integer>> edges(Graph<String> graph){
+        Map<String, Map<String, Integer>> edges = new HashMap<>();
+        for ( String source : graph.vertices() ) {
+            edges.put(source, new HashMap<>(graph.targets(source)));
+        }
+        return edges;
+    }
+    
+    private static byte[] encode(Graph<String> graph) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphCodec.write(graph, out);
+        return out.toByteArray();
+    }
+    
+    private static void assertRoundTrip(Graph<String> graph) throws IOException {
+        Graph<String> decoded = GraphCodec.read(new ByteArrayInputStream(encode(graph)));
+        assertEquals(graph.vertices(), decoded.vertices());
+        assertEquals(edges(graph), edges(decoded));
+    }
+    
+    @Test
+    //covers empty graph, vertices without edges
+    public void testEmptyAndIsolated() throws IOException {
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        assertRoundTrip(graph);
+        graph.add("alone");
+        graph.add("");
+        assertRoundTrip(graph);
+    }
+    
+    @Test
+    //covers self-loop, non-ASCII labels, large weights, FrozenGraph source
+    public void testEdges() throws IOException {
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "a", 1);
+        graph.set("a", "b", Integer.MAX_VALUE);
+        graph.set("b", "\u00e9t\u00e9 \u2603", 128);
+        graph.set("\u00e9t\u00e9 \u2603", "a", 16384);
+        assertRoundTrip(graph);
+        assertRoundTrip(Graphs.freeze(graph));
+    }
+    
+    @Test
+    //covers random, multi-byte ids
+    public void testRandom() throws IOException {
+        Random random = new Random(24);
+        Graph<String> graph = Graphs.intIndexed();
+        for ( int i = 0; i < 5000; i++ ) {
+            graph.set("w" + random.nextInt(1000), "w" + random.nextInt(1000), 1 + random.nextInt(1 << 20));
+        }
+        assertRoundTrip(graph);
+    }
+    
+    @Test
+    //covers readInto an existing graph, two graphs back to back
+    public void testReadIntoAndConcatenated() throws IOException {
+        Graph<String> first = new ConcreteEdgesGraph<>();
+        first.set("a", "b", 2);
+        Graph<String> second = new ConcreteEdgesGraph<>();
+        second.set("b", "c", 3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphCodec.write(first, out);
+        GraphCodec.write(second, out);
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        
+        Graph<String> graph = GraphCodec.read(in);
+        GraphCodec.readInto(in, graph);
+        assertEquals(-1, in.read());
+        assertEquals(Collections.singletonMap("b", 2), graph.targets("a"));
+        assertEquals(Collections.singletonMap("c", 3), graph.targets("b"));
+    }
+    
+    /** Asserts that decoding bytes fails */
+    private static void assertRejected(byte[] bytes){
+        try {
+            GraphCodec.read(new ByteArrayInputStream(bytes));
+            fail("expected IOException");
+        } catch ( IOException e ) {
+            // expected
+        }
+    }
+    
+    @Test
+    //covers wrong magic, wrong version, corrupted byte
+    public void testCorrupt() throws IOException {
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 2);
+        graph.set("b", "a", 5);
+        byte[] bytes = encode(graph);
+        
+        byte[] magic = bytes.clone();
+        magic[0] = 'X';
+        assertRejected(magic);
+        byte[] version = bytes.clone();
+        version[4] = 2;
+        assertRejected(version);
+        for ( int i = 5; i < bytes.length; i++ ) {
+            byte[] corrupted = bytes.clone();
+            corrupted[i] ^= 0x01;
+            assertRejected(corrupted);
+        }
+    }
+    
+    @Test(expected=EOFException.class)
+    //covers truncated
+    public void testTruncated() throws IOException {
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 2);
+        byte[] bytes = encode(graph);
+        GraphCodec.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+    
+    @Test(expected=EOFException.class)
+    //covers huge counts and lengths in a short stream
+    public void testHugeHeader() throws IOException {
+        byte[] maxVarint = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[] { 'W', 'G', 'R', 'S', 1 });
+        bytes.write(maxVarint); //vertices
+        bytes.write(maxVarint); //edges
+        bytes.write(maxVarint); //length of the first label
+        bytes.write(new byte[] { 'a', 'b', 'c' });
+        GraphCodec.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
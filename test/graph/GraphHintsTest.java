@@ -0,0 +1,74 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests for GraphHints and Graphs.create().
+ */
+public class GraphHintsTest {
+    
+    // Testing strategy
+    //   hints: none, concurrent, build once, write heavy, read heavy,
+    //          large expected vertices, large expected edges
+    //   system property: unset, known implementation, unknown implementation
+    //   Graph.empty(): property unset, set
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    //covers every kind of hint, property unset
+    public void testCreateFromHints(){
+        assertTrue(Graphs.create(GraphHints.NONE) instanceof ConcreteEdgesGraph);
+        assertTrue(Graphs.create(GraphHints.NONE.readHeavy()) instanceof ConcreteEdgesGraph);
+        assertTrue(Graphs.create(GraphHints.NONE.concurrent().buildOnce()) instanceof ConcurrentGraph);
+        assertTrue(Graphs.create(GraphHints.NONE.buildOnce()) instanceof IntIndexedGraph);
+        assertTrue(Graphs.create(GraphHints.NONE.writeHeavy()) instanceof IntIndexedGraph);
+        assertTrue(Graphs.create(GraphHints.NONE.withExpectedVertices(1_000_000)) instanceof IntIndexedGraph);
+        assertTrue(Graphs.create(GraphHints.NONE.withExpectedEdges(1_000_000)) instanceof IntIndexedGraph);
+    }
+    
+    @Test
+    //covers known implementation in the property, concurrent hints, Graph.empty()
+    public void testPropertyOverride(){
+        System.setProperty(Graphs.IMPLEMENTATION_PROPERTY, "ConcreteVerticesGraph");
+        try {
+            assertTrue(Graph.empty() instanceof ConcreteVerticesGraph);
+            assertTrue(Graphs.create(GraphHints.NONE.buildOnce()) instanceof ConcreteVerticesGraph);
+            assertTrue("Expected concurrent hints to win",
+                    Graphs.create(GraphHints.NONE.concurrent()) instanceof ConcurrentGraph);
+        } finally {
+            System.clearProperty(Graphs.IMPLEMENTATION_PROPERTY);
+        }
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    //covers unknown implementation in the property
+    public void testPropertyUnknown(){
+        System.setProperty(Graphs.IMPLEMENTATION_PROPERTY, "NoSuchGraph");
+        try {
+            Graph.empty();
+        } finally {
+            System.clearProperty(Graphs.IMPLEMENTATION_PROPERTY);
+        }
+    }
+    
+    @Test
+    //covers equality of hints built in different orders
+    public void testHintsEquality(){
+        GraphHints first = GraphHints.NONE.buildOnce().withExpectedVertices(10);
+        GraphHints second = GraphHints.NONE.withExpectedVertices(10).buildOnce();
+        
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, GraphHints.NONE);
+        assertEquals("Expected NONE unchanged", 0, GraphHints.NONE.expectedVertices());
+    }
+}
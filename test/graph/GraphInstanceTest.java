@@ -51,7 +51,7 @@ public abstract class GraphInstanceTest {
     //      target: exists in graph, doesn't exist in graph
     //      No edge exists from source to target,
     //      An edge exists from source to target,
-    //      weight: 0, > 0
+    //      weight: 0, > 0, same as the existing edge's weight
     //      observe with sources(), targets(), vertices()
     //    
     //   Partition for graph.vertices() -> allVertices
@@ -370,6 +370,26 @@ public abstract class GraphInstanceTest {
         
     }
     
+    @Test
+    //covers graph contains multiple vertices,
+    //       source and target exist in graph,
+    //       an edge exists from source to target
+    //       weight same as the existing edge's weight
+    public void testSetSameWeight(){
+        Graph<String> graph = emptyInstance();
+        
+        final String source = "vertex1";
+        final String target = "vertex2";
+        final int weight = 1000;
+        graph.set(source, target, weight);
+        
+        final int previousWeight = graph.set(source, target, weight);
+        
+        assertEquals("Expected previous weight to be the unchanged weight", weight, previousWeight);
+        assertEquals("Expected edge to keep its weight", (Integer)weight, graph.targets(source).get(target));
+        assertEquals("Expected edge to keep its weight", (Integer)weight, graph.sources(target).get(source));
+    }
+    
     @Test
     //covers graph contains multiple vertices,
     //       source and target exist in graph,
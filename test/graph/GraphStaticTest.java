@@ -6,6 +6,7 @@ package graph;
 import static org.junit.Assert.*;
 
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -21,6 +22,9 @@ public class GraphStaticTest {
     //   empty()
     //     no inputs, only output is empty graph
     //     observe with vertices()
+    //   Graphs.load()
+    //     graph: implements BulkLoadableGraph, does not (ConcurrentGraph)
+    //     edges: same edge twice
     
     @Test(expected=AssertionError.class)
     public void testAssertionsEnabled() {
@@ -33,6 +37,24 @@ public class GraphStaticTest {
                 Collections.emptySet(), Graph.empty().vertices());
     }
     
+    @Test
+    //covers load() into a graph without bulk loading, same edge twice
+    public void testLoadFallsBackToSet(){
+        Graph<String> graph = new ConcurrentGraph<>();
+        Graphs.load(graph, Stream.of(new Edge<>("a", "b", 1), new Edge<>("a", "b", 2)));
+        
+        assertEquals("Expected last weight to win", (Integer) 2, graph.targets("a").get("b"));
+    }
+    @Test
+    //covers load() into a BulkLoadableGraph, same edge twice
+    public void testLoadBulk(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        Graphs.load(graph, Stream.of(new Edge<>("a", "b", 1), new Edge<>("a", "b", 2)));
+        
+        assertEquals("Expected last weight to win", (Integer) 2, graph.targets("a").get("b"));
+        assertEquals("Expected one edge", 1, graph.targets("a").size());
+    }
+    
     // TODO test other vertex label types in Problem 3.2
     //using integers
     @Test
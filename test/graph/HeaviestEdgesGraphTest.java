@@ -0,0 +1,137 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for HeaviestEdgesGraph.
+ * 
+ * This class runs the GraphInstanceTest tests against a HeaviestEdgesGraph
+ * wrapping the default graph, as well as tests of its ranking.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class HeaviestEdgesGraphTest extends GraphInstanceTest {
+    
+    /*
+     * Provide a HeaviestEdgesGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return Graphs.heaviestEdges(new ConcreteEdgesGraph<>());
+    }
+    
+    /*
+     * Testing strategy for HeaviestEdgesGraph
+     *   k: 0, less than, more than the number of edges
+     *   source: not in graph, without targets, with targets
+     *   changes: add edge, reweight, set weight 0, set same weight, remove
+     *     source, remove target
+     *   wrapped graph: empty, with edges
+     *   ties: equal weights rank oldest first
+     *   observe random changes by comparing with sorting every edge
+     */
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    //covers k 0, less than and more than edges, source not in graph and
+    //  without targets, ties
+    public void testHeaviest(){
+        HeaviestEdgesGraph<String> graph = Graphs.heaviestEdges(new ConcreteEdgesGraph<>());
+        graph.set("a", "b", 3);
+        graph.set("a", "c", 5);
+        graph.set("b", "c", 3);
+        graph.add("d");
+        
+        assertEquals(Collections.emptyList(), graph.heaviest(0));
+        assertEquals(Arrays.asList(new Edge<>("a", "c", 5), new Edge<>("a", "b", 3)), graph.heaviest(2));
+        assertEquals(Arrays.asList(new Edge<>("a", "c", 5), new Edge<>("a", "b", 3),
+                new Edge<>("b", "c", 3)), graph.heaviest(10));
+        assertEquals(Arrays.asList(new Edge<>("a", "c", 5)), graph.heaviestTargets("a", 1));
+        assertEquals(Collections.emptyList(), graph.heaviestTargets("d", 3));
+        assertEquals(Collections.emptyList(), graph.heaviestTargets("missing", 3));
+    }
+    
+    @Test
+    //covers reweight, weight 0, same weight, remove source and target
+    public void testChanges(){
+        HeaviestEdgesGraph<String> graph = Graphs.heaviestEdges(new ConcreteEdgesGraph<>());
+        graph.set("a", "b", 1);
+        graph.set("a", "c", 2);
+        graph.set("c", "a", 4);
+        graph.set("b", "c", 3);
+        
+        graph.set("a", "b", 6);
+        graph.set("c", "a", 4);
+        assertEquals(Arrays.asList(new Edge<>("a", "b", 6), new Edge<>("c", "a", 4)), graph.heaviest(2));
+        graph.set("a", "b", 0);
+        assertEquals(Arrays.asList(new Edge<>("a", "c", 2)), graph.heaviestTargets("a", 5));
+        graph.remove("c");
+        assertEquals(Collections.emptyList(), graph.heaviest(5));
+        graph.set("c", "b", 7);
+        graph.remove("b");
+        assertEquals(Collections.emptyList(), graph.heaviest(5));
+        assertEquals(Collections.emptyList(), graph.heaviestTargets("c", 5));
+    }
+    
+    @Test
+    //covers wrapped graph with edges
+    public void testExistingEdges(){
+        Graph<String> wrapped = Graphs.intIndexed();
+        wrapped.set("x", "y", 2);
+        wrapped.set("y", "x", 9);
+        HeaviestEdgesGraph<String> graph = Graphs.heaviestEdges(wrapped);
+        
+        assertEquals(Arrays.asList(new Edge<>("y", "x", 9), new Edge<>("x", "y", 2)), graph.heaviest(2));
+    }
+    
+    @Test
+    //covers random changes
+    public void testRandom(){
+        Random random = new Random(22);
+        HeaviestEdgesGraph<Integer> graph = Graphs.heaviestEdges(new ConcreteEdgesGraph<>());
+        for ( int step = 0; step < 2000; step++ ) {
+            int source = random.nextInt(30);
+            if ( random.nextInt(50) == 0 ) {
+                graph.remove(source);
+            } else {
+                graph.set(source, random.nextInt(30), random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(1000));
+            }
+        }
+        List<Integer> weights = new ArrayList<>();
+        for ( int source : graph.vertices() ) {
+            List<Integer> sourceWeights = new ArrayList<>(graph.targets(source).values());
+            sourceWeights.sort(Collections.reverseOrder());
+            List<Integer> topTargets = new ArrayList<>();
+            for ( Edge<Integer> edge : graph.heaviestTargets(source, 5) ) {
+                assertEquals(edge.getSource(), (Integer) source);
+                assertEquals(graph.targets(source).get(edge.getTarget()), (Integer) edge.getWeight());
+                topTargets.add(edge.getWeight());
+            }
+            assertEquals(sourceWeights.subList(0, Math.min(5, sourceWeights.size())), topTargets);
+            weights.addAll(sourceWeights);
+        }
+        weights.sort(Collections.reverseOrder());
+        List<Integer> top = new ArrayList<>();
+        for ( Edge<Integer> edge : graph.heaviest(20) ) {
+            Map<Integer, Integer> targets = graph.targets(edge.getSource());
+            assertEquals(targets.get(edge.getTarget()), (Integer) edge.getWeight());
+            top.add(edge.getWeight());
+        }
+        assertEquals(weights.subList(0, Math.min(20, weights.size())), top);
+    }
+}
@@ -0,0 +1,130 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import graph.GraphMetrics.Cost;
+import graph.GraphMetrics.Operation;
+
+/**
+ * Tests for InstrumentedGraph and GraphMetrics.
+ * 
+ * This class runs the GraphInstanceTest tests against an InstrumentedGraph
+ * wrapping the default graph, as well as tests of what it records.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class InstrumentedGraphTest extends GraphInstanceTest {
+    
+    /*
+     * Provide an InstrumentedGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return Graphs.instrumented(new ConcreteEdgesGraph<>(), new GraphMetrics());
+    }
+    
+    /*
+     * Testing strategy for InstrumentedGraph
+     *   operations: add, set, remove, vertices, sources, targets
+     *   result size: 0, > 0
+     *   wrapped graph: records internal costs, does not
+     *   close(): wrapper closed, wrapped graph rewrapped before close
+     *
+     * Testing strategy for GraphMetrics
+     *   bucketOf(): 0, 1, power of two, beyond the last bucket
+     *   snapshot(): before and after more recording
+     */
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    //covers every operation, result sizes 0 and > 0
+    public void testCallsAndResultSizes(){
+        GraphMetrics metrics = new GraphMetrics();
+        Graph<String> graph = Graphs.instrumented(Graphs.intIndexed(), metrics);
+        graph.add("a");
+        graph.set("a", "b", 1);
+        graph.set("a", "c", 2);
+        graph.targets("a");
+        graph.sources("a");
+        graph.vertices();
+        graph.remove("c");
+        GraphMetrics.Snapshot snapshot = metrics.snapshot();
+        
+        assertEquals("Expected add recorded", 1, snapshot.calls(Operation.ADD));
+        assertEquals("Expected set recorded", 2, snapshot.calls(Operation.SET));
+        assertEquals("Expected remove recorded", 1, snapshot.calls(Operation.REMOVE));
+        assertEquals("Expected two targets", 2, snapshot.totalResultSize(Operation.TARGETS));
+        assertEquals("Expected no sources", 0, snapshot.totalResultSize(Operation.SOURCES));
+        assertEquals("Expected three vertices", 3, snapshot.totalResultSize(Operation.VERTICES));
+        assertEquals("Expected every call in the histogram", 2,
+                Arrays.stream(snapshot.latencyHistogram(Operation.SET)).sum());
+        assertEquals("Expected no internal costs", 0, snapshot.cost(Cost.ELEMENTS_SCANNED));
+    }
+    
+    @Test
+    //covers wrapped graphs that record internal costs, snapshots taken in turn
+    public void testInternalCosts(){
+        for ( Graph<String> wrapped : Arrays.<Graph<String>>asList(
+                new ConcreteEdgesGraph<>(), new ConcreteVerticesGraph<>()) ) {
+            GraphMetrics metrics = new GraphMetrics();
+            Graph<String> graph = Graphs.instrumented(wrapped, metrics);
+            graph.set("a", "b", 1);
+            graph.set("c", "a", 2);
+            GraphMetrics.Snapshot before = metrics.snapshot();
+            graph.remove("a");
+            
+            assertEquals("Expected set() to scan nothing", 0, before.cost(Cost.ELEMENTS_SCANNED));
+            assertEquals("Expected remove() to visit both edges", 2,
+                    metrics.snapshot().cost(Cost.ELEMENTS_SCANNED));
+        }
+    }
+    
+    @Test
+    //covers wrapper closed, wrapped graph rewrapped before close
+    public void testCloseDetachesInternalCosts(){
+        ConcreteVerticesGraph<String> wrapped = new ConcreteVerticesGraph<>();
+        GraphMetrics first = new GraphMetrics();
+        GraphMetrics second = new GraphMetrics();
+        wrapped.set("a", "b", 1);
+        InstrumentedGraph<String> firstGraph = Graphs.instrumented(wrapped, first);
+        firstGraph.remove("a");
+        firstGraph.close();
+        wrapped.set("a", "b", 1);
+        wrapped.remove("a");
+        
+        assertEquals("Expected costs only while open", 1,
+                first.snapshot().cost(Cost.ELEMENTS_SCANNED));
+        
+        InstrumentedGraph<String> secondGraph = Graphs.instrumented(wrapped, second);
+        InstrumentedGraph<String> thirdGraph = Graphs.instrumented(wrapped, first);
+        secondGraph.close();
+        wrapped.set("a", "b", 1);
+        thirdGraph.remove("a");
+        thirdGraph.close();
+        
+        assertEquals("Expected close() to keep a later wrapper's costs", 2,
+                first.snapshot().cost(Cost.ELEMENTS_SCANNED));
+        assertEquals("Expected no costs in a replaced recorder", 0,
+                second.snapshot().cost(Cost.ELEMENTS_SCANNED));
+    }
+    
+    @Test
+    //covers bucketOf() at 0, 1, a power of two and beyond the last bucket
+    public void testBucketOf(){
+        assertEquals(0, GraphMetrics.bucketOf(0));
+        assertEquals(0, GraphMetrics.bucketOf(1));
+        assertEquals(10, GraphMetrics.bucketOf(1024));
+        assertEquals(10, GraphMetrics.bucketOf(2047));
+        assertEquals(GraphMetrics.LATENCY_BUCKETS - 1, GraphMetrics.bucketOf(Long.MAX_VALUE));
+    }
+}
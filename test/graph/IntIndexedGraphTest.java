@@ -0,0 +1,152 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for IntIndexedGraph.
+ * 
+ * This class runs the GraphInstanceTest tests against IntIndexedGraph, as
+ * well as tests for that particular implementation.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class IntIndexedGraphTest extends GraphInstanceTest {
+    
+    /*
+     * Provide an IntIndexedGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return Graphs.intIndexed();
+    }
+    
+    // Testing strategy for IntIndexedGraph
+    //   ids: fresh, reused after remove()
+    //   degree: below and above the initial list capacity
+    //   edges: self loop, 2-cycle
+    //   toString(): empty, contains edges
+    
+    @Test
+    //covers ids reused after remove(), self loop, 2-cycle
+    public void testRemoveThenReuseIds(){
+        Graph<String> graph = emptyInstance();
+        graph.set("a", "b", 1);
+        graph.set("b", "a", 2);
+        graph.set("a", "a", 3);
+        graph.set("b", "c", 4);
+        
+        assertTrue("Expected a removed", graph.remove("a"));
+        graph.set("d", "b", 5);
+        
+        Map<String, Integer> expectedSources = new HashMap<>();
+        expectedSources.put("d", 5);
+        assertEquals("Expected only new source of b", expectedSources, graph.sources("b"));
+        assertEquals("Expected b -> c kept", (Integer) 4, graph.targets("b").get("c"));
+        assertFalse("Expected a gone", graph.vertices().contains("a"));
+        assertEquals("Expected three vertices", 3, graph.vertices().size());
+    }
+    @Test
+    //covers degree above the initial list capacity
+    public void testHighDegree(){
+        Graph<String> graph = emptyInstance();
+        final int n = 100;
+        for ( int i = 0; i < n; i++ ) {
+            graph.set("hub", "v" + i, i + 1);
+        }
+        graph.set("hub", "v50", 0);
+        
+        Map<String, Integer> targets = graph.targets("hub");
+        assertEquals("Expected one edge removed", n - 1, targets.size());
+        assertFalse("Expected v50 removed", targets.containsKey("v50"));
+        assertEquals("Expected weight kept", (Integer) 100, targets.get("v99"));
+        assertEquals("Expected sources of v99", 1, graph.sources("v99").size());
+    }
+    @Test
+    //covers toString() empty and with edges
+    public void testToString(){
+        Graph<String> graph = emptyInstance();
+        assertEquals("Expected 'Empty Graph'", "Empty Graph", graph.toString());
+        
+        graph.set("source1", "target1", 1);
+        assertEquals("Expected correct syntax", "source1 -> target1: 1", graph.toString());
+    }
+    
+    // Testing strategy for increment(source, target, delta) -> newWeight
+    //   edge: doesn't exist (vertices added), exists
+    //   delta: 1, > 1
+    @Test
+    //covers edge doesn't exist, edge exists, delta 1 and > 1
+    public void testIncrement(){
+        CountingGraph<String> graph = (CountingGraph<String>) emptyInstance();
+        
+        assertEquals("Expected new edge with weight delta", 1, graph.increment("a", "b", 1));
+        assertEquals("Expected weight increased", 4, graph.increment("a", "b", 3));
+        assertEquals("Expected targets updated", (Integer) 4, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 4, graph.sources("b").get("a"));
+        assertEquals("Expected vertices added", 2, graph.vertices().size());
+        assertEquals("Expected set() to see incremented weight", 4, graph.set("a", "b", 0));
+    }
+    
+    // Testing strategy for setAll(...)
+    //   edges: iterator, parallel arrays
+    //   entries: new edge, update of an earlier entry, removal (arrays only),
+    //            removal before the edge is added, self loop
+    //   graph: empty, already has edges
+    @Test
+    //covers iterator of new and updated edges
+    public void testSetAllIterator(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.setAll(Arrays.asList(
+                new Edge<>("a", "b", 1),
+                new Edge<>("b", "c", 2),
+                new Edge<>("a", "b", 3)).iterator());
+        
+        assertEquals("Expected last weight to win", (Integer) 3, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 2, graph.sources("c").get("b"));
+        assertEquals("Expected vertices added", 3, graph.vertices().size());
+    }
+    @Test
+    //covers parallel arrays with a removal
+    public void testSetAllArrays(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.setAll(new String[] { "a", "b", "a" },
+                     new String[] { "b", "c", "b" },
+                     new int[] { 1, 2, 0 });
+        
+        assertEquals("Expected a -> b removed", Collections.emptyMap(), graph.targets("a"));
+        assertEquals("Expected b -> c kept", (Integer) 2, graph.targets("b").get("c"));
+    }
+    @Test
+    //covers parallel arrays onto a graph with edges, removal before the edge
+    //is added, self loop
+    public void testSetAllArraysOntoEdges(){
+        BulkLoadableGraph<String> graph = (BulkLoadableGraph<String>) emptyInstance();
+        graph.set("a", "b", 1);
+        graph.set("c", "a", 2);
+        graph.setAll(new String[] { "a", "a", "a", "a", "d", "a" },
+                     new String[] { "d", "c", "a", "b", "a", "d" },
+                     new int[] { 0, 3, 4, 5, 6, 7 });
+        
+        Map<String, Integer> targets = new HashMap<>();
+        targets.put("a", 4);
+        targets.put("b", 5);
+        targets.put("c", 3);
+        targets.put("d", 7);
+        assertEquals("Expected targets of a", targets, graph.targets("a"));
+        Map<String, Integer> sources = new HashMap<>();
+        sources.put("a", 4);
+        sources.put("c", 2);
+        sources.put("d", 6);
+        assertEquals("Expected sources of a", sources, graph.sources("a"));
+        assertEquals("Expected vertices added", 4, graph.vertices().size());
+    }
+}
@@ -0,0 +1,91 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Tests for MappedGraph.
+ */
+public class MappedGraphTest {
+    
+    // Testing strategy
+    //   Partition for MappedGraph.write(graph, path) then open(path) -> mapped
+    //     graph: empty, contains vertices without edges, contains edges
+    //     labels: ASCII, non-ASCII
+    //     observe with vertices(), sources(), targets(), toString()
+    //   Partition for open(path)
+    //     path: graph file, file that is not a graph file
+    //   add(), set(), remove() throw UnsupportedOperationException
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    private static MappedGraph roundTrip(Graph<String> graph){
+        try {
+            Path file = Files.createTempFile("graph", ".wgr");
+            file.toFile().deleteOnExit();
+            MappedGraph.write(graph, file);
+            return MappedGraph.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Test
+    //covers empty graph
+    public void testEmptyGraph(){
+        MappedGraph mapped = roundTrip(Graph.empty());
+        
+        assertEquals("Expected no vertices", Collections.emptySet(), mapped.vertices());
+        assertEquals("Expected no targets", Collections.emptyMap(), mapped.targets("a"));
+        assertEquals("Expected 'Empty Graph'", "Empty Graph", mapped.toString());
+    }
+    @Test
+    //covers vertices with and without edges, ASCII and non-ASCII labels
+    public void testRoundTrip(){
+        Graph<String> graph = Graph.empty();
+        graph.set("the", "cat", 3);
+        graph.set("the", "caf\u00e9", 1);
+        graph.set("cat", "the", 2);
+        graph.set("caf\u00e9", "cat", 5);
+        graph.add("alone");
+        
+        MappedGraph mapped = roundTrip(graph);
+        
+        assertEquals("Expected same vertices", graph.vertices(), new HashSet<>(mapped.vertices()));
+        assertTrue("Expected non-ASCII label found", mapped.vertices().contains("caf\u00e9"));
+        assertFalse("Expected unknown label not found", mapped.vertices().contains("dog"));
+        for ( String vertex : graph.vertices() ) {
+            assertEquals("Expected same targets", graph.targets(vertex), mapped.targets(vertex));
+            assertEquals("Expected same sources", graph.sources(vertex), mapped.sources(vertex));
+        }
+        assertEquals("Expected weight lookup", (Integer) 5, mapped.sources("cat").get("caf\u00e9"));
+        assertNull("Expected no edge", mapped.targets("cat").get("caf\u00e9"));
+    }
+    @Test(expected=IOException.class)
+    //covers file that is not a graph file
+    public void testOpenNotGraphFile() throws IOException {
+        Path file = Files.createTempFile("graph", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, "not a graph file at all".getBytes("UTF-8"));
+        
+        MappedGraph.open(file);
+    }
+    @Test(expected=UnsupportedOperationException.class)
+    public void testSetUnsupported(){
+        roundTrip(Graph.empty()).set("a", "b", 1);
+    }
+}
@@ -0,0 +1,148 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for OffHeapGraph.
+ * 
+ * This class runs the GraphInstanceTest tests against OffHeapGraph, as
+ * well as tests for that particular implementation and its arena.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class OffHeapGraphTest extends GraphInstanceTest {
+    
+    /*
+     * Provide an OffHeapGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return Graphs.offHeap();
+    }
+    
+    // Testing strategy for OffHeapGraph
+    //   arena: one chunk, several chunks
+    //   lists: grown past their first block, blocks freed and reused,
+    //          packed, hashed
+    //   remove(): vertex with self loop, in and out edges
+    //   set() to 0: entry of a hashed list, edge re-added after removal
+    //   close(): graph with edges, then reused
+    //
+    // Testing strategy for OffHeapIntArena
+    //   allocate(): fresh block, block from the free list, block that
+    //               needs the buffer of the chunk to grow
+    //   release(): arena with chunks
+    
+    @Test
+    //covers several chunks, lists grown and freed, hashed lists
+    public void testManySmallChunks(){
+        OffHeapIntArena arena = new OffHeapIntArena(10);
+        OffHeapGraph graph = new OffHeapGraph(arena);
+        final int n = 100;
+        for ( int i = 0; i < n; i++ ) {
+            graph.set("hub", "v" + i, i + 1);
+            graph.set("v" + i, "hub", i + 1);
+        }
+        graph.set("hub", "hub", 7);
+        
+        Map<String, Integer> targets = graph.targets("hub");
+        assertEquals("Expected all targets", n + 1, targets.size());
+        assertEquals("Expected weight kept", (Integer) 42, targets.get("v41"));
+        assertEquals("Expected all sources", n + 1, graph.sources("hub").size());
+        assertTrue("Expected several chunks", arena.reservedBytes() > 1024 * Integer.BYTES);
+        
+        assertTrue("Expected hub removed", graph.remove("hub"));
+        for ( int i = 0; i < n; i++ ) {
+            assertTrue("Expected no edges left", graph.targets("v" + i).isEmpty());
+        }
+        assertEquals("Expected 'Empty Graph'", "Empty Graph", graph.toString());
+    }
+    @Test
+    //covers block from the free list
+    public void testArenaReusesFreedBlocks(){
+        OffHeapIntArena arena = new OffHeapIntArena(8);
+        final int first = arena.allocate(3);
+        arena.set(first + 7, 42);
+        final int second = arena.allocate(3);
+        arena.free(first, 3);
+        final int reused = arena.allocate(3);
+        
+        assertNotEquals("Expected distinct blocks", first, second);
+        assertEquals("Expected freed block reused", first, reused);
+        assertEquals("Expected one chunk", 256 * Integer.BYTES, arena.reservedBytes());
+    }
+    @Test
+    //covers block that needs the buffer of the chunk to grow, release()
+    public void testArenaGrowsThenReleasesBuffer(){
+        OffHeapIntArena arena = new OffHeapIntArena(16);
+        final int first = arena.allocate(4);
+        arena.set(first + 15, 42);
+        
+        assertEquals("Expected small first buffer",
+                (1 << OffHeapIntArena.INITIAL_BUFFER_BITS) * Integer.BYTES, arena.reservedBytes());
+        final int big = arena.allocate(12);
+        arena.set(big + (1 << 12) - 1, 7);
+        assertEquals("Expected contents kept when buffer grows", 42, arena.get(first + 15));
+        assertEquals("Expected last int of new block", 7, arena.get(big + (1 << 12) - 1));
+        assertEquals("Expected buffer doubled to fit", 8192 * Integer.BYTES, arena.reservedBytes());
+        
+        arena.release();
+        assertEquals("Expected nothing reserved", 0, arena.reservedBytes());
+    }
+    @Test
+    //covers entries removed from and re-added to a hashed list
+    public void testRemoveFromHashedList(){
+        OffHeapGraph graph = new OffHeapGraph();
+        final int n = 1000;
+        for ( int i = 0; i < n; i++ ) {
+            graph.set("hub", "v" + i, i + 1);
+        }
+        for ( int i = 0; i < n; i += 2 ) {
+            assertEquals("Expected previous weight", i + 1, graph.set("hub", "v" + i, 0));
+        }
+        for ( int i = 0; i < n; i++ ) {
+            final Integer expected = i % 2 == 0 ? null : i + 1;
+            assertEquals("Expected odd targets kept", expected, graph.targets("hub").get("v" + i));
+        }
+        assertEquals("Expected new edge", 0, graph.set("hub", "v0", 5));
+        assertEquals("Expected re-added edge found", 5, graph.set("hub", "v0", 6));
+        assertEquals("Expected half the targets and v0", n / 2 + 1, graph.targets("hub").size());
+    }
+    @Test
+    //covers close() of a graph with edges, graph reused after close()
+    public void testClose(){
+        OffHeapGraph graph = new OffHeapGraph();
+        for ( int i = 0; i < 1000; i++ ) {
+            graph.set("v" + i, "v" + (i + 1), 1);
+        }
+        final long reserved = graph.offHeapBytes();
+        
+        graph.close();
+        assertTrue("Expected no vertices", graph.vertices().isEmpty());
+        assertTrue("Expected memory dropped", graph.offHeapBytes() < reserved);
+        assertEquals("Expected usable after close", 0, graph.set("a", "b", 1));
+        assertEquals("Expected edge after close", "a -> b: 1", graph.toString());
+    }
+    
+    // Testing strategy for increment(source, target, delta) -> newWeight
+    //   edge: doesn't exist (vertices added), exists
+    //   delta: 1, > 1
+    @Test
+    //covers edge doesn't exist, edge exists, delta 1 and > 1
+    public void testIncrement(){
+        CountingGraph<String> graph = (CountingGraph<String>) emptyInstance();
+        
+        assertEquals("Expected new edge with weight delta", 1, graph.increment("a", "b", 1));
+        assertEquals("Expected weight increased", 4, graph.increment("a", "b", 3));
+        assertEquals("Expected targets updated", (Integer) 4, graph.targets("a").get("b"));
+        assertEquals("Expected sources updated", (Integer) 4, graph.sources("b").get("a"));
+        assertEquals("Expected vertices added", 2, graph.vertices().size());
+        assertEquals("Expected set() to see incremented weight", 4, graph.set("a", "b", 0));
+    }
+}
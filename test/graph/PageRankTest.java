@@ -0,0 +1,128 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Tests for PageRank.
+ */
+public class PageRankTest {
+    
+    // Testing strategy
+    //   graph: empty, cycle, star, weighted choice, vertices without edges
+    //     out, large random graph
+    //   iteration: converges, stopped by the cap (including a cap of 0)
+    //   pool: one thread, several threads
+    //   observe with score(), scores(), top(), iterations(), converged()
+    
+    private static final double EPSILON = 1e-6;
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    private static double sum(Map<?, Double> scores){
+        double sum = 0;
+        for ( double score : scores.values() ) {
+            sum += score;
+        }
+        return sum;
+    }
+    
+    @Test
+    //covers empty graph
+    public void testEmpty(){
+        PageRank<String> rank = PageRank.of(new ConcreteEdgesGraph<>());
+        
+        assertTrue(rank.converged());
+        assertEquals(0, rank.iterations());
+        assertEquals(Collections.emptyMap(), rank.scores());
+        assertEquals(0, rank.score("missing"), 0);
+    }
+    
+    @Test
+    //covers cycle, converges
+    public void testCycle(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 5);
+        graph.set("c", "a", 2);
+        PageRank<String> rank = PageRank.of(graph);
+        
+        assertTrue(rank.converged());
+        for ( String vertex : Arrays.asList("a", "b", "c") ) {
+            assertEquals(1.0 / 3, rank.score(vertex), EPSILON);
+        }
+    }
+    
+    @Test
+    //covers star, vertices without edges out, weighted choice, top()
+    public void testStarAndWeights(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("b", "a", 1);
+        graph.set("c", "a", 1);
+        graph.set("a", "heavy", 9);
+        graph.set("a", "light", 1);
+        graph.add("alone");
+        PageRank<String> rank = PageRank.of(graph);
+        
+        assertEquals("Expected scores to sum to 1", 1, sum(rank.scores()), EPSILON);
+        assertTrue(rank.score("heavy") > rank.score("light"));
+        assertEquals(Arrays.asList("heavy", "a"), rank.top(2));
+        assertEquals(6, rank.top(10).size());
+        assertEquals(rank.score("b"), rank.score("alone"), EPSILON);
+    }
+    
+    @Test
+    //covers iteration cap of 0 and 1
+    public void testIterationCap(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("c", "b", 1);
+        
+        PageRank<String> none = PageRank.of(graph, 0.85, 1e-9, 0, ForkJoinPool.commonPool());
+        assertFalse(none.converged());
+        assertEquals(1.0 / 3, none.score("b"), EPSILON);
+        
+        PageRank<String> one = PageRank.of(graph, 0.85, 1e-9, 1, ForkJoinPool.commonPool());
+        assertEquals(1, one.iterations());
+        assertTrue(one.score("b") > one.score("a"));
+    }
+    
+    @Test
+    //covers large random graph, one and several threads
+    public void testParallelMatchesSequential(){
+        Random random = new Random(3);
+        Graph<Integer> graph = Graphs.intIndexed();
+        for ( int i = 0; i < 100000; i++ ) {
+            graph.set(random.nextInt(20000), random.nextInt(20000), 1 + random.nextInt(10));
+        }
+        FrozenGraph<Integer> frozen = Graphs.freeze(graph);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            PageRank<Integer> expected = PageRank.of(frozen, 0.85, 1e-10, 200, single);
+            PageRank<Integer> actual = PageRank.of(frozen, 0.85, 1e-10, 200, several);
+            
+            assertTrue(expected.converged());
+            assertEquals(1, sum(actual.scores()), EPSILON);
+            for ( int v = 0; v < 20000; v += 101 ) {
+                assertEquals(expected.score(v), actual.score(v), 1e-12);
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+}
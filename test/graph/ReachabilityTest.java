@@ -0,0 +1,113 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for Reachability.
+ */
+public class ReachabilityTest {
+    
+    // Testing strategy
+    //   source, target: not in graph, without edges, with edges; target == source
+    //   hops: 0, 1, more than the longest path
+    //   graph: chain, with cycles, sparse random (top-down only), dense
+    //     random (switches to bottom-up and back)
+    //   observe by comparing with a breadth-first search over targets()
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    /** Returns the vertices within hops of source, by a plain breadth-first search */
+    private static <L> Set<L> expectedWithinHops(Graph<L> graph, L source, int hops){
+        Map<L, Integer> levels = new HashMap<>();
+        Queue<L> queue = new ArrayDeque<>();
+        levels.put(source, 0);
+        queue.add(source);
+        while ( !queue.isEmpty() ) {
+            L u = queue.remove();
+            if ( levels.get(u) == hops ) {
+                continue;
+            }
+            for ( L v : graph.targets(u).keySet() ) {
+                if ( !levels.containsKey(v) ) {
+                    levels.put(v, levels.get(u) + 1);
+                    queue.add(v);
+                }
+            }
+        }
+        return levels.keySet();
+    }
+    
+    @Test
+    //covers chain, hops 0, 1 and more than the longest path, target == source
+    public void testChain(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        graph.set("c", "d", 1);
+        
+        assertEquals(Collections.singleton("a"), Reachability.withinHops(graph, "a", 0));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), Reachability.withinHops(graph, "a", 1));
+        assertEquals(new HashSet<>(Arrays.asList("b", "c", "d")), Reachability.reachable(graph, "b"));
+        assertTrue(Reachability.isReachable(graph, "a", "d"));
+        assertFalse(Reachability.isReachable(graph, "d", "a"));
+        assertTrue(Reachability.isReachable(graph, "d", "d"));
+    }
+    
+    @Test
+    //covers source and target not in graph, source without edges
+    public void testMissingVertices(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.add("alone");
+        
+        assertEquals(Collections.emptySet(), Reachability.reachable(graph, "missing"));
+        assertEquals(Collections.singleton("alone"), Reachability.reachable(graph, "alone"));
+        assertFalse(Reachability.isReachable(graph, "a", "missing"));
+        assertFalse(Reachability.isReachable(graph, "missing", "a"));
+    }
+    
+    @Test
+    //covers sparse and dense random graphs with cycles, several hop limits
+    public void testRandomGraphs(){
+        Random random = new Random(11);
+        for ( int edges : new int[] { 1500, 60000 } ) {
+            Graph<Integer> graph = Graphs.intIndexed();
+            for ( int v = 0; v < 1000; v++ ) {
+                graph.add(v);
+            }
+            for ( int i = 0; i < edges; i++ ) {
+                graph.set(random.nextInt(1000), random.nextInt(1000), 1);
+            }
+            FrozenGraph<Integer> frozen = Graphs.freeze(graph);
+            for ( int source = 0; source < 1000; source += 111 ) {
+                for ( int hops : new int[] { 0, 1, 2, 3, 1000 } ) {
+                    assertEquals("Expected same vertices for " + edges + " edges, hops " + hops,
+                            expectedWithinHops(graph, source, hops),
+                            Reachability.withinHops(frozen, source, hops));
+                }
+                Set<Integer> reachable = Reachability.reachable(frozen, source);
+                for ( int target = 0; target < 1000; target += 37 ) {
+                    assertEquals(reachable.contains(target), Reachability.isReachable(frozen, source, target));
+                }
+            }
+        }
+    }
+}
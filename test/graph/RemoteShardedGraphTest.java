@@ -0,0 +1,124 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for ShardedGraph with shards in separate processes.
+ * 
+ * This class runs the GraphInstanceTest and ShardedGraphTest tests against
+ * a ShardedGraph whose shards are hosted by two ShardServer processes,
+ * shared by all tests, as well as tests of the server protocol.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class RemoteShardedGraphTest extends ShardedGraphTest {
+    
+    private static final int SERVERS = 2;
+    private static List<InetSocketAddress> servers = null;
+    
+    private final List<ShardedGraph<String>> graphs = new ArrayList<>();
+    
+    private static synchronized List<InetSocketAddress> servers() throws IOException {
+        if ( servers == null ) {
+            final List<InetSocketAddress> launched = new ArrayList<>();
+            for ( int i = 0; i < SERVERS; i++ ) {
+                final ShardServer server = ShardServer.launch();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+                launched.add(server.address());
+            }
+            servers = launched;
+        }
+        return servers;
+    }
+    
+    /*
+     * Provide a ShardedGraph with remote shards for tests in
+     * GraphInstanceTest and ShardedGraphTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        try {
+            final ShardedGraph<String> graph = ShardedGraph.connect(servers());
+            graphs.add(graph);
+            return graph;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+    
+    /** Drops the shards of the graphs of a test from the servers */
+    @After
+    public void closeGraphs() {
+        graphs.forEach(ShardedGraph::close);
+        graphs.clear();
+    }
+    
+    /*
+     * Testing strategy for the ShardServer protocol
+     *   request: class not on the allow-list, argument of the wrong type
+     *   observe with a raw connection to a server
+     */
+    
+    /** Sends one request on a raw connection */
+    private static void send(ObjectOutputStream out, byte request, Object... arguments) throws IOException {
+        out.writeByte(request);
+        for ( Object argument : arguments ) {
+            out.writeObject(argument);
+        }
+        out.reset();
+        out.flush();
+    }
+    
+    @Test
+    //covers class not on the allow-list
+    public void testDisallowedClassDropsConnection() throws IOException {
+        try (Socket socket = new Socket(servers().get(0).getAddress(), servers().get(0).getPort())) {
+            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+            ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            send(out, ShardServer.ADD, new Date());
+            
+            try {
+                in.readBoolean();
+                fail("expected the server to drop the connection");
+            } catch (EOFException | SocketException e) {
+                // expected
+            }
+        }
+    }
+    
+    @Test
+    //covers argument of the wrong type
+    public void testBadArgumentKeepsStreamInStep() throws IOException, ClassNotFoundException {
+        try (Socket socket = new Socket(servers().get(0).getAddress(), servers().get(0).getPort())) {
+            ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+            out.flush();
+            ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            
+            send(out, ShardServer.SET_TARGET, "a", "b", "not a weight");
+            assertFalse("Expected the request to fail", in.readBoolean());
+            in.readObject();
+            send(out, ShardServer.ADD, "a");
+            assertTrue("Expected the next request to succeed", in.readBoolean());
+            assertEquals(Boolean.TRUE, in.readObject());
+        }
+    }
+}
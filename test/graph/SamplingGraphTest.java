@@ -0,0 +1,147 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for SamplingGraph.
+ * 
+ * This class runs the GraphInstanceTest tests against a SamplingGraph
+ * wrapping the default graph, as well as tests of its sampling.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class SamplingGraphTest extends GraphInstanceTest {
+    
+    /*
+     * Provide a SamplingGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return Graphs.sampling(new ConcreteEdgesGraph<>());
+    }
+    
+    /*
+     * Testing strategy for SamplingGraph
+     *   source: not in graph, without targets, one target, many targets
+     *   weights: equal, skewed
+     *   changes after sampling: set new edge, reweight, set weight 0,
+     *     remove target, remove source
+     *   walk(): 0 steps, stops at a vertex without targets, all steps taken
+     *   observe distributions by counting many draws
+     */
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    /** Returns how often each target of source is drawn in n draws */
+    private static Map<String, Integer> draw(SamplingGraph<String> graph, String source, int n){
+        Random random = new Random(23);
+        Map<String, Integer> counts = new HashMap<>();
+        for ( int i = 0; i < n; i++ ) {
+            counts.merge(graph.sample(source, random), 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    /** Asserts that count is within 5% of n draws of expected share */
+    private static void assertShare(double expected, int count, int n){
+        assertEquals(expected, (double) count / n, 0.05);
+    }
+    
+    @Test
+    //covers source not in graph, without targets, one target
+    public void testFewTargets(){
+        SamplingGraph<String> graph = Graphs.sampling(new ConcreteEdgesGraph<>());
+        graph.add("alone");
+        graph.set("a", "b", 7);
+        Random random = new Random(1);
+        
+        assertNull(graph.sample("missing", random));
+        assertNull(graph.sample("alone", random));
+        assertEquals("b", graph.sample("a", random));
+    }
+    
+    @Test
+    //covers many targets, equal and skewed weights
+    public void testDistribution(){
+        SamplingGraph<String> graph = Graphs.sampling(Graphs.intIndexed());
+        graph.set("a", "b", 1);
+        graph.set("a", "c", 1);
+        graph.set("a", "d", 2);
+        graph.set("x", "y", 1);
+        graph.set("x", "z", 99);
+        final int n = 100_000;
+        
+        Map<String, Integer> counts = draw(graph, "a", n);
+        assertShare(0.25, counts.get("b"), n);
+        assertShare(0.25, counts.get("c"), n);
+        assertShare(0.5, counts.get("d"), n);
+        counts = draw(graph, "x", n);
+        assertShare(0.99, counts.get("z"), n);
+        assertEquals(2, counts.size());
+    }
+    
+    @Test
+    //covers set new edge, reweight and weight 0 after sampling
+    public void testSetInvalidates(){
+        SamplingGraph<String> graph = Graphs.sampling(new ConcreteEdgesGraph<>());
+        graph.set("a", "b", 1);
+        final int n = 10_000;
+        assertEquals(n, (int) draw(graph, "a", n).get("b"));
+        
+        graph.set("a", "c", 3);
+        Map<String, Integer> counts = draw(graph, "a", n);
+        assertShare(0.75, counts.get("c"), n);
+        graph.set("a", "b", 9);
+        counts = draw(graph, "a", n);
+        assertShare(0.75, counts.get("b"), n);
+        graph.set("a", "b", 0);
+        assertEquals(n, (int) draw(graph, "a", n).get("c"));
+    }
+    
+    @Test
+    //covers remove target and source after sampling
+    public void testRemoveInvalidates(){
+        SamplingGraph<String> graph = Graphs.sampling(new ConcreteEdgesGraph<>());
+        graph.set("a", "b", 1);
+        graph.set("a", "c", 1);
+        graph.set("c", "a", 1);
+        Random random = new Random(2);
+        graph.sample("a", random);
+        graph.sample("c", random);
+        
+        graph.remove("b");
+        assertEquals(Integer.valueOf(1000), draw(graph, "a", 1000).get("c"));
+        graph.remove("c");
+        assertNull(graph.sample("a", random));
+        assertNull(graph.sample("c", random));
+        graph.set("c", "b", 1);
+        assertEquals("b", graph.sample("c", random));
+    }
+    
+    @Test
+    //covers walk 0 steps, stopping early, all steps taken
+    public void testWalk(){
+        SamplingGraph<String> graph = Graphs.sampling(new ConcreteEdgesGraph<>());
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        graph.set("x", "y", 1);
+        graph.set("y", "x", 1);
+        Random random = new Random(3);
+        
+        assertEquals(Arrays.asList("a"), graph.walk("a", 0, random));
+        assertEquals(Arrays.asList("a", "b", "c"), graph.walk("a", 5, random));
+        assertEquals(Arrays.asList("x", "y", "x", "y"), graph.walk("x", 3, random));
+    }
+}
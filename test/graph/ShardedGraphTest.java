@@ -0,0 +1,77 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for ShardedGraph with in-process shards.
+ * 
+ * This class runs the GraphInstanceTest tests against ShardedGraph, as well
+ * as tests of edges that span shards. RemoteShardedGraphTest runs the same
+ * tests with shards in separate processes.
+ * 
+ * Tests against the Graph spec should be in GraphInstanceTest.
+ */
+public class ShardedGraphTest extends GraphInstanceTest {
+    
+    /*
+     * Provide a ShardedGraph for tests in GraphInstanceTest.
+     */
+    @Override public Graph<String> emptyInstance() {
+        return new ShardedGraph<>(3);
+    }
+    
+    /*
+     * Testing strategy for ShardedGraph
+     *   edges: within one shard, across shards, self loops
+     *   remove(): vertex with edges to several shards, with a self loop
+     *   toString(): no edges, edges in several shards
+     */
+    
+    @Test
+    //covers edges across shards, remove() of a vertex with edges to several shards and a loop
+    public void testRemoveAcrossShards(){
+        Graph<String> graph = emptyInstance();
+        for ( String vertex : Arrays.asList("b", "c", "d", "e", "f") ) {
+            graph.set("a", vertex, 1);
+            graph.set(vertex, "a", 2);
+            graph.set(vertex, "b", 3);
+        }
+        graph.set("a", "a", 4);
+        graph.remove("a");
+        
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("b", 3); //loop b -> b
+        for ( String vertex : Arrays.asList("c", "d", "e", "f") ) {
+            assertEquals("Expected edges to a removed", Collections.singletonMap("b", 3), graph.targets(vertex));
+            assertEquals("Expected edges from a removed", Collections.emptyMap(), graph.sources(vertex));
+            expected.put(vertex, 3);
+        }
+        assertEquals("Expected other edges kept", expected, graph.sources("b"));
+        assertEquals("Expected 5 vertices", 5, graph.vertices().size());
+    }
+    
+    @Test
+    //covers toString() with no edges, edges in several shards
+    public void testToString(){
+        Graph<String> graph = emptyInstance();
+        assertEquals("Empty Graph", graph.toString());
+        
+        graph.set("a", "b", 1);
+        graph.set("x", "y", 2);
+        
+        assertEquals("Expected one line per edge",
+                new HashSet<>(Arrays.asList("a -> b: 1", "x -> y: 2")),
+                new HashSet<>(Arrays.asList(graph.toString().split("\n"))));
+    }
+}
@@ -0,0 +1,117 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Tests for ShortestPaths.
+ */
+public class ShortestPathsTest {
+    
+    // Testing strategy
+    //   algorithm: dijkstra, deltaStepping with default and given delta
+    //   source: not in graph, without edges, with edges
+    //   target: source, reached by one or several paths, unreached, not in graph
+    //   graph: mutable, already frozen; small, random with many vertices
+    //   delta: 1, less than, greater than every weight
+    //   pool: common pool, pool with several threads
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    private static Graph<String> sampleGraph(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 4);
+        graph.set("a", "c", 1);
+        graph.set("c", "b", 2);
+        graph.set("b", "d", 5);
+        graph.set("c", "d", 8);
+        graph.set("d", "a", 1);
+        graph.add("e");
+        return graph;
+    }
+    
+    private static void checkSample(ShortestPaths<String> paths){
+        assertEquals(0, paths.distanceTo("a"));
+        assertEquals("Expected path through c", 3, paths.distanceTo("b"));
+        assertEquals(1, paths.distanceTo("c"));
+        assertEquals(8, paths.distanceTo("d"));
+        assertEquals(Arrays.asList("a", "c", "b", "d"), paths.pathTo("d"));
+        assertEquals(Collections.singletonList("a"), paths.pathTo("a"));
+        assertFalse(paths.reaches("e"));
+        assertEquals(ShortestPaths.NO_PATH, paths.distanceTo("e"));
+        assertEquals(Collections.emptyList(), paths.pathTo("e"));
+        assertEquals(ShortestPaths.NO_PATH, paths.distanceTo("missing"));
+        assertEquals(4, paths.distances().size());
+    }
+    
+    @Test
+    //covers dijkstra, small mutable graph, every kind of target
+    public void testDijkstra(){
+        checkSample(ShortestPaths.dijkstra(sampleGraph(), "a"));
+    }
+    
+    @Test
+    //covers deltaStepping with default and given delta, frozen graph, pools
+    public void testDeltaStepping(){
+        FrozenGraph<String> frozen = Graphs.freeze(sampleGraph());
+        checkSample(ShortestPaths.deltaStepping(frozen, "a"));
+        for ( long delta : new long[] { 1, 3, 100 } ) {
+            checkSample(ShortestPaths.deltaStepping(frozen, "a", delta, ForkJoinPool.commonPool()));
+        }
+    }
+    
+    @Test
+    //covers source not in graph, source without edges
+    public void testIsolatedSource(){
+        ShortestPaths<String> missing = ShortestPaths.dijkstra(sampleGraph(), "missing");
+        assertFalse(missing.reaches("missing"));
+        assertEquals(Collections.emptyMap(), missing.distances());
+        assertEquals(Collections.emptyMap(), ShortestPaths.deltaStepping(sampleGraph(), "missing").distances());
+        
+        ShortestPaths<String> isolated = ShortestPaths.deltaStepping(sampleGraph(), "e");
+        assertEquals(Collections.singletonMap("e", 0L), isolated.distances());
+    }
+    
+    @Test
+    //covers large random graph, several threads, paths consistent with distances
+    public void testAlgorithmsAgree(){
+        Random random = new Random(7);
+        Graph<Integer> graph = Graphs.intIndexed();
+        for ( int i = 0; i < 20000; i++ ) {
+            graph.set(random.nextInt(3000), random.nextInt(3000), 1 + random.nextInt(20));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ShortestPaths<Integer> expected = ShortestPaths.dijkstra(graph, 0);
+            for ( long delta : new long[] { 1, 5, 50 } ) {
+                ShortestPaths<Integer> actual = ShortestPaths.deltaStepping(graph, 0, delta, pool);
+                assertEquals("Expected same distances for delta " + delta,
+                        expected.distances(), actual.distances());
+                for ( int target = 0; target < 3000; target += 97 ) {
+                    List<Integer> path = actual.pathTo(target);
+                    long length = 0;
+                    for ( int i = 0; i + 1 < path.size(); i++ ) {
+                        length += graph.targets(path.get(i)).get(path.get(i + 1));
+                    }
+                    assertEquals("Expected path as long as distance",
+                            path.isEmpty() ? ShortestPaths.NO_PATH : length, actual.distanceTo(target));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+ * Redistribution of original or derived work requires permission of course staff.
+ */
+package graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for StronglyConnectedComponents.
+ */
+public class StronglyConnectedComponentsTest {
+    
+    // Testing strategy
+    //   graph: empty, no edges, acyclic, one cycle, several cycles joined by
+    //     edges, self-loop, very deep chain and cycle, random
+    //   vertex: in graph, not in graph
+    //   condensation: no edges, parallel edges between components summed,
+    //     weights capped at Integer.MAX_VALUE
+    //   observe random graphs by comparing with mutual reachability
+    
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+    
+    @Test
+    //covers empty graph
+    public void testEmpty(){
+        StronglyConnectedComponents<String> scc = StronglyConnectedComponents.of(new ConcreteEdgesGraph<>());
+        
+        assertEquals(0, scc.count());
+        assertEquals(-1, scc.componentOf("a"));
+        assertTrue(scc.cyclicComponents().isEmpty());
+        assertTrue(scc.condensation().vertices().isEmpty());
+    }
+    
+    @Test
+    //covers no edges, acyclic, vertex not in graph
+    public void testAcyclic(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        graph.add("alone");
+        StronglyConnectedComponents<String> scc = StronglyConnectedComponents.of(graph);
+        
+        assertEquals(4, scc.count());
+        assertTrue(scc.cyclicComponents().isEmpty());
+        assertEquals(-1, scc.componentOf("missing"));
+        assertEquals(Collections.singleton("b"), scc.members(scc.componentOf("b")));
+        //reverse topological order
+        assertTrue(scc.componentOf("a") > scc.componentOf("b"));
+        assertTrue(scc.componentOf("b") > scc.componentOf("c"));
+    }
+    
+    @Test
+    //covers several cycles joined by edges, self-loop, parallel edges summed
+    public void testCyclesAndCondensation(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        graph.set("c", "a", 1);
+        graph.set("c", "d", 2);
+        graph.set("a", "e", 3);
+        graph.set("d", "e", 1);
+        graph.set("e", "d", 1);
+        graph.set("f", "f", 1);
+        graph.set("f", "a", 4);
+        StronglyConnectedComponents<String> scc = StronglyConnectedComponents.of(graph);
+        
+        assertEquals(3, scc.count());
+        int abc = scc.componentOf("a");
+        int de = scc.componentOf("d");
+        int f = scc.componentOf("f");
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), scc.members(abc));
+        assertEquals(new HashSet<>(Arrays.asList("d", "e")), scc.members(de));
+        assertTrue(scc.members(abc).contains("b"));
+        assertFalse(scc.members(abc).contains("d"));
+        assertEquals(new HashSet<>(Arrays.asList(scc.members(abc), scc.members(de), scc.members(f))),
+                new HashSet<>(scc.cyclicComponents()));
+        
+        Graph<Integer> condensed = scc.condensation();
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2)), condensed.vertices());
+        assertEquals(Collections.singletonMap(de, 5), condensed.targets(abc));
+        assertEquals(Collections.singletonMap(abc, 4), condensed.targets(f));
+        assertTrue(condensed.targets(de).isEmpty());
+    }
+    
+    @Test
+    //covers condensation weights capped at Integer.MAX_VALUE
+    public void testCondensationWeightCap(){
+        Graph<String> graph = new ConcreteEdgesGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "a", 1);
+        graph.set("a", "c", Integer.MAX_VALUE);
+        graph.set("b", "c", Integer.MAX_VALUE);
+        StronglyConnectedComponents<String> scc = StronglyConnectedComponents.of(graph);
+        
+        assertEquals(Integer.MAX_VALUE, (int) scc.condensation()
+                .targets(scc.componentOf("a")).get(scc.componentOf("c")));
+    }
+    
+    @Test
+    //covers very deep chain and cycle
+    public void testDeepGraphs(){
+        final int n = 1_000_000;
+        Graph<Integer> chain = Graphs.intIndexed();
+        for ( int i = 0; i + 1 < n; i++ ) {
+            chain.set(i, i + 1, 1);
+        }
+        StronglyConnectedComponents<Integer> chainComponents = StronglyConnectedComponents.of(chain);
+        assertEquals(n, chainComponents.count());
+        assertTrue(chainComponents.cyclicComponents().isEmpty());
+        
+        chain.set(n - 1, 0, 1);
+        StronglyConnectedComponents<Integer> cycleComponents = StronglyConnectedComponents.of(chain);
+        assertEquals(1, cycleComponents.count());
+        assertEquals(n, cycleComponents.members(0).size());
+        assertEquals(1, cycleComponents.cyclicComponents().size());
+    }
+    
+    @Test
+    //covers random
+    public void testRandom(){
+        Random random = new Random(21);
+        Graph<Integer> graph = new ConcreteEdgesGraph<>();
+        for ( int i = 0; i < 60; i++ ) {
+            graph.add(i);
+        }
+        for ( int i = 0; i < 90; i++ ) {
+            graph.set(random.nextInt(60), random.nextInt(60), 1 + random.nextInt(5));
+        }
+        StronglyConnectedComponents<Integer> scc = StronglyConnectedComponents.of(graph);
+        
+        Map<Integer, Set<Integer>> reach = new HashMap<>();
+        for ( int v : graph.vertices() ) {
+            reach.put(v, Reachability.reachable(graph, v));
+        }
+        for ( int u : graph.vertices() ) {
+            for ( int v : graph.vertices() ) {
+                boolean mutual = u == v || reach.get(u).contains(v) && reach.get(v).contains(u);
+                assertEquals(u + " " + v, mutual, scc.componentOf(u) == scc.componentOf(v));
+                if ( graph.targets(u).containsKey(v) ) {
+                    assertTrue(scc.componentOf(u) >= scc.componentOf(v));
+                }
+            }
+        }
+        List<Set<Integer>> cyclic = scc.cyclicComponents();
+        for ( int v : graph.vertices() ) {
+            boolean onCycle = graph.targets(v).containsKey(v)
+                    || scc.members(scc.componentOf(v)).size() > 1;
+            assertEquals(onCycle, cyclic.contains(scc.members(scc.componentOf(v))));
+        }
+    }
+}
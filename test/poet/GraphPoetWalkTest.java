@@ -0,0 +1,56 @@
+/* Copyright (c) 2015-2016 MIT 6.005 course staff, all rights reserved.
+* Redistribution of original or derived work requires permission of course staff.
+*/
+package poet;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import graph.ConcreteEdgesGraph;
+import graph.Graph;
+/**
+ * Tests for GraphPoet.randomWalk(), over word graphs built in the test
+ * instead of read from corpus files.
+ */
+public class GraphPoetWalkTest {
+   // Testing strategy
+   //   length: 0, more than the longest walk
+   //   start: mixed case
+   //   word graph: changed after the poet is built
+   @Test(expected=AssertionError.class)
+   public void testAsserts() {
+       assert false;
+   }
+   @Test
+   //covers length more than the longest walk, mixed-case start
+   public void testWalkStopsAtLastWord() {
+       Graph<String> words = new ConcreteEdgesGraph<>();
+       words.set("to", "seek", 2);
+       words.set("seek", "out", 1);
+       GraphPoet poet = new GraphPoet(words);
+      
+       assertEquals("Expected the only walk, stopping at a word nothing follows",
+               "to seek out", poet.randomWalk("To", 10));
+   }
+   @Test
+   //covers length 0
+   public void testWalkNoSteps() {
+       Graph<String> words = new ConcreteEdgesGraph<>();
+       words.set("to", "seek", 2);
+       GraphPoet poet = new GraphPoet(words);
+      
+       assertEquals("Expected only the start word", "to", poet.randomWalk("to", 0));
+   }
+   @Test
+   //covers word graph changed after the poet is built
+   public void testWordGraphChangedAfterwards() {
+       Graph<String> words = new ConcreteEdgesGraph<>();
+       words.set("to", "seek", 2);
+       GraphPoet poet = new GraphPoet(words);
+       words.set("to", "seek", 0);
+       words.set("to", "find", 1);
+      
+       assertEquals("Expected the walk of the graph as given",
+               "to seek", poet.randomWalk("to", 1));
+       assertEquals("Expected the edges of the graph as given",
+               "to -> seek: 2", poet.toString());
+   }
+}